@@ -0,0 +1,93 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.benchmarks;
+
+import eu.maxschuster.vaadin.colorpickerfield.color.ColorLut;
+import eu.maxschuster.vaadin.colorpickerfield.color.ColorSpaces;
+import eu.maxschuster.vaadin.colorpickerfield.color.ColorTransform;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks a {@link ColorLut} against the Lab based transform baked into
+ * it, applied to an array of colors.
+ * <p>
+ * Run with {@code java -jar target/benchmarks.jar ColorLutBenchmark}.
+ *
+ * @author Max Schuster
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColorLutBenchmark {
+
+    /**
+     * Halves the chroma in CIE Lab
+     */
+    private static final ColorTransform DESATURATE = new ColorTransform() {
+
+        @Override
+        public int transform(int argb) {
+            double[] lab = new double[3];
+            ColorSpaces.argbToLab(argb, lab);
+            return ColorSpaces.labToArgb(lab[0], lab[1] * 0.5, lab[2] * 0.5, argb >>> 24);
+        }
+
+    };
+
+    private final int[] source = new int[4096];
+
+    private final int[] target = new int[source.length];
+
+    private ColorLut lut;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < source.length; i++) {
+            source[i] = random.nextInt() | 0xFF000000;
+        }
+        lut = new ColorLut(DESATURATE);
+    }
+
+    @Benchmark
+    public int[] lut() {
+        lut.transform(source, target);
+        return target;
+    }
+
+    @Benchmark
+    public int[] direct() {
+        for (int i = 0; i < source.length; i++) {
+            target[i] = DESATURATE.transform(source[i]);
+        }
+        return target;
+    }
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.benchmarks;
+
+import eu.maxschuster.vaadin.colorpickerfield.color.ColorPalette;
+import eu.maxschuster.vaadin.colorpickerfield.color.ColorSpaces;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks nearest color queries of {@link ColorPalette} against a linear
+ * scan over the OKLab coordinates of the palette.
+ * <p>
+ * Run with {@code java -jar target/benchmarks.jar ColorPaletteBenchmark}.
+ *
+ * @author Max Schuster
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColorPaletteBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    private ColorPalette palette;
+
+    private int[] colors;
+
+    private double[] coordinates;
+
+    private final int[] queries = new int[1024];
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        colors = new int[size];
+        coordinates = new double[size * 3];
+        double[] oklab = new double[3];
+        for (int i = 0; i < size; i++) {
+            colors[i] = random.nextInt() | 0xFF000000;
+            ColorSpaces.argbToOklab(colors[i], oklab);
+            System.arraycopy(oklab, 0, coordinates, i * 3, 3);
+        }
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = random.nextInt() | 0xFF000000;
+        }
+        palette = new ColorPalette(colors);
+    }
+
+    @Benchmark
+    public int nearest() {
+        return palette.nearest(queries[next++ & (queries.length - 1)]);
+    }
+
+    @Benchmark
+    public int linearScan() {
+        double[] oklab = new double[3];
+        ColorSpaces.argbToOklab(queries[next++ & (queries.length - 1)], oklab);
+        int nearest = 0;
+        double nearestDistance = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < colors.length; i++) {
+            double dl = coordinates[i * 3] - oklab[0];
+            double da = coordinates[i * 3 + 1] - oklab[1];
+            double db = coordinates[i * 3 + 2] - oklab[2];
+            double distance = dl * dl + da * da + db * db;
+            if (distance < nearestDistance) {
+                nearest = i;
+                nearestDistance = distance;
+            }
+        }
+        return colors[nearest];
+    }
+
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.benchmarks;
+
+import com.vaadin.ui.ColorPicker;
+import com.vaadin.ui.Component;
+import eu.maxschuster.vaadin.colorpickerfield.ColorPickerFactories;
+import eu.maxschuster.vaadin.colorpickerfield.ColorPickerFactory;
+import eu.maxschuster.vaadin.colorpickerfield.ColorPickerField;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the creation of the wrapped color picker through the
+ * {@link ColorPickerFactories} against the uncached reflective lookup that
+ * {@code initContent()} used before, and the creation of a whole field
+ * including its content.
+ * <p>
+ * Run with {@code java -jar target/benchmarks.jar ColorPickerFactoryBenchmark}.
+ *
+ * @author Max Schuster
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColorPickerFactoryBenchmark {
+
+    /**
+     * A custom picker type that is created through the cached constructor
+     */
+    public static class CustomColorPicker extends ColorPicker {
+
+        private static final long serialVersionUID = 1L;
+
+        public CustomColorPicker(String popupCaption) {
+            super(popupCaption);
+        }
+
+    }
+
+    private ColorPickerFactory<CustomColorPicker> customFactory;
+
+    @Setup
+    public void setUp() {
+        customFactory = ColorPickerFactories.forType(CustomColorPicker.class);
+    }
+
+    @Benchmark
+    public ColorPicker uncachedReflection() throws ReflectiveOperationException {
+        return CustomColorPicker.class.getDeclaredConstructor(String.class)
+                .newInstance("Colors");
+    }
+
+    @Benchmark
+    public ColorPicker cachedConstructor() {
+        return customFactory.createColorPicker("Colors");
+    }
+
+    @Benchmark
+    public ColorPicker builtInFactory() {
+        return ColorPickerFactories.COLOR_PICKER.createColorPicker("Colors");
+    }
+
+    @Benchmark
+    public Component fieldWithContent() {
+        // iterating the components initializes the content
+        return new ColorPickerField().iterator().next();
+    }
+
+}
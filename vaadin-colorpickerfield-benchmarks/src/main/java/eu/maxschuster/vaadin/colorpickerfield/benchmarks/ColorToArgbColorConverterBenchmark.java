@@ -0,0 +1,77 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.benchmarks;
+
+import com.vaadin.shared.ui.colorpicker.Color;
+import eu.maxschuster.vaadin.colorpickerfield.ArgbColor;
+import eu.maxschuster.vaadin.colorpickerfield.converter.ColorToArgbColorConverter;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks {@link ColorToArgbColorConverter} in both directions.
+ * <p>
+ * Run with {@code java -jar target/benchmarks.jar ColorToArgbColorConverterBenchmark -prof gc}.
+ * Interned colors ({@code 0xff3399cc} is web safe) must convert to the model
+ * without allocation.
+ *
+ * @author Max Schuster
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColorToArgbColorConverterBenchmark {
+
+    @Param({"ff3399cc", "800fe001"})
+    public String argb;
+
+    private final ColorToArgbColorConverter converter = new ColorToArgbColorConverter();
+
+    private Color color;
+
+    private ArgbColor argbColor;
+
+    @Setup
+    public void setUp() {
+        argbColor = ArgbColor.valueOf((int) Long.parseLong(argb, 16));
+        color = argbColor.toColor();
+    }
+
+    @Benchmark
+    public ArgbColor convertToModel() {
+        return converter.convertToModel(color, ArgbColor.class, Locale.ENGLISH);
+    }
+
+    @Benchmark
+    public Color convertToPresentation() {
+        return converter.convertToPresentation(argbColor, Color.class, Locale.ENGLISH);
+    }
+
+}
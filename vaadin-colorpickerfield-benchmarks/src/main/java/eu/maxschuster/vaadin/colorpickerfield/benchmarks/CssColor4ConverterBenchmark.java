@@ -0,0 +1,123 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.benchmarks;
+
+import com.vaadin.shared.ui.colorpicker.Color;
+import eu.maxschuster.vaadin.colorpickerfield.converter.AbstractColorConverter;
+import eu.maxschuster.vaadin.colorpickerfield.converter.ColorToHslConverter;
+import eu.maxschuster.vaadin.colorpickerfield.converter.ColorToHwbConverter;
+import eu.maxschuster.vaadin.colorpickerfield.converter.ColorToLabConverter;
+import eu.maxschuster.vaadin.colorpickerfield.converter.ColorToOklchConverter;
+import eu.maxschuster.vaadin.colorpickerfield.converter.HslToColorConverter;
+import eu.maxschuster.vaadin.colorpickerfield.converter.HwbToColorConverter;
+import eu.maxschuster.vaadin.colorpickerfield.converter.LabToColorConverter;
+import eu.maxschuster.vaadin.colorpickerfield.converter.OklchToColorConverter;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the CSS Color 4 converters ({@code hsl()}, {@code hwb()},
+ * {@code lab()} and {@code oklch()}) in both directions.
+ * <p>
+ * Run with {@code java -jar target/benchmarks.jar CssColor4ConverterBenchmark -prof gc}.
+ *
+ * @author Max Schuster
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CssColor4ConverterBenchmark {
+
+    @Param({"hsl(115.98 100% 43.92% / 0.6)", "hwb(115.98 0% 12.16%)",
+        "lab(78.19 -71.34 73.52)", "oklch(0.78627 0.26638 142.31)"})
+    public String css;
+
+    private AbstractColorConverter<String, Color> converter;
+
+    private AbstractColorConverter<Color, String> colorToCssConverter;
+
+    private final StringBuilder sb = new StringBuilder(64);
+
+    private Color color;
+
+    private int argb;
+
+    @Setup
+    public void setUp() {
+        if (css.startsWith("hsl")) {
+            converter = new HslToColorConverter();
+            colorToCssConverter = new ColorToHslConverter();
+        } else if (css.startsWith("hwb")) {
+            converter = new HwbToColorConverter();
+            colorToCssConverter = new ColorToHwbConverter();
+        } else if (css.startsWith("lab")) {
+            converter = new LabToColorConverter();
+            colorToCssConverter = new ColorToLabConverter();
+        } else {
+            converter = new OklchToColorConverter();
+            colorToCssConverter = new ColorToOklchConverter();
+        }
+        color = converter.convertToModel(css, Color.class, Locale.ENGLISH);
+        argb = color.getRGB();
+    }
+
+    @Benchmark
+    public Color convertToModel() {
+        return converter.convertToModel(css, Color.class, Locale.ENGLISH);
+    }
+
+    @Benchmark
+    public String convertToPresentation() {
+        return converter.convertToPresentation(color, String.class, Locale.ENGLISH);
+    }
+
+    @Benchmark
+    public String colorToCssConvertToModel() {
+        return colorToCssConverter.convertToModel(color, String.class, Locale.ENGLISH);
+    }
+
+    @Benchmark
+    public Color colorToCssConvertToPresentation() {
+        return colorToCssConverter.convertToPresentation(css, Color.class, Locale.ENGLISH);
+    }
+
+    @Benchmark
+    public long tryParseArgb() {
+        return converter.tryParseArgb(css);
+    }
+
+    @Benchmark
+    public StringBuilder serializeArgb() {
+        sb.setLength(0);
+        converter.serializeArgb(argb, sb);
+        return sb;
+    }
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.benchmarks;
+
+import com.vaadin.shared.ui.colorpicker.Color;
+import eu.maxschuster.vaadin.colorpickerfield.converter.ColorFormat;
+import eu.maxschuster.vaadin.colorpickerfield.converter.ColorToHexConverter;
+import eu.maxschuster.vaadin.colorpickerfield.converter.HexToColorConverter;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks {@link HexToColorConverter} and {@link ColorToHexConverter} in
+ * both directions.
+ * <p>
+ * Run with {@code java -jar target/benchmarks.jar HexToColorConverterBenchmark -prof gc}.
+ * The parser itself must not allocate, so {@code gc.alloc.rate.norm} has to
+ * stay at the size of the resulting {@link Color} (24-32 bytes/op depending
+ * on the JVM) for every notation.
+ *
+ * @author Max Schuster
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HexToColorConverterBenchmark {
+
+    @Param({"#0fe000", "#0FE", "#0fe00080", "#0fe8", "0fe000"})
+    public String hex;
+
+    private final HexToColorConverter converter = new HexToColorConverter();
+
+    private final ColorToHexConverter colorToHexConverter = new ColorToHexConverter();
+
+    private final HexToColorConverter formattedConverter = new HexToColorConverter();
+
+    private final StringBuilder sb = new StringBuilder(32);
+
+    private Color color;
+
+    private int argb;
+
+    @Setup
+    public void setUp() {
+        color = converter.convertToModel(hex, Color.class, Locale.ENGLISH);
+        argb = color.getRGB();
+        formattedConverter.setColorFormat(ColorFormat.compile("#{HEX}"));
+    }
+
+    @Benchmark
+    public Color convertToModel() {
+        return converter.convertToModel(hex, Color.class, Locale.ENGLISH);
+    }
+
+    @Benchmark
+    public String convertToPresentation() {
+        return converter.convertToPresentation(color, String.class, Locale.ENGLISH);
+    }
+
+    @Benchmark
+    public String colorToHexConvertToModel() {
+        return colorToHexConverter.convertToModel(color, String.class, Locale.ENGLISH);
+    }
+
+    @Benchmark
+    public Color colorToHexConvertToPresentation() {
+        return colorToHexConverter.convertToPresentation(hex, Color.class, Locale.ENGLISH);
+    }
+
+    @Benchmark
+    public long tryParseArgb() {
+        return converter.tryParseArgb(hex);
+    }
+
+    @Benchmark
+    public StringBuilder serializeArgb() {
+        sb.setLength(0);
+        converter.serializeArgb(argb, sb);
+        return sb;
+    }
+
+    @Benchmark
+    public StringBuilder serializeArgbWithFormat() {
+        sb.setLength(0);
+        formattedConverter.serializeArgb(argb, sb);
+        return sb;
+    }
+
+}
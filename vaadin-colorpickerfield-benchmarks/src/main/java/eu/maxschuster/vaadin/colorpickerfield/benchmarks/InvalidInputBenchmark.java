@@ -0,0 +1,91 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.benchmarks;
+
+import com.vaadin.data.util.converter.Converter.ConversionException;
+import com.vaadin.shared.ui.colorpicker.Color;
+import eu.maxschuster.vaadin.colorpickerfield.converter.AbstractColorConverter;
+import eu.maxschuster.vaadin.colorpickerfield.converter.HexToColorConverter;
+import eu.maxschuster.vaadin.colorpickerfield.converter.RgbToColorConverter;
+import eu.maxschuster.vaadin.colorpickerfield.converter.RgbaToColorConverter;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the rejection of invalid input. {@code convertToModel} pays for
+ * the {@link ConversionException}, {@code tryParseArgb} must stay as cheap as
+ * parsing valid input and must not allocate.
+ * <p>
+ * Run with {@code java -jar target/benchmarks.jar InvalidInputBenchmark -prof gc}.
+ *
+ * @author Max Schuster
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InvalidInputBenchmark {
+
+    @Param({"#0fe00g", "#0fe0", "rgb(15,224)", "rgb(256,0,0)",
+        "rgba(15,224,0,1.5)", "hsl(120,100%,50%)"})
+    public String input;
+
+    private AbstractColorConverter<String, Color> converter;
+
+    @Setup
+    public void setUp() {
+        if (input.startsWith("rgba")) {
+            converter = new RgbaToColorConverter();
+        } else if (input.startsWith("rgb")) {
+            converter = new RgbToColorConverter();
+        } else {
+            converter = new HexToColorConverter();
+        }
+    }
+
+    @Benchmark
+    public Color convertToModel() {
+        try {
+            return converter.convertToModel(input, Color.class, Locale.ENGLISH);
+        } catch (ConversionException e) {
+            return null;
+        }
+    }
+
+    @Benchmark
+    public long tryParseArgb() {
+        return converter.tryParseArgb(input);
+    }
+
+    @Benchmark
+    public boolean isValid() {
+        return converter.isValid(input);
+    }
+
+}
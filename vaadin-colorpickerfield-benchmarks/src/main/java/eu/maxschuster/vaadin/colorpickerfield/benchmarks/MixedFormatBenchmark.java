@@ -0,0 +1,169 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.benchmarks;
+
+import com.vaadin.data.util.converter.Converter.ConversionException;
+import com.vaadin.shared.ui.colorpicker.Color;
+import eu.maxschuster.vaadin.colorpickerfield.converter.AbstractColorConverter;
+import eu.maxschuster.vaadin.colorpickerfield.converter.AnyCssToColorConverter;
+import eu.maxschuster.vaadin.colorpickerfield.converter.HexToColorConverter;
+import eu.maxschuster.vaadin.colorpickerfield.converter.RgbToColorConverter;
+import eu.maxschuster.vaadin.colorpickerfield.converter.RgbaToColorConverter;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the conversion of a column of colors in mixed notations
+ * (hex, rgb() and rgba()) with a share of invalid entries. Every score is
+ * per color.
+ * <p>
+ * Run with {@code java -jar target/benchmarks.jar MixedFormatBenchmark -prof gc}.
+ *
+ * @author Max Schuster
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MixedFormatBenchmark {
+
+    private static final int SIZE = 1024;
+
+    /**
+     * Percentage of invalid entries
+     */
+    @Param({"0", "10"})
+    public int invalidPercent;
+
+    private final String[] strings = new String[SIZE];
+
+    private final AbstractColorConverter<?, ?>[] converters
+            = new AbstractColorConverter<?, ?>[]{new HexToColorConverter(),
+                new RgbToColorConverter(), new RgbaToColorConverter()};
+
+    @SuppressWarnings("unchecked")
+    private final AbstractColorConverter<String, Color>[] stringToColorConverters
+            = (AbstractColorConverter<String, Color>[]) converters;
+
+    private final AnyCssToColorConverter anyCssConverter = new AnyCssToColorConverter();
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < SIZE; i++) {
+            int r = random.nextInt(256);
+            int g = random.nextInt(256);
+            int b = random.nextInt(256);
+            if (random.nextInt(100) < invalidPercent) {
+                strings[i] = "rgb(" + r + "," + g + ")";
+                continue;
+            }
+            switch (random.nextInt(3)) {
+                case 0:
+                    strings[i] = String.format("#%02x%02x%02x", r, g, b);
+                    break;
+                case 1:
+                    strings[i] = "rgb(" + r + "," + g + "," + b + ")";
+                    break;
+                default:
+                    strings[i] = "rgba(" + r + "," + g + "," + b + ",0.5)";
+                    break;
+            }
+        }
+    }
+
+    /**
+     * The only option before exception-free parsing: try every converter
+     * until one does not throw
+     */
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int chainedTryCatch() {
+        int hash = 0;
+        for (String string : strings) {
+            for (AbstractColorConverter<String, Color> converter : stringToColorConverters) {
+                try {
+                    hash += converter.convertToModel(string, Color.class,
+                            Locale.ENGLISH).getRGB();
+                    break;
+                } catch (ConversionException e) {
+                    // try the next notation
+                }
+            }
+        }
+        return hash;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int chainedTryParseArgb() {
+        int hash = 0;
+        for (String string : strings) {
+            for (AbstractColorConverter<?, ?> converter : converters) {
+                long result = converter.tryParseArgb(string);
+                if (AbstractColorConverter.isValidArgb(result)) {
+                    hash += (int) result;
+                    break;
+                }
+            }
+        }
+        return hash;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int anyCssConvertToModel() {
+        int hash = 0;
+        for (String string : strings) {
+            try {
+                hash += anyCssConverter.convertToModel(string, Color.class,
+                        Locale.ENGLISH).getRGB();
+            } catch (ConversionException e) {
+                // invalid entry
+            }
+        }
+        return hash;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int anyCssTryParseArgb() {
+        int hash = 0;
+        for (String string : strings) {
+            long result = anyCssConverter.tryParseArgb(string);
+            if (AbstractColorConverter.isValidArgb(result)) {
+                hash += (int) result;
+            }
+        }
+        return hash;
+    }
+
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.benchmarks;
+
+import com.vaadin.shared.ui.colorpicker.Color;
+import eu.maxschuster.vaadin.colorpickerfield.converter.AnyCssToColorConverter;
+import eu.maxschuster.vaadin.colorpickerfield.converter.HexToColorConverter;
+import eu.maxschuster.vaadin.colorpickerfield.converter.NamedToColorConverter;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the named color converter against the hex converter, so the
+ * cost of named and numeric input can be compared.
+ * <p>
+ * Run with {@code java -jar target/benchmarks.jar NamedColorConverterBenchmark -prof gc}.
+ *
+ * @author Max Schuster
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NamedColorConverterBenchmark {
+
+    @Param({"red", "RebeccaPurple", "lightgoldenrodyellow"})
+    public String name;
+
+    private final NamedToColorConverter converter = new NamedToColorConverter();
+
+    private final HexToColorConverter hexConverter = new HexToColorConverter();
+
+    private final AnyCssToColorConverter anyCssConverter = new AnyCssToColorConverter();
+
+    private final StringBuilder sb = new StringBuilder(32);
+
+    private String hex;
+
+    private int argb;
+
+    @Setup
+    public void setUp() {
+        argb = converter.parseArgb(name);
+        hex = hexConverter.serializeArgb(argb);
+    }
+
+    @Benchmark
+    public Color convertToModel() {
+        return converter.convertToModel(name, Color.class, Locale.ENGLISH);
+    }
+
+    @Benchmark
+    public long tryParseArgb() {
+        return converter.tryParseArgb(name);
+    }
+
+    @Benchmark
+    public long hexTryParseArgb() {
+        return hexConverter.tryParseArgb(hex);
+    }
+
+    @Benchmark
+    public long anyCssTryParseArgb() {
+        return anyCssConverter.tryParseArgb(name);
+    }
+
+    @Benchmark
+    public StringBuilder serializeArgb() {
+        sb.setLength(0);
+        converter.serializeArgb(argb, sb);
+        return sb;
+    }
+
+    @Benchmark
+    public StringBuilder serializeNearestArgb() {
+        sb.setLength(0);
+        converter.serializeArgb(argb ^ 0x010101, sb);
+        return sb;
+    }
+
+    @Benchmark
+    public StringBuilder hexSerializeArgb() {
+        sb.setLength(0);
+        hexConverter.serializeArgb(argb, sb);
+        return sb;
+    }
+
+}
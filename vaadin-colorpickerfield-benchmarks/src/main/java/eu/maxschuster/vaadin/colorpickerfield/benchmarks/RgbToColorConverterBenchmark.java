@@ -0,0 +1,128 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.benchmarks;
+
+import com.vaadin.shared.ui.colorpicker.Color;
+import eu.maxschuster.vaadin.colorpickerfield.converter.ColorToRgbConverter;
+import eu.maxschuster.vaadin.colorpickerfield.converter.RgbToColorConverter;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks {@link RgbToColorConverter} and {@link ColorToRgbConverter} in
+ * both directions and compares them against the former regular expression
+ * and {@link String#format(java.lang.String, java.lang.Object...)} based
+ * implementation ({@code legacy*} benchmarks).
+ * <p>
+ * Run with {@code java -jar target/benchmarks.jar RgbToColorConverterBenchmark -prof gc}.
+ *
+ * @author Max Schuster
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RgbToColorConverterBenchmark {
+
+    private static final Pattern LEGACY_RGB_PATTERN = Pattern.compile(
+            "^rgb\\(\\s*(\\d{0,3})\\s*,\\s*(\\d{0,3})\\s*,\\s*(\\d{0,3})\\s*\\)$",
+            Pattern.CASE_INSENSITIVE);
+
+    @Param({"rgb(15,224,0)", "rgb(255,255,255)", "RGB( 0 , 180 , 240 )"})
+    public String rgb;
+
+    private final RgbToColorConverter converter = new RgbToColorConverter();
+
+    private final ColorToRgbConverter colorToRgbConverter = new ColorToRgbConverter();
+
+    private final StringBuilder sb = new StringBuilder(32);
+
+    private Color color;
+
+    private int argb;
+
+    @Setup
+    public void setUp() {
+        color = converter.convertToModel(rgb, Color.class, Locale.ENGLISH);
+        argb = color.getRGB();
+    }
+
+    @Benchmark
+    public Color convertToModel() {
+        return converter.convertToModel(rgb, Color.class, Locale.ENGLISH);
+    }
+
+    @Benchmark
+    public String convertToPresentation() {
+        return converter.convertToPresentation(color, String.class, Locale.ENGLISH);
+    }
+
+    @Benchmark
+    public String colorToRgbConvertToModel() {
+        return colorToRgbConverter.convertToModel(color, String.class, Locale.ENGLISH);
+    }
+
+    @Benchmark
+    public Color colorToRgbConvertToPresentation() {
+        return colorToRgbConverter.convertToPresentation(rgb, Color.class, Locale.ENGLISH);
+    }
+
+    @Benchmark
+    public long tryParseArgb() {
+        return converter.tryParseArgb(rgb);
+    }
+
+    @Benchmark
+    public StringBuilder serializeArgb() {
+        sb.setLength(0);
+        converter.serializeArgb(argb, sb);
+        return sb;
+    }
+
+    @Benchmark
+    public Color legacyConvertToModel() {
+        Matcher m = LEGACY_RGB_PATTERN.matcher(rgb);
+        if (!m.matches()) {
+            throw new IllegalStateException();
+        }
+        int red = Integer.valueOf(m.group(1));
+        int green = Integer.valueOf(m.group(2));
+        int blue = Integer.valueOf(m.group(3));
+        return new Color(red, green, blue);
+    }
+
+    @Benchmark
+    public String legacyConvertToPresentation() {
+        return String.format("rgb(%d,%d,%d)", color.getRed(), color.getGreen(),
+                color.getBlue());
+    }
+
+}
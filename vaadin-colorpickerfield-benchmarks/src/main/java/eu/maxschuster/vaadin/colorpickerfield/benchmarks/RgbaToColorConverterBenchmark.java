@@ -0,0 +1,137 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.benchmarks;
+
+import com.vaadin.shared.ui.colorpicker.Color;
+import eu.maxschuster.vaadin.colorpickerfield.converter.ColorToRgbaConverter;
+import eu.maxschuster.vaadin.colorpickerfield.converter.RgbaToColorConverter;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks {@link RgbaToColorConverter} and {@link ColorToRgbaConverter} in
+ * both directions and compares them against the former regular expression and
+ * {@link String#format(java.lang.String, java.lang.Object...)} based
+ * implementation ({@code legacy*} benchmarks).
+ * <p>
+ * Run with {@code java -jar target/benchmarks.jar RgbaToColorConverterBenchmark -prof gc}.
+ *
+ * @author Max Schuster
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RgbaToColorConverterBenchmark {
+
+    private static final Pattern LEGACY_RGBA_PATTERN = Pattern.compile(
+            "^rgba\\(\\s*(\\d{0,3})\\s*,\\s*(\\d{0,3})\\s*,\\s*(\\d{0,3})\\s*,\\s*([01](\\.\\d+)?)\\s*\\)$",
+            Pattern.CASE_INSENSITIVE);
+
+    @Param({"rgba(15,224,0,0.6)", "rgba(255,255,255,1)",
+        "rgba(0,180,240,0.5019607843137255)"})
+    public String rgba;
+
+    private final RgbaToColorConverter converter = new RgbaToColorConverter();
+
+    private final ColorToRgbaConverter colorToRgbaConverter = new ColorToRgbaConverter();
+
+    private final StringBuilder sb = new StringBuilder(32);
+
+    private Color color;
+
+    private int argb;
+
+    @Setup
+    public void setUp() {
+        color = converter.convertToModel(rgba, Color.class, Locale.ENGLISH);
+        argb = color.getRGB();
+    }
+
+    @Benchmark
+    public Color convertToModel() {
+        return converter.convertToModel(rgba, Color.class, Locale.ENGLISH);
+    }
+
+    @Benchmark
+    public String convertToPresentation() {
+        return converter.convertToPresentation(color, String.class, Locale.ENGLISH);
+    }
+
+    @Benchmark
+    public String colorToRgbaConvertToModel() {
+        return colorToRgbaConverter.convertToModel(color, String.class, Locale.ENGLISH);
+    }
+
+    @Benchmark
+    public Color colorToRgbaConvertToPresentation() {
+        return colorToRgbaConverter.convertToPresentation(rgba, Color.class, Locale.ENGLISH);
+    }
+
+    @Benchmark
+    public long tryParseArgb() {
+        return converter.tryParseArgb(rgba);
+    }
+
+    @Benchmark
+    public StringBuilder serializeArgb() {
+        sb.setLength(0);
+        converter.serializeArgb(argb, sb);
+        return sb;
+    }
+
+    @Benchmark
+    public Color legacyConvertToModel() {
+        Matcher m = LEGACY_RGBA_PATTERN.matcher(rgba);
+        if (!m.matches()) {
+            throw new IllegalStateException();
+        }
+        int red = Integer.valueOf(m.group(1));
+        int green = Integer.valueOf(m.group(2));
+        int blue = Integer.valueOf(m.group(3));
+        int alpha = (int) Math.round(Double.valueOf(m.group(4)) * 255d);
+        return new Color(red, green, blue, alpha);
+    }
+
+    @Benchmark
+    public String legacyConvertToPresentation() {
+        double alpha = color.getAlpha() / 255d;
+        String alphaString;
+        if (alpha == (long) alpha) {
+            alphaString = String.format("%d", (long) alpha);
+        } else {
+            alphaString = String.format("%s", alpha);
+        }
+        return String.format("rgba(%d,%d,%d,%s)", color.getRed(),
+                color.getGreen(), color.getBlue(), alphaString);
+    }
+
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.benchmarks;
+
+import eu.maxschuster.vaadin.colorpickerfield.vector.ColorSpaceEngine;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the scalar against the vector {@link ColorSpaceEngine}. The
+ * score is the throughput in colors per microsecond.
+ * <p>
+ * Only built on Java 17 or newer, run with
+ * {@code java -jar target/benchmarks.jar ColorSpaceEngineBenchmark}.
+ *
+ * @author Max Schuster
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@OperationsPerInvocation(ColorSpaceEngineBenchmark.SIZE)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class ColorSpaceEngineBenchmark {
+
+    static final int SIZE = 4096;
+
+    @Param({"scalar", "vector"})
+    public String engine;
+
+    private ColorSpaceEngine colorSpaceEngine;
+
+    private final int[] argb = new int[SIZE];
+
+    private final int[] result = new int[SIZE];
+
+    private final float[] rgb0 = new float[SIZE];
+    private final float[] rgb1 = new float[SIZE];
+    private final float[] rgb2 = new float[SIZE];
+
+    private final float[] hsv0 = new float[SIZE];
+    private final float[] hsv1 = new float[SIZE];
+    private final float[] hsv2 = new float[SIZE];
+
+    private final float[] hsl0 = new float[SIZE];
+    private final float[] hsl1 = new float[SIZE];
+    private final float[] hsl2 = new float[SIZE];
+
+    private final float[] lab0 = new float[SIZE];
+    private final float[] lab1 = new float[SIZE];
+    private final float[] lab2 = new float[SIZE];
+
+    @Setup
+    public void setUp() {
+        if ("scalar".equals(engine)) {
+            colorSpaceEngine = ColorSpaceEngine.scalar();
+        } else {
+            colorSpaceEngine = ColorSpaceEngine.getInstance();
+            if (!colorSpaceEngine.isVectorized()) {
+                throw new IllegalStateException("jdk.incubator.vector is not available");
+            }
+        }
+        Random random = new Random(42);
+        for (int i = 0; i < SIZE; i++) {
+            argb[i] = random.nextInt() | 0xFF000000;
+        }
+        colorSpaceEngine.toRgb(argb, rgb0, rgb1, rgb2);
+        colorSpaceEngine.toHsv(argb, hsv0, hsv1, hsv2);
+        colorSpaceEngine.toHsl(argb, hsl0, hsl1, hsl2);
+        colorSpaceEngine.toLab(argb, lab0, lab1, lab2);
+    }
+
+    @Benchmark
+    public float[] toRgb() {
+        colorSpaceEngine.toRgb(argb, rgb0, rgb1, rgb2);
+        return rgb0;
+    }
+
+    @Benchmark
+    public int[] fromRgb() {
+        colorSpaceEngine.fromRgb(rgb0, rgb1, rgb2, result);
+        return result;
+    }
+
+    @Benchmark
+    public float[] toHsv() {
+        colorSpaceEngine.toHsv(argb, hsv0, hsv1, hsv2);
+        return hsv0;
+    }
+
+    @Benchmark
+    public int[] fromHsv() {
+        colorSpaceEngine.fromHsv(hsv0, hsv1, hsv2, result);
+        return result;
+    }
+
+    @Benchmark
+    public float[] toHsl() {
+        colorSpaceEngine.toHsl(argb, hsl0, hsl1, hsl2);
+        return hsl0;
+    }
+
+    @Benchmark
+    public int[] fromHsl() {
+        colorSpaceEngine.fromHsl(hsl0, hsl1, hsl2, result);
+        return result;
+    }
+
+    @Benchmark
+    public float[] toLab() {
+        colorSpaceEngine.toLab(argb, lab0, lab1, lab2);
+        return lab0;
+    }
+
+    @Benchmark
+    public int[] fromLab() {
+        colorSpaceEngine.fromLab(lab0, lab1, lab2, result);
+        return result;
+    }
+
+}
@@ -17,7 +17,13 @@ import com.vaadin.ui.Button;
 import com.vaadin.ui.Notification;
 import com.vaadin.ui.UI;
 import eu.maxschuster.vaadin.colorpickerfield.converter.AbstractColorConverter;
+import eu.maxschuster.vaadin.colorpickerfield.converter.AnyCssToColorConverter;
 import eu.maxschuster.vaadin.colorpickerfield.converter.HexToColorConverter;
+import eu.maxschuster.vaadin.colorpickerfield.converter.HslToColorConverter;
+import eu.maxschuster.vaadin.colorpickerfield.converter.HwbToColorConverter;
+import eu.maxschuster.vaadin.colorpickerfield.converter.LabToColorConverter;
+import eu.maxschuster.vaadin.colorpickerfield.converter.NamedToColorConverter;
+import eu.maxschuster.vaadin.colorpickerfield.converter.OklchToColorConverter;
 import eu.maxschuster.vaadin.colorpickerfield.converter.RgbToColorConverter;
 import eu.maxschuster.vaadin.colorpickerfield.converter.RgbaToColorConverter;
 import java.io.IOException;
@@ -71,7 +77,13 @@ public class DemoUI extends UI {
             new AbstractColorConverter[]{
                 new HexToColorConverter(),
                 new RgbToColorConverter(),
-                new RgbaToColorConverter()
+                new RgbaToColorConverter(),
+                new HslToColorConverter(),
+                new HwbToColorConverter(),
+                new LabToColorConverter(),
+                new OklchToColorConverter(),
+                new NamedToColorConverter(),
+                new AnyCssToColorConverter()
             };
         
         // Fill converters container with our available converters
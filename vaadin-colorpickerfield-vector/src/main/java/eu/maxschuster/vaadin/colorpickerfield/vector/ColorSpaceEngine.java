@@ -0,0 +1,220 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.vector;
+
+/**
+ * Converts whole arrays of packed ARGB colors to planar channel arrays of
+ * RGB, HSV, HSL and CIE Lab (D50) and back.
+ * <p>
+ * Entry {@code i} of the ARGB array corresponds to entry {@code i} of each
+ * channel array. The number of converted entries is the length of the ARGB
+ * array, the channel arrays must be at least as long. Colors converted back
+ * to ARGB are opaque and clipped to the sRGB gamut.
+ * <p>
+ * {@link #getInstance()} uses the Vector API if the
+ * {@code jdk.incubator.vector} module is resolved
+ * ({@code --add-modules jdk.incubator.vector}) and the scalar engine
+ * otherwise. Both engines use the same single precision operations in the
+ * same order, so their results are bit for bit identical.
+ *
+ * @author Max Schuster
+ */
+public abstract class ColorSpaceEngine {
+
+    /**
+     * Set this system property to {@code true} to use the scalar engine even
+     * if the Vector API is available
+     */
+    public static final String SCALAR_PROPERTY
+            = "eu.maxschuster.vaadin.colorpickerfield.vector.scalar";
+
+    static final int RGB = 0;
+    static final int HSV = 1;
+    static final int HSL = 2;
+    static final int LAB = 3;
+
+    ColorSpaceEngine() {
+    }
+
+    /**
+     * Gets the fastest engine available
+     *
+     * @return The vector engine or the scalar engine
+     */
+    public static ColorSpaceEngine getInstance() {
+        return Default.INSTANCE;
+    }
+
+    /**
+     * Gets the scalar engine, which works on every Java 17 runtime
+     *
+     * @return The scalar engine
+     */
+    public static ColorSpaceEngine scalar() {
+        return ScalarColorSpaceEngine.INSTANCE;
+    }
+
+    /**
+     * @return {@code true} if this engine uses the Vector API
+     */
+    public abstract boolean isVectorized();
+
+    /**
+     * Converts packed ARGB colors to RGB channels
+     *
+     * @param argb The packed ARGB colors
+     * @param red Receives the red channels between 0 and 1
+     * @param green Receives the green channels between 0 and 1
+     * @param blue Receives the blue channels between 0 and 1
+     */
+    public final void toRgb(int[] argb, float[] red, float[] green, float[] blue) {
+        toPlanar(RGB, argb, red, green, blue, checkLength(argb, red, green, blue));
+    }
+
+    /**
+     * Converts RGB channels to packed ARGB colors
+     *
+     * @param red The red channels between 0 and 1
+     * @param green The green channels between 0 and 1
+     * @param blue The blue channels between 0 and 1
+     * @param argb Receives the opaque packed ARGB colors
+     */
+    public final void fromRgb(float[] red, float[] green, float[] blue, int[] argb) {
+        fromPlanar(RGB, red, green, blue, argb, checkLength(argb, red, green, blue));
+    }
+
+    /**
+     * Converts packed ARGB colors to HSV
+     *
+     * @param argb The packed ARGB colors
+     * @param hue Receives the hues in degrees between 0 (inclusive) and 360
+     * (exclusive)
+     * @param saturation Receives the saturations between 0 and 1
+     * @param value Receives the values between 0 and 1
+     */
+    public final void toHsv(int[] argb, float[] hue, float[] saturation, float[] value) {
+        toPlanar(HSV, argb, hue, saturation, value, checkLength(argb, hue, saturation, value));
+    }
+
+    /**
+     * Converts HSV to packed ARGB colors
+     *
+     * @param hue The hues in degrees
+     * @param saturation The saturations between 0 and 1
+     * @param value The values between 0 and 1
+     * @param argb Receives the opaque packed ARGB colors
+     */
+    public final void fromHsv(float[] hue, float[] saturation, float[] value, int[] argb) {
+        fromPlanar(HSV, hue, saturation, value, argb, checkLength(argb, hue, saturation, value));
+    }
+
+    /**
+     * Converts packed ARGB colors to HSL
+     *
+     * @param argb The packed ARGB colors
+     * @param hue Receives the hues in degrees between 0 (inclusive) and 360
+     * (exclusive)
+     * @param saturation Receives the saturations between 0 and 1
+     * @param lightness Receives the lightnesses between 0 and 1
+     */
+    public final void toHsl(int[] argb, float[] hue, float[] saturation, float[] lightness) {
+        toPlanar(HSL, argb, hue, saturation, lightness,
+                checkLength(argb, hue, saturation, lightness));
+    }
+
+    /**
+     * Converts HSL to packed ARGB colors
+     *
+     * @param hue The hues in degrees
+     * @param saturation The saturations between 0 and 1
+     * @param lightness The lightnesses between 0 and 1
+     * @param argb Receives the opaque packed ARGB colors
+     */
+    public final void fromHsl(float[] hue, float[] saturation, float[] lightness, int[] argb) {
+        fromPlanar(HSL, hue, saturation, lightness, argb,
+                checkLength(argb, hue, saturation, lightness));
+    }
+
+    /**
+     * Converts packed ARGB colors to CIE Lab (D50)
+     *
+     * @param argb The packed ARGB colors
+     * @param lightness Receives the lightnesses between 0 and 100
+     * @param a Receives the a axes
+     * @param b Receives the b axes
+     */
+    public final void toLab(int[] argb, float[] lightness, float[] a, float[] b) {
+        toPlanar(LAB, argb, lightness, a, b, checkLength(argb, lightness, a, b));
+    }
+
+    /**
+     * Converts CIE Lab (D50) to packed ARGB colors
+     *
+     * @param lightness The lightnesses between 0 and 100
+     * @param a The a axes
+     * @param b The b axes
+     * @param argb Receives the opaque packed ARGB colors
+     */
+    public final void fromLab(float[] lightness, float[] a, float[] b, int[] argb) {
+        fromPlanar(LAB, lightness, a, b, argb, checkLength(argb, lightness, a, b));
+    }
+
+    /**
+     * Converts the first {@code length} colors to planar channels
+     *
+     * @param space One of {@link #RGB}, {@link #HSV}, {@link #HSL} and
+     * {@link #LAB}
+     */
+    abstract void toPlanar(int space, int[] argb, float[] c0, float[] c1, float[] c2, int length);
+
+    /**
+     * Converts the first {@code length} planar channels to colors
+     *
+     * @param space One of {@link #RGB}, {@link #HSV}, {@link #HSL} and
+     * {@link #LAB}
+     */
+    abstract void fromPlanar(int space, float[] c0, float[] c1, float[] c2, int[] argb, int length);
+
+    private static int checkLength(int[] argb, float[] c0, float[] c1, float[] c2) {
+        int length = argb.length;
+        if (c0.length < length || c1.length < length || c2.length < length) {
+            throw new IllegalArgumentException(
+                    "The channel arrays must have at least " + length + " entries");
+        }
+        return length;
+    }
+
+    /**
+     * Lazily selected default engine
+     */
+    private static final class Default {
+
+        static final ColorSpaceEngine INSTANCE = create();
+
+        private static ColorSpaceEngine create() {
+            if (!Boolean.getBoolean(SCALAR_PROPERTY)) {
+                try {
+                    return new VectorColorSpaceEngine();
+                } catch (LinkageError e) {
+                    // jdk.incubator.vector is not resolved
+                }
+            }
+            return ScalarColorSpaceEngine.INSTANCE;
+        }
+
+    }
+
+}
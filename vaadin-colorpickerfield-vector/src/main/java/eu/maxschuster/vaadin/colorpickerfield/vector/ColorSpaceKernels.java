@@ -0,0 +1,308 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.vector;
+
+import eu.maxschuster.vaadin.colorpickerfield.color.ColorSpaces;
+
+/**
+ * Tables and single entry conversions shared by both engines.
+ * <p>
+ * The vector engine evaluates every expression of this class lane by lane
+ * in the same order and uses it for the tail of each array, so both engines
+ * round identically. Keep the two in sync: no {@link Math} functions other
+ * than {@code min}, {@code max} and {@code abs}, no reordering of operations.
+ *
+ * @author Max Schuster
+ */
+final class ColorSpaceKernels {
+
+    /**
+     * The linear light value of every sRGB channel byte
+     */
+    static final float[] LINEAR = new float[256];
+
+    /**
+     * The linear light value halfway between two successive sRGB channel
+     * bytes, searched by {@link #fromLinear(float)}
+     */
+    static final float[] LINEAR_MIDPOINTS = new float[255];
+
+    /**
+     * CIE Lab constants
+     */
+    static final float KAPPA = 24389f / 27f;
+    static final float EPSILON = 216f / 24389f;
+    static final float KAPPA_EPSILON = 8f;
+
+    /**
+     * Exponent bias of the initial guess of {@link #cbrt(float)}
+     */
+    static final int CBRT_BIAS = 0x2A563E25;
+
+    /**
+     * Adding this to a float below it rounds away all fractional digits
+     */
+    static final float ROUND_MAGIC = 8388608f;
+    static final int ROUND_MAGIC_BITS = 0x4B000000;
+
+    /**
+     * Linear sRGB to XYZ (D50), Bradford adapted, rows divided by the white
+     * point
+     */
+    static final float[] TO_XYZ = new float[9];
+
+    /**
+     * XYZ (D50) to linear sRGB, Bradford adapted, columns multiplied by the
+     * white point
+     */
+    static final float[] FROM_XYZ = new float[9];
+
+    static {
+        for (int i = 0; i < LINEAR.length; i++) {
+            LINEAR[i] = (float) ColorSpaces.toLinear(i);
+        }
+        for (int i = 0; i < LINEAR_MIDPOINTS.length; i++) {
+            double encoded = (i + 0.5) / 255d;
+            LINEAR_MIDPOINTS[i] = (float) (encoded <= 0.04045 ? encoded / 12.92
+                    : Math.pow((encoded + 0.055) / 1.055, 2.4));
+        }
+        double[] white = {0.3457 / 0.3585, 1, (1.0 - 0.3457 - 0.3585) / 0.3585};
+        double[] toXyz = multiply(new double[]{
+            1.0479298208405488, 0.022946793341019088, -0.05019222954313557,
+            0.029627815688159344, 0.990434484573249, -0.01707382502938514,
+            -0.009243058152591178, 0.015055144896577895, 0.7518742899580008
+        }, new double[]{
+            0.41239079926595934, 0.357584339383878, 0.1804807884018343,
+            0.21263900587151027, 0.715168678767756, 0.07219231536073371,
+            0.01933081871559182, 0.11919477979462598, 0.9505321522496607
+        });
+        double[] fromXyz = multiply(new double[]{
+            3.2409699419045226, -1.537383177570094, -0.4986107602930034,
+            -0.9692436362808796, 1.8759675015077202, 0.04155505740717559,
+            0.05563007969699366, -0.20397695888897652, 1.0569715142428786
+        }, new double[]{
+            0.955473421488075, -0.02309845494876471, 0.06325924320057072,
+            -0.0283697093338637, 1.0099953980813041, 0.021041441191917323,
+            0.012314014864481998, -0.020507649298898964, 1.330365926242124
+        });
+        for (int i = 0; i < 9; i++) {
+            TO_XYZ[i] = (float) (toXyz[i] / white[i / 3]);
+            FROM_XYZ[i] = (float) (fromXyz[i] * white[i % 3]);
+        }
+    }
+
+    private ColorSpaceKernels() {
+    }
+
+    static void toRgb(int argb, float[] c0, float[] c1, float[] c2, int i) {
+        c0[i] = (argb >> 16 & 0xFF) / 255f;
+        c1[i] = (argb >> 8 & 0xFF) / 255f;
+        c2[i] = (argb & 0xFF) / 255f;
+    }
+
+    static int fromRgb(float red, float green, float blue) {
+        return 0xFF000000 | toByte(red) << 16 | toByte(green) << 8 | toByte(blue);
+    }
+
+    static void toHsv(int argb, float[] c0, float[] c1, float[] c2, int i) {
+        int r = argb >> 16 & 0xFF;
+        int g = argb >> 8 & 0xFF;
+        int b = argb & 0xFF;
+        int max = Math.max(r, Math.max(g, b));
+        float d = max - Math.min(r, Math.min(g, b));
+        c0[i] = hue(r, g, b, max, d);
+        c1[i] = max == 0 ? 0f : d / max;
+        c2[i] = max / 255f;
+    }
+
+    static int fromHsv(float hue, float saturation, float value) {
+        saturation = clamp(saturation);
+        value = clamp(value);
+        float h = normalizeHue(hue) / 60f;
+        float chroma = value * saturation;
+        return 0xFF000000
+                | toByte(hsvChannel(5f, h, value, chroma)) << 16
+                | toByte(hsvChannel(3f, h, value, chroma)) << 8
+                | toByte(hsvChannel(1f, h, value, chroma));
+    }
+
+    static void toHsl(int argb, float[] c0, float[] c1, float[] c2, int i) {
+        int r = argb >> 16 & 0xFF;
+        int g = argb >> 8 & 0xFF;
+        int b = argb & 0xFF;
+        int max = Math.max(r, Math.max(g, b));
+        int min = Math.min(r, Math.min(g, b));
+        float d = max - min;
+        float lightness = (max + min) / 510f;
+        c0[i] = hue(r, g, b, max, d);
+        c1[i] = d == 0 ? 0f : (max / 255f - lightness) / Math.min(lightness, 1f - lightness);
+        c2[i] = lightness;
+    }
+
+    static int fromHsl(float hue, float saturation, float lightness) {
+        saturation = clamp(saturation);
+        lightness = clamp(lightness);
+        float h = normalizeHue(hue) / 30f;
+        float a = saturation * Math.min(lightness, 1f - lightness);
+        return 0xFF000000
+                | toByte(hslChannel(0f, h, lightness, a)) << 16
+                | toByte(hslChannel(8f, h, lightness, a)) << 8
+                | toByte(hslChannel(4f, h, lightness, a));
+    }
+
+    static void toLab(int argb, float[] c0, float[] c1, float[] c2, int i) {
+        float r = LINEAR[argb >> 16 & 0xFF];
+        float g = LINEAR[argb >> 8 & 0xFF];
+        float b = LINEAR[argb & 0xFF];
+        float[] m = TO_XYZ;
+        float f0 = labForward(m[0] * r + m[1] * g + m[2] * b);
+        float f1 = labForward(m[3] * r + m[4] * g + m[5] * b);
+        float f2 = labForward(m[6] * r + m[7] * g + m[8] * b);
+        c0[i] = 116f * f1 - 16f;
+        c1[i] = 500f * (f0 - f1);
+        c2[i] = 200f * (f1 - f2);
+    }
+
+    static int fromLab(float lightness, float a, float b) {
+        float f1 = (lightness + 16f) / 116f;
+        float f0 = a / 500f + f1;
+        float f2 = f1 - b / 200f;
+        float x = labInverse(f0);
+        float y = lightness > KAPPA_EPSILON ? f1 * f1 * f1 : lightness / KAPPA;
+        float z = labInverse(f2);
+        float[] m = FROM_XYZ;
+        return 0xFF000000
+                | fromLinear(m[0] * x + m[1] * y + m[2] * z) << 16
+                | fromLinear(m[3] * x + m[4] * y + m[5] * z) << 8
+                | fromLinear(m[6] * x + m[7] * y + m[8] * z);
+    }
+
+    /**
+     * Gets the sRGB channel of a linear light value by a binary search of
+     * {@link #LINEAR_MIDPOINTS}
+     */
+    static int fromLinear(float linear) {
+        int index = 0;
+        for (int step = 128; step > 0; step >>= 1) {
+            if (linear >= LINEAR_MIDPOINTS[index + step - 1]) {
+                index += step;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Computes the cube root of a positive value by Newton iteration from a
+     * bit-level guess. The guess divides the bits by three with a multiply
+     * and a shift, the vector engine has no integer division.
+     */
+    static float cbrt(float x) {
+        float y = Float.intBitsToFloat(
+                (Float.floatToRawIntBits(x) >>> 10) * 341 + CBRT_BIAS);
+        for (int n = 0; n < 3; n++) {
+            y = y - (y * y * y - x) / (3f * y * y);
+        }
+        return y;
+    }
+
+    /**
+     * @return The hue between 0 (inclusive) and 360 (exclusive)
+     */
+    static float normalizeHue(float hue) {
+        hue = hue - floor(hue / 360f) * 360f;
+        if (hue < 0f) {
+            hue = hue + 360f;
+        }
+        return hue >= 360f ? 0f : hue;
+    }
+
+    /**
+     * Rounds towards negative infinity without a float to int conversion,
+     * the vector engine cannot convert efficiently
+     */
+    static float floor(float value) {
+        if (!(Math.abs(value) < ROUND_MAGIC)) {
+            return value;
+        }
+        float magic = value < 0f ? -ROUND_MAGIC : ROUND_MAGIC;
+        float rounded = value + magic - magic;
+        return rounded > value ? rounded - 1f : rounded;
+    }
+
+    static float clamp(float value) {
+        return Math.min(Math.max(value, 0f), 1f);
+    }
+
+    /**
+     * Rounds a gamma encoded value between 0 and 1 to a channel byte
+     */
+    static int toByte(float value) {
+        return Math.min(Math.max((int) (value * 255f + 0.5f), 0), 255);
+    }
+
+    private static float hue(int r, int g, int b, int max, float d) {
+        if (d == 0) {
+            return 0f;
+        }
+        float hue;
+        if (max == r) {
+            hue = (g - b) / d + (g < b ? 6f : 0f);
+        } else if (max == g) {
+            hue = (b - r) / d + 2f;
+        } else {
+            hue = (r - g) / d + 4f;
+        }
+        return hue * 60f;
+    }
+
+    private static float hsvChannel(float n, float h, float value, float chroma) {
+        float k = n + h;
+        if (k >= 6f) {
+            k = k - 6f;
+        }
+        return value - chroma * Math.max(0f, Math.min(Math.min(k, 4f - k), 1f));
+    }
+
+    private static float hslChannel(float n, float h, float lightness, float a) {
+        float k = n + h;
+        if (k >= 12f) {
+            k = k - 12f;
+        }
+        return lightness - a * Math.max(-1f, Math.min(Math.min(k - 3f, 9f - k), 1f));
+    }
+
+    private static float labForward(float t) {
+        return t > EPSILON ? cbrt(t) : (KAPPA * t + 16f) / 116f;
+    }
+
+    private static float labInverse(float f) {
+        float f3 = f * f * f;
+        return f3 > EPSILON ? f3 : (116f * f - 16f) / KAPPA;
+    }
+
+    private static double[] multiply(double[] a, double[] b) {
+        double[] product = new double[9];
+        for (int row = 0; row < 3; row++) {
+            for (int column = 0; column < 3; column++) {
+                for (int n = 0; n < 3; n++) {
+                    product[row * 3 + column] += a[row * 3 + n] * b[n * 3 + column];
+                }
+            }
+        }
+        return product;
+    }
+
+}
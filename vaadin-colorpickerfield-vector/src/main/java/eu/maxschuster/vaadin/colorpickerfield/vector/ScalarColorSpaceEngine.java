@@ -0,0 +1,105 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.vector;
+
+/**
+ * Converts one entry at a time with {@link ColorSpaceKernels}
+ *
+ * @author Max Schuster
+ */
+final class ScalarColorSpaceEngine extends ColorSpaceEngine {
+
+    static final ScalarColorSpaceEngine INSTANCE = new ScalarColorSpaceEngine();
+
+    private ScalarColorSpaceEngine() {
+    }
+
+    @Override
+    public boolean isVectorized() {
+        return false;
+    }
+
+    @Override
+    void toPlanar(int space, int[] argb, float[] c0, float[] c1, float[] c2, int length) {
+        toPlanar(space, argb, c0, c1, c2, 0, length);
+    }
+
+    @Override
+    void fromPlanar(int space, float[] c0, float[] c1, float[] c2, int[] argb, int length) {
+        fromPlanar(space, c0, c1, c2, argb, 0, length);
+    }
+
+    /**
+     * Converts the colors between {@code from} (inclusive) and {@code to}
+     * (exclusive) to planar channels
+     */
+    static void toPlanar(int space, int[] argb, float[] c0, float[] c1, float[] c2,
+            int from, int to) {
+        switch (space) {
+            case RGB:
+                for (int i = from; i < to; i++) {
+                    ColorSpaceKernels.toRgb(argb[i], c0, c1, c2, i);
+                }
+                break;
+            case HSV:
+                for (int i = from; i < to; i++) {
+                    ColorSpaceKernels.toHsv(argb[i], c0, c1, c2, i);
+                }
+                break;
+            case HSL:
+                for (int i = from; i < to; i++) {
+                    ColorSpaceKernels.toHsl(argb[i], c0, c1, c2, i);
+                }
+                break;
+            default:
+                for (int i = from; i < to; i++) {
+                    ColorSpaceKernels.toLab(argb[i], c0, c1, c2, i);
+                }
+                break;
+        }
+    }
+
+    /**
+     * Converts the planar channels between {@code from} (inclusive) and
+     * {@code to} (exclusive) to colors
+     */
+    static void fromPlanar(int space, float[] c0, float[] c1, float[] c2, int[] argb,
+            int from, int to) {
+        switch (space) {
+            case RGB:
+                for (int i = from; i < to; i++) {
+                    argb[i] = ColorSpaceKernels.fromRgb(c0[i], c1[i], c2[i]);
+                }
+                break;
+            case HSV:
+                for (int i = from; i < to; i++) {
+                    argb[i] = ColorSpaceKernels.fromHsv(c0[i], c1[i], c2[i]);
+                }
+                break;
+            case HSL:
+                for (int i = from; i < to; i++) {
+                    argb[i] = ColorSpaceKernels.fromHsl(c0[i], c1[i], c2[i]);
+                }
+                break;
+            default:
+                for (int i = from; i < to; i++) {
+                    argb[i] = ColorSpaceKernels.fromLab(c0[i], c1[i], c2[i]);
+                }
+                break;
+        }
+    }
+
+}
@@ -0,0 +1,326 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.vector;
+
+import static eu.maxschuster.vaadin.colorpickerfield.vector.ColorSpaceKernels.CBRT_BIAS;
+import static eu.maxschuster.vaadin.colorpickerfield.vector.ColorSpaceKernels.EPSILON;
+import static eu.maxschuster.vaadin.colorpickerfield.vector.ColorSpaceKernels.FROM_XYZ;
+import static eu.maxschuster.vaadin.colorpickerfield.vector.ColorSpaceKernels.KAPPA;
+import static eu.maxschuster.vaadin.colorpickerfield.vector.ColorSpaceKernels.KAPPA_EPSILON;
+import static eu.maxschuster.vaadin.colorpickerfield.vector.ColorSpaceKernels.LINEAR;
+import static eu.maxschuster.vaadin.colorpickerfield.vector.ColorSpaceKernels.ROUND_MAGIC;
+import static eu.maxschuster.vaadin.colorpickerfield.vector.ColorSpaceKernels.ROUND_MAGIC_BITS;
+import static eu.maxschuster.vaadin.colorpickerfield.vector.ColorSpaceKernels.TO_XYZ;
+import static jdk.incubator.vector.VectorOperators.ADD;
+import static jdk.incubator.vector.VectorOperators.ASHR;
+import static jdk.incubator.vector.VectorOperators.EQ;
+import static jdk.incubator.vector.VectorOperators.GE;
+import static jdk.incubator.vector.VectorOperators.GT;
+import static jdk.incubator.vector.VectorOperators.I2F;
+import static jdk.incubator.vector.VectorOperators.LSHL;
+import static jdk.incubator.vector.VectorOperators.LSHR;
+import static jdk.incubator.vector.VectorOperators.LT;
+import static jdk.incubator.vector.VectorOperators.NE;
+import static jdk.incubator.vector.VectorOperators.SUB;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Converts a full vector of entries at a time. Every method mirrors the
+ * scalar code of {@link ColorSpaceKernels} lane by lane, branches become
+ * masked blends. The sRGB transfer function is a table lookup, which is
+ * done lane by lane through scratch arrays: the gather intrinsics of
+ * Java 17 are not reliable enough. The tail of each array is converted by
+ * the scalar engine.
+ *
+ * @author Max Schuster
+ */
+final class VectorColorSpaceEngine extends ColorSpaceEngine {
+
+    private static final VectorSpecies<Float> FLOATS = FloatVector.SPECIES_PREFERRED;
+
+    private static final VectorSpecies<Integer> INTS
+            = VectorSpecies.of(int.class, FLOATS.vectorShape());
+
+    private static final FloatVector ZERO = FloatVector.zero(FLOATS);
+
+    private static final FloatVector ONE = FloatVector.broadcast(FLOATS, 1f);
+
+    private static final FloatVector FOUR = FloatVector.broadcast(FLOATS, 4f);
+
+    private static final FloatVector NINE = FloatVector.broadcast(FLOATS, 9f);
+
+    private static final FloatVector MAGIC = FloatVector.broadcast(FLOATS, ROUND_MAGIC);
+
+    VectorColorSpaceEngine() {
+    }
+
+    @Override
+    public boolean isVectorized() {
+        return true;
+    }
+
+    @Override
+    void toPlanar(int space, int[] argb, float[] c0, float[] c1, float[] c2, int length) {
+        final int upper = FLOATS.loopBound(length);
+        switch (space) {
+            case RGB:
+                toRgb(argb, c0, c1, c2, upper);
+                break;
+            case HSV:
+                toHsv(argb, c0, c1, c2, upper);
+                break;
+            case HSL:
+                toHsl(argb, c0, c1, c2, upper);
+                break;
+            default:
+                toLab(argb, c0, c1, c2, upper);
+                break;
+        }
+        ScalarColorSpaceEngine.toPlanar(space, argb, c0, c1, c2, upper, length);
+    }
+
+    @Override
+    void fromPlanar(int space, float[] c0, float[] c1, float[] c2, int[] argb, int length) {
+        final int upper = FLOATS.loopBound(length);
+        switch (space) {
+            case RGB:
+                fromRgb(c0, c1, c2, argb, upper);
+                break;
+            case HSV:
+                fromHsv(c0, c1, c2, argb, upper);
+                break;
+            case HSL:
+                fromHsl(c0, c1, c2, argb, upper);
+                break;
+            default:
+                fromLab(c0, c1, c2, argb, upper);
+                break;
+        }
+        ScalarColorSpaceEngine.fromPlanar(space, c0, c1, c2, argb, upper, length);
+    }
+
+    // Each color space has a loop of its own, vectors merged from different
+    // branches would be boxed
+
+    private static void toRgb(int[] argb, float[] c0, float[] c1, float[] c2, int upper) {
+        for (int i = 0; i < upper; i += FLOATS.length()) {
+            IntVector v = IntVector.fromArray(INTS, argb, i);
+            channel(v, 16).div(255f).intoArray(c0, i);
+            channel(v, 8).div(255f).intoArray(c1, i);
+            channel(v, 0).div(255f).intoArray(c2, i);
+        }
+    }
+
+    private static void fromRgb(float[] c0, float[] c1, float[] c2, int[] argb, int upper) {
+        for (int i = 0; i < upper; i += FLOATS.length()) {
+            pack(toByte(FloatVector.fromArray(FLOATS, c0, i)),
+                    toByte(FloatVector.fromArray(FLOATS, c1, i)),
+                    toByte(FloatVector.fromArray(FLOATS, c2, i))).intoArray(argb, i);
+        }
+    }
+
+    private static void toHsv(int[] argb, float[] c0, float[] c1, float[] c2, int upper) {
+        for (int i = 0; i < upper; i += FLOATS.length()) {
+            IntVector v = IntVector.fromArray(INTS, argb, i);
+            FloatVector r = channel(v, 16);
+            FloatVector g = channel(v, 8);
+            FloatVector b = channel(v, 0);
+            FloatVector max = r.max(g.max(b));
+            FloatVector d = max.sub(r.min(g.min(b)));
+            hue(r, g, b, max, d).intoArray(c0, i);
+            d.div(max).blend(0f, max.compare(EQ, 0f)).intoArray(c1, i);
+            max.div(255f).intoArray(c2, i);
+        }
+    }
+
+    private static void fromHsv(float[] c0, float[] c1, float[] c2, int[] argb, int upper) {
+        for (int i = 0; i < upper; i += FLOATS.length()) {
+            FloatVector value = clamp(FloatVector.fromArray(FLOATS, c2, i));
+            FloatVector h = normalizeHue(FloatVector.fromArray(FLOATS, c0, i)).div(60f);
+            FloatVector chroma = value.mul(clamp(FloatVector.fromArray(FLOATS, c1, i)));
+            pack(toByte(hsvChannel(5f, h, value, chroma)),
+                    toByte(hsvChannel(3f, h, value, chroma)),
+                    toByte(hsvChannel(1f, h, value, chroma))).intoArray(argb, i);
+        }
+    }
+
+    private static void toHsl(int[] argb, float[] c0, float[] c1, float[] c2, int upper) {
+        for (int i = 0; i < upper; i += FLOATS.length()) {
+            IntVector v = IntVector.fromArray(INTS, argb, i);
+            FloatVector r = channel(v, 16);
+            FloatVector g = channel(v, 8);
+            FloatVector b = channel(v, 0);
+            FloatVector max = r.max(g.max(b));
+            FloatVector min = r.min(g.min(b));
+            FloatVector d = max.sub(min);
+            FloatVector lightness = max.add(min).div(510f);
+            hue(r, g, b, max, d).intoArray(c0, i);
+            max.div(255f).sub(lightness).div(lightness.min(ONE.sub(lightness)))
+                    .blend(0f, d.compare(EQ, 0f)).intoArray(c1, i);
+            lightness.intoArray(c2, i);
+        }
+    }
+
+    private static void fromHsl(float[] c0, float[] c1, float[] c2, int[] argb, int upper) {
+        for (int i = 0; i < upper; i += FLOATS.length()) {
+            FloatVector lightness = clamp(FloatVector.fromArray(FLOATS, c2, i));
+            FloatVector h = normalizeHue(FloatVector.fromArray(FLOATS, c0, i)).div(30f);
+            FloatVector a = clamp(FloatVector.fromArray(FLOATS, c1, i))
+                    .mul(lightness.min(ONE.sub(lightness)));
+            pack(toByte(hslChannel(0f, h, lightness, a)),
+                    toByte(hslChannel(8f, h, lightness, a)),
+                    toByte(hslChannel(4f, h, lightness, a))).intoArray(argb, i);
+        }
+    }
+
+    private static void toLab(int[] argb, float[] c0, float[] c1, float[] c2, int upper) {
+        final int lanes = FLOATS.length();
+        final float[] red = new float[lanes];
+        final float[] green = new float[lanes];
+        final float[] blue = new float[lanes];
+        final float[] m = TO_XYZ;
+        for (int i = 0; i < upper; i += lanes) {
+            for (int n = 0; n < lanes; n++) {
+                int color = argb[i + n];
+                red[n] = LINEAR[color >> 16 & 0xFF];
+                green[n] = LINEAR[color >> 8 & 0xFF];
+                blue[n] = LINEAR[color & 0xFF];
+            }
+            FloatVector r = FloatVector.fromArray(FLOATS, red, 0);
+            FloatVector g = FloatVector.fromArray(FLOATS, green, 0);
+            FloatVector b = FloatVector.fromArray(FLOATS, blue, 0);
+            FloatVector f0 = labForward(r.mul(m[0]).add(g.mul(m[1])).add(b.mul(m[2])));
+            FloatVector f1 = labForward(r.mul(m[3]).add(g.mul(m[4])).add(b.mul(m[5])));
+            FloatVector f2 = labForward(r.mul(m[6]).add(g.mul(m[7])).add(b.mul(m[8])));
+            f1.mul(116f).sub(16f).intoArray(c0, i);
+            f0.sub(f1).mul(500f).intoArray(c1, i);
+            f1.sub(f2).mul(200f).intoArray(c2, i);
+        }
+    }
+
+    private static void fromLab(float[] c0, float[] c1, float[] c2, int[] argb, int upper) {
+        final int lanes = FLOATS.length();
+        final float[] red = new float[lanes];
+        final float[] green = new float[lanes];
+        final float[] blue = new float[lanes];
+        final float[] m = FROM_XYZ;
+        for (int i = 0; i < upper; i += lanes) {
+            FloatVector lightness = FloatVector.fromArray(FLOATS, c0, i);
+            FloatVector f1 = lightness.add(16f).div(116f);
+            FloatVector f0 = FloatVector.fromArray(FLOATS, c1, i).div(500f).add(f1);
+            FloatVector f2 = f1.sub(FloatVector.fromArray(FLOATS, c2, i).div(200f));
+            FloatVector x = labInverse(f0);
+            FloatVector y = lightness.div(KAPPA).blend(f1.mul(f1).mul(f1),
+                    lightness.compare(GT, KAPPA_EPSILON));
+            FloatVector z = labInverse(f2);
+            x.mul(m[0]).add(y.mul(m[1])).add(z.mul(m[2])).intoArray(red, 0);
+            x.mul(m[3]).add(y.mul(m[4])).add(z.mul(m[5])).intoArray(green, 0);
+            x.mul(m[6]).add(y.mul(m[7])).add(z.mul(m[8])).intoArray(blue, 0);
+            for (int n = 0; n < lanes; n++) {
+                argb[i + n] = 0xFF000000
+                        | ColorSpaceKernels.fromLinear(red[n]) << 16
+                        | ColorSpaceKernels.fromLinear(green[n]) << 8
+                        | ColorSpaceKernels.fromLinear(blue[n]);
+            }
+        }
+    }
+
+    private static FloatVector hue(FloatVector r, FloatVector g, FloatVector b,
+            FloatVector max, FloatVector d) {
+        FloatVector hue = r.sub(g).div(d).add(4f);
+        hue = hue.blend(b.sub(r).div(d).add(2f), max.compare(EQ, g));
+        FloatVector wrap = ZERO.blend(6f, g.compare(LT, b));
+        hue = hue.blend(g.sub(b).div(d).add(wrap), max.compare(EQ, r));
+        return hue.mul(60f).blend(0f, d.compare(EQ, 0f));
+    }
+
+    private static FloatVector hsvChannel(float n, FloatVector h, FloatVector value,
+            FloatVector chroma) {
+        FloatVector k = h.add(n);
+        k = k.lanewise(SUB, 6f, k.compare(GE, 6f));
+        return value.sub(chroma.mul(k.min(FOUR.sub(k)).min(1f).max(0f)));
+    }
+
+    private static FloatVector hslChannel(float n, FloatVector h, FloatVector lightness,
+            FloatVector a) {
+        FloatVector k = h.add(n);
+        k = k.lanewise(SUB, 12f, k.compare(GE, 12f));
+        return lightness.sub(a.mul(k.sub(3f).min(NINE.sub(k)).min(1f).max(-1f)));
+    }
+
+    private static FloatVector normalizeHue(FloatVector hue) {
+        hue = hue.sub(floor(hue.div(360f)).mul(360f));
+        hue = hue.lanewise(ADD, 360f, hue.compare(LT, 0f));
+        return hue.blend(0f, hue.compare(GE, 360f));
+    }
+
+    private static FloatVector floor(FloatVector value) {
+        FloatVector magic = MAGIC.blend(-ROUND_MAGIC, value.compare(LT, 0f));
+        FloatVector rounded = value.add(magic).sub(magic);
+        rounded = rounded.lanewise(SUB, 1f, rounded.compare(GT, value));
+        return value.blend(rounded, value.abs().compare(LT, ROUND_MAGIC));
+    }
+
+    private static FloatVector labForward(FloatVector t) {
+        return t.mul(KAPPA).add(16f).div(116f).blend(cbrt(t), t.compare(GT, EPSILON));
+    }
+
+    private static FloatVector labInverse(FloatVector f) {
+        FloatVector f3 = f.mul(f).mul(f);
+        return f.mul(116f).sub(16f).div(KAPPA).blend(f3, f3.compare(GT, EPSILON));
+    }
+
+    private static FloatVector cbrt(FloatVector x) {
+        FloatVector y = x.reinterpretAsInts().lanewise(LSHR, 10).mul(341).add(CBRT_BIAS)
+                .reinterpretAsFloats();
+        for (int n = 0; n < 3; n++) {
+            y = y.sub(y.mul(y).mul(y).sub(x).div(y.mul(3f).mul(y)));
+        }
+        return y;
+    }
+
+    private static FloatVector clamp(FloatVector value) {
+        return value.max(0f).min(1f);
+    }
+
+    /**
+     * Same result as {@link ColorSpaceKernels#toByte(float)}. Clamps first
+     * and truncates by adding {@link ColorSpaceKernels#ROUND_MAGIC}: the
+     * float to int conversion is not intrinsified by Java 17.
+     */
+    private static IntVector toByte(FloatVector value) {
+        FloatVector scaled = value.mul(255f).add(0.5f);
+        scaled = scaled.max(0f).min(255f).blend(0f, scaled.compare(NE, scaled));
+        FloatVector shifted = scaled.add(ROUND_MAGIC);
+        shifted = shifted.lanewise(SUB, 1f, shifted.sub(ROUND_MAGIC).compare(GT, scaled));
+        return shifted.reinterpretAsInts().sub(ROUND_MAGIC_BITS);
+    }
+
+    private static FloatVector channel(IntVector argb, int shift) {
+        return toFloat(argb.lanewise(ASHR, shift).and(0xFF));
+    }
+
+    private static IntVector pack(IntVector r, IntVector g, IntVector b) {
+        return r.lanewise(LSHL, 16).or(g.lanewise(LSHL, 8)).or(b).or(0xFF000000);
+    }
+
+    private static FloatVector toFloat(IntVector value) {
+        return (FloatVector) value.convert(I2F, 0);
+    }
+
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.vector;
+
+import eu.maxschuster.vaadin.colorpickerfield.color.ColorSpaces;
+import java.util.Random;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+import org.junit.Test;
+
+/**
+ *
+ * @author Max Schuster
+ */
+public class ColorSpaceEngineTest {
+
+    private static final int[] SPACES = {
+        ColorSpaceEngine.RGB, ColorSpaceEngine.HSV,
+        ColorSpaceEngine.HSL, ColorSpaceEngine.LAB
+    };
+
+    /**
+     * Odd length, so the scalar tail of the vector engine is covered
+     */
+    private static final int CHUNK = (1 << 16) + 5;
+
+    private final ColorSpaceEngine scalar = ColorSpaceEngine.scalar();
+
+    @Test
+    public void testVectorEngineIsDefault() {
+        ColorSpaceEngine engine = ColorSpaceEngine.getInstance();
+        assertTrue(engine.isVectorized());
+        assertTrue(!scalar.isVectorized());
+    }
+
+    @Test
+    public void testToPlanarMatchesScalarForEveryColor() {
+        ColorSpaceEngine vector = vector();
+        int[] argb = new int[CHUNK];
+        float[][] expected = new float[3][CHUNK];
+        float[][] actual = new float[3][CHUNK];
+        for (int start = 0; start < 1 << 24; start += CHUNK) {
+            for (int i = 0; i < CHUNK; i++) {
+                argb[i] = 0xFF000000 | (start + i);
+            }
+            for (int space : SPACES) {
+                scalar.toPlanar(space, argb, expected[0], expected[1], expected[2], CHUNK);
+                vector.toPlanar(space, argb, actual[0], actual[1], actual[2], CHUNK);
+                for (int c = 0; c < 3; c++) {
+                    assertArrayEquals(expected[c], actual[c], 0f);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFromPlanarMatchesScalar() {
+        ColorSpaceEngine vector = vector();
+        Random random = new Random(42);
+        float[][] channels = new float[3][CHUNK];
+        int[] expected = new int[CHUNK];
+        int[] actual = new int[CHUNK];
+        float[] specials = {Float.NaN, Float.POSITIVE_INFINITY,
+            Float.NEGATIVE_INFINITY, -0f, 0f, 1f, 360f, -360f, 1e20f, -1e-20f};
+        for (int space : SPACES) {
+            float scale = space == ColorSpaceEngine.LAB ? 300f
+                    : space == ColorSpaceEngine.RGB ? 1.5f : 800f;
+            for (int c = 0; c < 3; c++) {
+                for (int i = 0; i < CHUNK; i++) {
+                    channels[c][i] = i < 64
+                            ? specials[random.nextInt(specials.length)]
+                            : (random.nextFloat() - 0.25f) * scale;
+                }
+            }
+            scalar.fromPlanar(space, channels[0], channels[1], channels[2], expected, CHUNK);
+            vector.fromPlanar(space, channels[0], channels[1], channels[2], actual, CHUNK);
+            assertArrayEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void testRoundTrip() {
+        int[] argb = new int[CHUNK];
+        for (int i = 0; i < CHUNK; i++) {
+            argb[i] = 0xFF000000 | i * 0x9E3779B9 >>> 8;
+        }
+        float[] c0 = new float[CHUNK];
+        float[] c1 = new float[CHUNK];
+        float[] c2 = new float[CHUNK];
+        int[] back = new int[CHUNK];
+        ColorSpaceEngine engine = ColorSpaceEngine.getInstance();
+        engine.toRgb(argb, c0, c1, c2);
+        engine.fromRgb(c0, c1, c2, back);
+        assertArrayEquals(argb, back);
+        engine.toHsv(argb, c0, c1, c2);
+        engine.fromHsv(c0, c1, c2, back);
+        assertArrayEquals(argb, back);
+        engine.toHsl(argb, c0, c1, c2);
+        engine.fromHsl(c0, c1, c2, back);
+        assertArrayEquals(argb, back);
+        engine.toLab(argb, c0, c1, c2);
+        engine.fromLab(c0, c1, c2, back);
+        assertArrayEquals(argb, back);
+    }
+
+    @Test
+    public void testMatchesColorSpaces() {
+        int[] argb = new int[4096];
+        for (int i = 0; i < argb.length; i++) {
+            argb[i] = 0xFF000000 | i * 0x9E3779B9 >>> 8;
+        }
+        float[] c0 = new float[argb.length];
+        float[] c1 = new float[argb.length];
+        float[] c2 = new float[argb.length];
+        double[] expected = new double[3];
+        ColorSpaceEngine engine = ColorSpaceEngine.getInstance();
+        engine.toLab(argb, c0, c1, c2);
+        for (int i = 0; i < argb.length; i++) {
+            ColorSpaces.argbToLab(argb[i], expected);
+            assertEquals(expected[0], c0[i], 1e-3);
+            assertEquals(expected[1], c1[i], 1e-3);
+            assertEquals(expected[2], c2[i], 1e-3);
+        }
+        engine.toHsl(argb, c0, c1, c2);
+        for (int i = 0; i < argb.length; i++) {
+            ColorSpaces.argbToHsl(argb[i], expected);
+            assertEquals(expected[0], c0[i], 1e-3);
+            assertEquals(expected[1], c1[i], 1e-5);
+            assertEquals(expected[2], c2[i], 1e-5);
+        }
+    }
+
+    @Test
+    public void testHueIsNormalized() {
+        float[] hue = {-120f, 480f, 720f, 0f};
+        float[] saturation = {1f, 1f, 1f, 1f};
+        float[] value = {1f, 1f, 1f, 1f};
+        int[] argb = new int[4];
+        ColorSpaceEngine.getInstance().fromHsv(hue, saturation, value, argb);
+        assertArrayEquals(new int[]{0xFF0000FF, 0xFF00FF00, 0xFFFF0000, 0xFFFF0000}, argb);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testShortChannelArray() {
+        ColorSpaceEngine.getInstance().toRgb(new int[4], new float[4], new float[3], new float[4]);
+    }
+
+    private static ColorSpaceEngine vector() {
+        ColorSpaceEngine engine = ColorSpaceEngine.getInstance();
+        assumeTrue(engine.isVectorized());
+        return engine;
+    }
+
+}
@@ -16,16 +16,32 @@
 package eu.maxschuster.vaadin.colorpickerfield;
 
 import com.vaadin.data.Property;
+import com.vaadin.event.LayoutEvents;
+import com.vaadin.event.UIEvents;
 import com.vaadin.shared.ui.colorpicker.Color;
+import com.vaadin.shared.ui.label.ContentMode;
 import com.vaadin.ui.AbstractColorPicker;
+import com.vaadin.ui.Component;
+import com.vaadin.ui.CssLayout;
 import com.vaadin.ui.CustomField;
 import com.vaadin.ui.Field;
+import com.vaadin.ui.Label;
+import com.vaadin.ui.UI;
+import com.vaadin.ui.Window;
 import com.vaadin.ui.components.colorpicker.ColorChangeEvent;
 import com.vaadin.ui.components.colorpicker.ColorChangeListener;
+import com.vaadin.ui.components.colorpicker.ColorPickerPopup;
 import com.vaadin.ui.declarative.DesignAttributeHandler;
 import com.vaadin.ui.declarative.DesignContext;
-import java.lang.reflect.Constructor;
+import eu.maxschuster.vaadin.colorpickerfield.color.ColorLut;
+import eu.maxschuster.vaadin.colorpickerfield.color.ColorPalette;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 import org.jsoup.nodes.Attributes;
 import org.jsoup.nodes.Element;
@@ -51,11 +67,38 @@ public abstract class AbstractColorPickerField<COLOR_PICKER extends AbstractColo
      */
     protected static final Color DEFAULT_INITIAL_COLOR = Color.WHITE;
 
+    /**
+     * Default timeout of the {@link ColorChangeMode#LAZY} mode in
+     * milliseconds
+     */
+    public static final int DEFAULT_COLOR_CHANGE_TIMEOUT = 400;
+
+    /*
+     * Properties passed to the color picker, as bits of the
+     * dirtyProperties mask:
+     */
+    private static final int PROPERTY_IMMEDIATE = 1;
+    private static final int PROPERTY_POSITION = 1 << 1;
+    private static final int PROPERTY_CAPTION = 1 << 2;
+    private static final int PROPERTY_CAPTION_AS_HTML = 1 << 3;
+    private static final int PROPERTY_DEFAULT_CAPTION = 1 << 4;
+    private static final int PROPERTY_POPUP_STYLE = 1 << 5;
+    private static final int PROPERTY_TABS = 1 << 6;
+    private static final int PROPERTY_HISTORY = 1 << 7;
+    private static final int PROPERTY_TEXTFIELD = 1 << 8;
+    private static final int PROPERTY_COLOR = 1 << 9;
+    private static final int ALL_PROPERTIES = (1 << 10) - 1;
+
     /**
      * The type of the wrapped color picker
      */
     private final Class<COLOR_PICKER> colorPickerType;
 
+    /**
+     * Creates the wrapped color picker
+     */
+    private ColorPickerFactory<? extends COLOR_PICKER> colorPickerFactory;
+
     /**
      * Default color for the client-side when value is {@code null}
      */
@@ -66,11 +109,90 @@ public abstract class AbstractColorPickerField<COLOR_PICKER extends AbstractColo
      */
     private Color nullRepresentation;
 
+    /**
+     * Palette that picked colors are snapped to
+     */
+    private ColorPalette snapPalette;
+
+    /**
+     * Table applied to the color shown by the swatch
+     */
+    private ColorLut previewLut;
+
+    /**
+     * The last color passed through the {@link #previewLut} and the
+     * result, recomputed only when the shown color changes
+     */
+    private transient int previewSource;
+    private transient Color previewColor;
+
     /**
      * Show popup when content gets initialized
      */
     private boolean showPopup = false;
 
+    /**
+     * Render a swatch and create the color picker only while its popup is
+     * open
+     */
+    private boolean swatchOnly = false;
+
+    /**
+     * Release the color picker on detach and create a new one on the next
+     * attach
+     */
+    private boolean releaseOnDetach = false;
+
+    /**
+     * Number of nested {@link #beginUpdate()} calls and the properties
+     * changed since the first one
+     */
+    private int updateDepth = 0;
+    private int dirtyProperties = 0;
+
+    /**
+     * The wrapped color picker or {@code null} if it has not been created
+     * yet or has been released
+     */
+    private COLOR_PICKER colorPicker;
+
+    /*
+     * Content of the swatch-only and release on detach modes:
+     */
+    private CssLayout contentLayout;
+    private Label swatch;
+
+    /**
+     * The open popup window of the color picker, if it is watched
+     */
+    private Window popup;
+    private final PopupCloseListener popupCloseListener = new PopupCloseListener();
+
+    /**
+     * When picked colors become the value of this field
+     */
+    private ColorChangeMode colorChangeMode = ColorChangeMode.EAGER;
+    private int colorChangeTimeout = DEFAULT_COLOR_CHANGE_TIMEOUT;
+
+    /*
+     * The latest picked color that has not been committed yet:
+     */
+    private boolean colorChangePending = false;
+    private Color pendingColor;
+    private transient long pendingSince;
+
+    /**
+     * Polls the client while a color of the {@link ColorChangeMode#LAZY}
+     * mode is pending
+     */
+    private ColorChangePoller colorChangePoller;
+
+    /*
+     * Statistics of the picked colors:
+     */
+    private long colorChangeCount = 0;
+    private long droppedColorChangeCount = 0;
+
     /*
      * Properties passed to the color picker:
      */
@@ -116,60 +238,374 @@ public abstract class AbstractColorPickerField<COLOR_PICKER extends AbstractColo
      * @param initialColor The initial color
      */
     public AbstractColorPickerField(Class<COLOR_PICKER> pickerType, String popupCaption, Color initialColor) {
+        this(pickerType, ColorPickerFactories.forType(pickerType), popupCaption, initialColor);
+    }
+
+    /**
+     * Instantiates a new color picker.
+     *
+     * @param pickerType Type of the wrapped color picker
+     * @param pickerFactory Creates the wrapped color picker
+     * @param popupCaption The caption of the popup window
+     * @param initialColor The initial color
+     */
+    public AbstractColorPickerField(Class<COLOR_PICKER> pickerType,
+            ColorPickerFactory<? extends COLOR_PICKER> pickerFactory,
+            String popupCaption, Color initialColor) {
         if (pickerType == null) {
             throw new NullPointerException("The picker type mustn't be null!");
         }
+        if (pickerFactory == null) {
+            throw new NullPointerException("The picker factory mustn't be null!");
+        }
         this.colorPickerType = pickerType;
+        this.colorPickerFactory = pickerFactory;
         this.popupCaption = popupCaption;
         setValue(initialColor);
     }
 
     @Override
-    protected COLOR_PICKER initContent() {
-        COLOR_PICKER colorPicker;
-        try {
-            Constructor<COLOR_PICKER> contructor
-                    = colorPickerType.getDeclaredConstructor(String.class);
-            colorPicker = contructor.newInstance(popupCaption);
-        } catch (ReflectiveOperationException ex) {
-            // passthru all reflection exceptions because they should never happen
-            throw new RuntimeException(ex);
+    protected Component initContent() {
+        if (swatchOnly) {
+            swatch = new Label(null, ContentMode.HTML);
+            swatch.setSizeFull();
+            updateSwatch();
+            contentLayout = new CssLayout(swatch);
+            contentLayout.setSizeFull();
+            contentLayout.addLayoutClickListener(new SwatchClickListener());
+            return contentLayout;
+        }
+        COLOR_PICKER colorPicker = createColorPicker();
+        if (releaseOnDetach) {
+            // the root of a CustomField can't be replaced
+            contentLayout = new CssLayout(colorPicker);
+            contentLayout.setSizeFull();
+            return contentLayout;
         }
+        return colorPicker;
+    }
+
+    /**
+     * Creates and configures the wrapped color picker
+     *
+     * @return The new color picker
+     */
+    private COLOR_PICKER createColorPicker() {
+        COLOR_PICKER colorPicker = colorPickerFactory.createColorPicker(popupCaption);
         colorPicker.setSizeFull();
         colorPicker.setReadOnly(isReadOnly());
-        colorPicker.setImmediate(isImmediate());
-
-        colorPicker.setPosition(positionX, positionY);
-        colorPicker.setCaption(caption);
-        colorPicker.setCaptionAsHtml(captionAsHtml);
-        colorPicker.setDefaultCaptionEnabled(defaultCaptionEnabled);
-        colorPicker.setPopupStyle(popupStyle);
-        colorPicker.setRGBVisibility(rgbVisibility);
-        colorPicker.setHSVVisibility(hsvVisibility);
-        colorPicker.setSwatchesVisibility(swatchesVisibility);
-        colorPicker.setHistoryVisibility(historyVisibility);
-        colorPicker.setTextfieldVisibility(textfieldVisibility);
-
-        colorPicker.setColor(getClientColor(getInternalValue()));
+        applyProperties(colorPicker, ALL_PROPERTIES);
         colorPicker.addColorChangeListener(this);
 
-        if (showPopup) {
-            colorPicker.showPopup();
+        this.colorPicker = colorPicker;
+        return colorPicker;
+    }
+
+    /**
+     * Passes properties of this field to the color picker
+     *
+     * @param colorPicker The color picker
+     * @param properties The {@code PROPERTY_...} bits of the properties
+     */
+    private void applyProperties(COLOR_PICKER colorPicker, int properties) {
+        if ((properties & PROPERTY_IMMEDIATE) != 0) {
+            colorPicker.setImmediate(isImmediate());
+        }
+        if ((properties & PROPERTY_POSITION) != 0) {
+            colorPicker.setPosition(positionX, positionY);
+        }
+        if ((properties & PROPERTY_CAPTION) != 0) {
+            colorPicker.setCaption(caption);
+        }
+        if ((properties & PROPERTY_CAPTION_AS_HTML) != 0) {
+            colorPicker.setCaptionAsHtml(captionAsHtml);
+        }
+        if ((properties & PROPERTY_DEFAULT_CAPTION) != 0) {
+            colorPicker.setDefaultCaptionEnabled(defaultCaptionEnabled);
+        }
+        if ((properties & PROPERTY_POPUP_STYLE) != 0) {
+            colorPicker.setPopupStyle(popupStyle);
+        }
+        if ((properties & PROPERTY_TABS) != 0) {
+            applyTabVisibility(colorPicker);
+        }
+        if ((properties & PROPERTY_HISTORY) != 0) {
+            colorPicker.setHistoryVisibility(historyVisibility);
+        }
+        if ((properties & PROPERTY_TEXTFIELD) != 0) {
+            colorPicker.setTextfieldVisibility(textfieldVisibility);
+        }
+        if ((properties & PROPERTY_COLOR) != 0) {
+            colorPicker.setColor(getClientColor(getInternalValue()));
+        }
+    }
+
+    /**
+     * Passes the visibility of the tabs to the color picker. Shown tabs are
+     * passed first, because the color picker refuses to hide all tabs.
+     *
+     * @param colorPicker The color picker
+     */
+    private void applyTabVisibility(COLOR_PICKER colorPicker) {
+        if (rgbVisibility) {
+            colorPicker.setRGBVisibility(true);
+        }
+        if (hsvVisibility) {
+            colorPicker.setHSVVisibility(true);
         }
+        if (swatchesVisibility) {
+            colorPicker.setSwatchesVisibility(true);
+        }
+        if (!rgbVisibility) {
+            colorPicker.setRGBVisibility(false);
+        }
+        if (!hsvVisibility) {
+            colorPicker.setHSVVisibility(false);
+        }
+        if (!swatchesVisibility) {
+            colorPicker.setSwatchesVisibility(false);
+        }
+    }
+
+    /**
+     * Checks a combination of tab visibilities like the color picker does
+     *
+     * @param rgb The visibility of the RGB Tab
+     * @param hsv The visibility of the HSV Tab
+     * @param swatches The visibility of the Swatches Tab
+     * @throws IllegalArgumentException If all tabs would be hidden
+     */
+    static void checkTabVisibility(boolean rgb, boolean hsv, boolean swatches) {
+        if (!rgb && !hsv && !swatches) {
+            throw new IllegalArgumentException("Cannot hide all tabs.");
+        }
+    }
 
+    /**
+     * Gets the color picker that a changed property should be passed to
+     *
+     * @param property The {@code PROPERTY_...} bit of the changed property
+     * @return The color picker or {@code null} if there is none or the
+     * change is deferred until {@link #endUpdate()}
+     */
+    private COLOR_PICKER getUpdateTarget(int property) {
+        if (updateDepth > 0) {
+            dirtyProperties |= property;
+            return null;
+        }
         return colorPicker;
     }
 
+    /**
+     * Defers passing changed properties to the color picker until the
+     * matching {@link #endUpdate()}. Calls may be nested.
+     */
+    public void beginUpdate() {
+        updateDepth++;
+    }
+
+    /**
+     * Passes the properties changed since the first {@link #beginUpdate()}
+     * to the color picker at once
+     *
+     * @throws IllegalStateException If there is no matching
+     * {@link #beginUpdate()}
+     */
+    public void endUpdate() {
+        if (updateDepth == 0) {
+            throw new IllegalStateException("endUpdate() without beginUpdate()");
+        }
+        if (--updateDepth == 0 && dirtyProperties != 0) {
+            int properties = dirtyProperties;
+            dirtyProperties = 0;
+            if (colorPicker != null) {
+                applyProperties(colorPicker, properties);
+            }
+        }
+    }
+
+    /**
+     * Applies a configuration in a single update
+     *
+     * @param configuration The configuration
+     * @see ColorPickerFieldConfiguration#applyTo(java.lang.Iterable)
+     */
+    public void configure(ColorPickerFieldConfiguration configuration) {
+        beginUpdate();
+        try {
+            setPopupStyle(configuration.getPopupStyle());
+            setPosition(configuration.getPositionX(), configuration.getPositionY());
+            setDefaultCaptionEnabled(configuration.isDefaultCaptionEnabled());
+            setTabVisibility(configuration.isRGBVisibility(),
+                    configuration.isHSVVisibility(),
+                    configuration.isSwatchesVisibility());
+            setHistoryVisibility(configuration.isHistoryVisibility());
+            setTextfieldVisibility(configuration.isTextfieldVisibility());
+        } finally {
+            endUpdate();
+        }
+    }
+
+    /**
+     * Replaces the swatch with a new color picker and opens its popup. Does
+     * nothing while detached, {@link #attach()} opens it later.
+     */
+    private void openColorPicker() {
+        if (colorPicker != null) {
+            showPickerPopup();
+            return;
+        }
+        if (isReadOnly() || getUI() == null) {
+            return;
+        }
+        contentLayout.replaceComponent(swatch, createColorPicker());
+        showPickerPopup();
+        if (popup == null) {
+            // the picker refused to open its popup
+            releaseColorPicker();
+        }
+    }
+
+    /**
+     * Opens the popup of the color picker and watches it, so it is not
+     * opened again on the next attach once the user closed it
+     */
+    private void showPickerPopup() {
+        colorPicker.showPopup();
+        watchPopup();
+    }
+
+    /**
+     * Stops watching the popup of the color picker
+     */
+    private void unwatchPopup() {
+        if (popup != null) {
+            popup.removeCloseListener(popupCloseListener);
+            popup = null;
+        }
+    }
+
+    /**
+     * Finds the open popup window of a color picker. The picker registers
+     * itself as {@link Window.CloseListener} of its own popup.
+     *
+     * @param picker The color picker
+     * @return The popup window or {@code null} if it is not open
+     */
+    private static Window findPopup(AbstractColorPicker picker) {
+        UI ui = picker.getUI();
+        if (ui == null) {
+            return null;
+        }
+        for (Window window : ui.getWindows()) {
+            if (window instanceof ColorPickerPopup
+                    && window.getListeners(Window.CloseEvent.class).contains(picker)) {
+                return window;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Removes the color picker from the content and puts the swatch back in
+     * the swatch-only mode
+     */
+    private void releaseColorPicker() {
+        COLOR_PICKER picker = colorPicker;
+        if (picker == null || contentLayout == null) {
+            return;
+        }
+        flushColorChange();
+        unwatchPopup();
+        // don't leave an orphaned popup window in the UI
+        picker.hidePopup();
+        picker.removeColorChangeListener(this);
+        colorPicker = null;
+        if (swatch != null) {
+            updateSwatch();
+            contentLayout.replaceComponent(picker, swatch);
+        } else {
+            contentLayout.removeComponent(picker);
+        }
+    }
+
+    /**
+     * Shows the color of the client-side in the swatch
+     */
+    private void updateSwatch() {
+        if (swatch != null) {
+            swatch.setValue("<div class=\"color-picker-field-swatch\" style=\""
+                    + "min-width:16px;min-height:16px;height:100%;background:"
+                    + getPreviewColor(getClientColor(getInternalValue())).getCSS()
+                    + "\"></div>");
+        }
+    }
+
     @Override
     public void attach() {
         super.attach();
         // The content should be ready at this time
         contentInitialized = true;
+        if (swatchOnly) {
+            if (showPopup) {
+                openColorPicker();
+            }
+        } else {
+            if (releaseOnDetach && colorPicker == null) {
+                // released by detach()
+                contentLayout.addComponent(createColorPicker());
+            }
+            if (showPopup) {
+                showPickerPopup();
+            }
+        }
     }
 
+    @Override
+    public void detach() {
+        super.detach();
+        flushColorChange();
+        if (releaseOnDetach || swatchOnly) {
+            // a swatch-only field reopens the popup on the next attach
+            releaseColorPicker();
+        }
+    }
+
+    /**
+     * Gets the wrapped color picker
+     *
+     * @return The color picker or {@code null} if it has not been created
+     * yet or has been released
+     * @deprecated The content is a layout in the swatch-only and release on
+     * detach modes, use {@link #getColorPicker()}
+     */
+    @Deprecated
     @Override
     protected COLOR_PICKER getContent() {
-        return colorPickerType.cast(super.getContent());
+        // creates the content
+        super.getContent();
+        return colorPicker;
+    }
+
+    @Override
+    public Iterator<Component> iterator() {
+        // the content may be a layout, see getContent()
+        return Collections.singletonList(super.getContent()).iterator();
+    }
+
+    @Override
+    public int getComponentCount() {
+        return 1;
+    }
+
+    /**
+     * Gets the wrapped color picker
+     *
+     * @return The color picker or {@code null} if it has not been created
+     * yet, e.g. in the swatch-only mode while the popup is closed
+     */
+    protected COLOR_PICKER getColorPicker() {
+        return colorPicker;
     }
 
     @Override
@@ -179,59 +615,195 @@ public abstract class AbstractColorPickerField<COLOR_PICKER extends AbstractColo
 
     @Override
     public void colorChanged(ColorChangeEvent event) {
-        if (event.getComponent() != getContent()) {
+        if (event.getComponent() != colorPicker) {
             throw new UnsupportedOperationException("This field should not be "
                     + "used as color change listener");
         }
-        final Color newValue = event.getColor();
+        colorChangeCount++;
+        switch (colorChangeMode) {
+            case LAZY:
+                if (isColorChangeQuiet()) {
+                    // the timeout elapsed before this round-trip
+                    flushColorChange();
+                }
+                deferColorChange(event.getColor());
+                scheduleColorChange();
+                break;
+            case ON_POPUP_CLOSE:
+                deferColorChange(event.getColor());
+                if (!watchPopup()) {
+                    flushColorChange();
+                }
+                break;
+            default:
+                commitColorChange(event.getColor());
+                break;
+        }
+    }
+
+    /**
+     * Keeps a picked {@link Color} until it gets committed, replacing the
+     * one that is pending
+     *
+     * @param color The picked {@link Color}
+     */
+    private void deferColorChange(Color color) {
+        if (colorChangePending) {
+            droppedColorChangeCount++;
+        }
+        colorChangePending = true;
+        pendingColor = color;
+    }
+
+    /**
+     * Commits the pending {@link Color} on the first round-trip after the
+     * {@link #colorChangeTimeout} elapsed without another color change, or
+     * when the popup gets closed. The client is polled in the meantime, so
+     * no server push or background thread is needed.
+     */
+    private void scheduleColorChange() {
+        UI ui = getUI();
+        if (ui == null || colorChangeTimeout == 0) {
+            flushColorChange();
+            return;
+        }
+        pendingSince = System.nanoTime();
+        watchPopup();
+        if (colorChangePoller == null) {
+            colorChangePoller = ColorChangePoller.forUI(ui);
+            colorChangePoller.add(this);
+        }
+    }
+
+    /**
+     * @return True if a {@link Color} is pending and no other color has been
+     * picked for the {@link #colorChangeTimeout}
+     */
+    private boolean isColorChangeQuiet() {
+        return colorChangePending && System.nanoTime() - pendingSince
+                >= TimeUnit.MILLISECONDS.toNanos(colorChangeTimeout);
+    }
+
+    /**
+     * Registers the {@link #popupCloseListener} at the popup window of the
+     * color picker of this field
+     *
+     * @return True if the popup is watched
+     */
+    private boolean watchPopup() {
+        if (popup == null && colorPicker != null) {
+            popup = findPopup(colorPicker);
+            if (popup != null) {
+                popup.addCloseListener(popupCloseListener);
+            }
+        }
+        return popup != null;
+    }
+
+    /**
+     * Commits a picked {@link Color} deferred by the {@link ColorChangeMode}
+     * immediately. Does nothing if no color is pending.
+     */
+    public void flushColorChange() {
+        if (colorChangePoller != null) {
+            colorChangePoller.remove(this);
+            colorChangePoller = null;
+        }
+        if (colorChangePending) {
+            Color color = pendingColor;
+            colorChangePending = false;
+            pendingColor = null;
+            commitColorChange(color);
+        }
+    }
+
+    /**
+     * Sets a picked {@link Color} as value of this field
+     *
+     * @param newValue The picked {@link Color}
+     */
+    private void commitColorChange(Color newValue) {
         Color value = null;
         if (newValue != null && (nullRepresentation == null
                 || !nullRepresentation.equals(newValue))) {
-            value = newValue;
+            value = snap(newValue);
         }
         setValue(value);
+        if (value != newValue && value != null && colorPicker != null) {
+            // setValue() does not update the picker if the value is unchanged
+            colorPicker.setColor(getClientColor(getValue()));
+        }
+    }
+
+    /**
+     * Snaps the given {@link Color} to the nearest color of the
+     * {@link #snapPalette}
+     *
+     * @param color The picked {@link Color}
+     * @return The nearest palette {@link Color} or the given {@link Color}
+     * if it is part of the palette or no palette is set
+     */
+    protected Color snap(Color color) {
+        ColorPalette palette = snapPalette;
+        if (palette == null) {
+            return color;
+        }
+        int argb = color.getRGB();
+        int nearest = palette.nearest(argb);
+        if (nearest == argb) {
+            return color;
+        }
+        return new Color(nearest >> 16 & 0xFF, nearest >> 8 & 0xFF,
+                nearest & 0xFF, nearest >>> 24);
     }
 
     @Override
     public void readOnlyStatusChange(Property.ReadOnlyStatusChangeEvent event) {
         super.readOnlyStatusChange(event);
-        if (isContentInitialized()) {
-            COLOR_PICKER colorPicker = getContent();
-            boolean readOnly = event.getProperty().isReadOnly();
-            colorPicker.setReadOnly(readOnly);
-            colorPicker.hidePopup();
+        if (isContentInitialized() && colorPicker != null) {
+            COLOR_PICKER picker = colorPicker;
+            picker.hidePopup();
+            picker.setReadOnly(event.getProperty().isReadOnly());
+            if (swatchOnly) {
+                releaseColorPicker();
+            }
         }
     }
 
     @Override
     protected void setInternalValue(Color newValue) {
         super.setInternalValue(newValue);
-        if (isContentInitialized()) {
-            getContent().setColor(getClientColor(newValue));
+        COLOR_PICKER picker = getUpdateTarget(PROPERTY_COLOR);
+        if (picker != null) {
+            picker.setColor(getClientColor(newValue));
         }
+        updateSwatch();
     }
 
     @Override
     public void setImmediate(boolean immediate) {
         super.setImmediate(immediate);
-        if (isContentInitialized()) {
-            getContent().setImmediate(immediate);
+        COLOR_PICKER picker = getUpdateTarget(PROPERTY_IMMEDIATE);
+        if (picker != null) {
+            picker.setImmediate(immediate);
         }
     }
 
     @Override
     public void setCaptionAsHtml(boolean captionAsHtml) {
         this.captionAsHtml = captionAsHtml;
-        if (isContentInitialized()) {
-            getContent().setCaptionAsHtml(captionAsHtml);
+        COLOR_PICKER picker = getUpdateTarget(PROPERTY_CAPTION_AS_HTML);
+        if (picker != null) {
+            picker.setCaptionAsHtml(captionAsHtml);
         }
     }
 
     @Override
     public void setCaption(String caption) {
         this.caption = caption;
-        if (isContentInitialized()) {
-            getContent().setCaption(caption);
+        COLOR_PICKER picker = getUpdateTarget(PROPERTY_CAPTION);
+        if (picker != null) {
+            picker.setCaption(caption);
         }
     }
 
@@ -290,7 +862,7 @@ public abstract class AbstractColorPickerField<COLOR_PICKER extends AbstractColo
         Attributes attributes = design.attributes();
 
         DesignAttributeHandler.writeAttribute("color", attributes,
-                getClientColor(getValue()).getCSS(), Color.WHITE.getCSS(), String.class);
+                withDefault(getValue()).getCSS(), Color.WHITE.getCSS(), String.class);
         DesignAttributeHandler.writeAttribute("popup-style", attributes,
                 (popupStyle == AbstractColorPicker.PopupStyle.POPUP_NORMAL ? "normal" : "simple"),
                 "normal", String.class);
@@ -302,12 +874,42 @@ public abstract class AbstractColorPickerField<COLOR_PICKER extends AbstractColo
      * Gets the {@link Color} that should be used for the
      * {@link AbstractColorPicker}. Returns the given {@link Color} or a default
      * value if the given {@link Color} is null {@code null}. The default value
-     * is eighter {@link #nullRepresentation} or {@link #defaultColor}
+     * is eighter {@link #nullRepresentation} or {@link #defaultColor}.
      *
      * @param color {@link Color} value
      * @return A {@link Color} that is never null
      */
     protected Color getClientColor(Color color) {
+        return withDefault(color);
+    }
+
+    /**
+     * Applies the {@link #previewLut} to a {@link Color} shown by the
+     * swatch. The result for the last shown
+     * {@link Color} is kept, so repeated calls do not allocate.
+     *
+     * @param color The {@link Color} to show
+     * @return The transformed {@link Color} or the given {@link Color} if no
+     * table is set
+     */
+    protected Color getPreviewColor(Color color) {
+        ColorLut lut = previewLut;
+        if (lut == null) {
+            return color;
+        }
+        int argb = color.getRGB();
+        Color preview = previewColor;
+        if (preview == null || previewSource != argb) {
+            int transformed = lut.transform(argb);
+            preview = new Color(transformed >> 16 & 0xFF, transformed >> 8 & 0xFF,
+                    transformed & 0xFF, transformed >>> 24);
+            previewSource = argb;
+            previewColor = preview;
+        }
+        return preview;
+    }
+
+    private Color withDefault(Color color) {
         if (color != null) {
             return color;
         } else if (nullRepresentation != null) {
@@ -317,6 +919,72 @@ public abstract class AbstractColorPickerField<COLOR_PICKER extends AbstractColo
         }
     }
 
+    /**
+     * Gets the value as immutable {@link ArgbColor}. Use a
+     * {@link eu.maxschuster.vaadin.colorpickerfield.converter.ColorToArgbColorConverter}
+     * to bind this field to a property of type {@link ArgbColor}.
+     *
+     * @return The value or {@code null}
+     */
+    public ArgbColor getArgbColor() {
+        return ArgbColor.valueOf(getValue());
+    }
+
+    /**
+     * Sets the value from an immutable {@link ArgbColor}
+     *
+     * @param color The new value or {@code null}
+     */
+    public void setArgbColor(ArgbColor color) {
+        setValue(color == null ? null : color.toColor());
+    }
+
+    /**
+     * Gets the palette that colors picked by the user are snapped to
+     *
+     * @return The palette or {@code null} if any color can be picked
+     */
+    public ColorPalette getSnapPalette() {
+        return snapPalette;
+    }
+
+    /**
+     * Sets a palette that colors picked by the user are snapped to. Every
+     * picked color is replaced by the perceptually nearest palette color
+     * before it becomes the value of this field. Values set by
+     * {@link #setValue(java.lang.Object)} are not snapped.
+     *
+     * @param snapPalette The palette or {@code null} to allow any color
+     */
+    public void setSnapPalette(ColorPalette snapPalette) {
+        this.snapPalette = snapPalette;
+    }
+
+    /**
+     * Gets the table applied to the color shown by the swatch
+     *
+     * @return The table or {@code null}
+     */
+    public ColorLut getPreviewLut() {
+        return previewLut;
+    }
+
+    /**
+     * Sets a table that is applied to the color shown by the swatch of the
+     * swatch-only mode, e.g. to preview the value in a dark theme. The color
+     * picker always shows the untransformed value. A color picked from a
+     * transformed color would be transformed again once it becomes the
+     * value, and a table can not be inverted in general.
+     *
+     * @param previewLut The table or {@code null} to show the value as it is
+     * @see #setSwatchOnly(boolean)
+     */
+    public void setPreviewLut(ColorLut previewLut) {
+        this.previewLut = previewLut;
+        previewColor = null;
+        updateSwatch();
+    }
+
     /**
      * Gets the default {@link Color}
      *
@@ -366,8 +1034,9 @@ public abstract class AbstractColorPickerField<COLOR_PICKER extends AbstractColo
      */
     public void setDefaultCaptionEnabled(boolean enabled) {
         defaultCaptionEnabled = enabled;
-        if (isContentInitialized()) {
-            getContent().setDefaultCaptionEnabled(enabled);
+        COLOR_PICKER picker = getUpdateTarget(PROPERTY_DEFAULT_CAPTION);
+        if (picker != null) {
+            picker.setDefaultCaptionEnabled(enabled);
         }
     }
 
@@ -380,8 +1049,9 @@ public abstract class AbstractColorPickerField<COLOR_PICKER extends AbstractColo
     public void setPosition(int x, int y) {
         this.positionX = x;
         this.positionY = y;
-        if (isContentInitialized()) {
-            getContent().setPosition(x, y);
+        COLOR_PICKER picker = getUpdateTarget(PROPERTY_POSITION);
+        if (picker != null) {
+            picker.setPosition(x, y);
         }
     }
 
@@ -391,9 +1061,13 @@ public abstract class AbstractColorPickerField<COLOR_PICKER extends AbstractColo
      * @param style The style
      */
     public void setPopupStyle(AbstractColorPicker.PopupStyle style) {
+        if (style == null) {
+            throw new NullPointerException("The popup style mustn't be null!");
+        }
         popupStyle = style;
-        if (isContentInitialized()) {
-            getContent().setPopupStyle(style);
+        COLOR_PICKER picker = getUpdateTarget(PROPERTY_POPUP_STYLE);
+        if (picker != null) {
+            picker.setPopupStyle(style);
         }
     }
 
@@ -401,35 +1075,49 @@ public abstract class AbstractColorPickerField<COLOR_PICKER extends AbstractColo
      * Set the visibility of the RGB Tab
      *
      * @param visible The visibility
+     * @throws IllegalArgumentException If all tabs would be hidden
      */
     public void setRGBVisibility(boolean visible) {
-        rgbVisibility = visible;
-        if (isContentInitialized()) {
-            getContent().setRGBVisibility(visible);
-        }
+        setTabVisibility(visible, hsvVisibility, swatchesVisibility);
     }
 
     /**
      * Set the visibility of the HSV Tab
      *
      * @param visible The visibility
+     * @throws IllegalArgumentException If all tabs would be hidden
      */
     public void setHSVVisibility(boolean visible) {
-        hsvVisibility = visible;
-        if (isContentInitialized()) {
-            getContent().setHSVVisibility(visible);
-        }
+        setTabVisibility(rgbVisibility, visible, swatchesVisibility);
     }
 
     /**
      * Set the visibility of the Swatches Tab
      *
      * @param visible The visibility
+     * @throws IllegalArgumentException If all tabs would be hidden
      */
     public void setSwatchesVisibility(boolean visible) {
-        swatchesVisibility = visible;
-        if (isContentInitialized()) {
-            getContent().setSwatchesVisibility(visible);
+        setTabVisibility(rgbVisibility, hsvVisibility, visible);
+    }
+
+    /**
+     * Sets the visibility of all tabs at once. Checked right away, even
+     * while the color picker has not been created or an update is pending.
+     *
+     * @param rgb The visibility of the RGB Tab
+     * @param hsv The visibility of the HSV Tab
+     * @param swatches The visibility of the Swatches Tab
+     * @throws IllegalArgumentException If all tabs would be hidden
+     */
+    private void setTabVisibility(boolean rgb, boolean hsv, boolean swatches) {
+        checkTabVisibility(rgb, hsv, swatches);
+        rgbVisibility = rgb;
+        hsvVisibility = hsv;
+        swatchesVisibility = swatches;
+        COLOR_PICKER picker = getUpdateTarget(PROPERTY_TABS);
+        if (picker != null) {
+            applyTabVisibility(picker);
         }
     }
 
@@ -440,8 +1128,9 @@ public abstract class AbstractColorPickerField<COLOR_PICKER extends AbstractColo
      */
     public void setHistoryVisibility(boolean visible) {
         historyVisibility = visible;
-        if (isContentInitialized()) {
-            getContent().setHistoryVisibility(visible);
+        COLOR_PICKER picker = getUpdateTarget(PROPERTY_HISTORY);
+        if (picker != null) {
+            picker.setHistoryVisibility(visible);
         }
     }
 
@@ -452,8 +1141,9 @@ public abstract class AbstractColorPickerField<COLOR_PICKER extends AbstractColo
      */
     public void setTextfieldVisibility(boolean visible) {
         textfieldVisibility = visible;
-        if (isContentInitialized()) {
-            getContent().setTextfieldVisibility(visible);
+        COLOR_PICKER picker = getUpdateTarget(PROPERTY_TEXTFIELD);
+        if (picker != null) {
+            picker.setTextfieldVisibility(visible);
         }
     }
 
@@ -462,8 +1152,12 @@ public abstract class AbstractColorPickerField<COLOR_PICKER extends AbstractColo
      */
     public void showPopup() {
         showPopup = true;
-        if (isContentInitialized()) {
-            getContent().showPopup();
+        if (isContentInitialized() && getUI() != null) {
+            if (swatchOnly) {
+                openColorPicker();
+            } else if (colorPicker != null) {
+                showPickerPopup();
+            }
         }
     }
 
@@ -472,8 +1166,160 @@ public abstract class AbstractColorPickerField<COLOR_PICKER extends AbstractColo
      */
     public void hidePopup() {
         showPopup = false;
+        if (isContentInitialized() && colorPicker != null) {
+            colorPicker.hidePopup();
+            if (swatchOnly) {
+                releaseColorPicker();
+            } else {
+                unwatchPopup();
+                flushColorChange();
+            }
+        }
+    }
+
+    /**
+     * @return The type of the wrapped color picker
+     */
+    public Class<COLOR_PICKER> getColorPickerType() {
+        return colorPickerType;
+    }
+
+    /**
+     * Gets when picked colors become the value of this field
+     *
+     * @return The color change mode
+     */
+    public ColorChangeMode getColorChangeMode() {
+        return colorChangeMode;
+    }
+
+    /**
+     * Sets when picked colors become the value of this field. The deferred
+     * modes only commit the latest picked color, so value change listeners,
+     * validators and the data source are not called for every step of a
+     * drag in the color picker.
+     *
+     * @param colorChangeMode The color change mode
+     */
+    public void setColorChangeMode(ColorChangeMode colorChangeMode) {
+        if (colorChangeMode == null) {
+            throw new NullPointerException("The color change mode mustn't be null!");
+        }
+        this.colorChangeMode = colorChangeMode;
+        if (colorChangeMode == ColorChangeMode.EAGER) {
+            flushColorChange();
+        }
+    }
+
+    /**
+     * Gets the timeout of the {@link ColorChangeMode#LAZY} mode
+     *
+     * @return The timeout in milliseconds
+     */
+    public int getColorChangeTimeout() {
+        return colorChangeTimeout;
+    }
+
+    /**
+     * Sets the timeout of the {@link ColorChangeMode#LAZY} mode
+     *
+     * @param timeout The timeout in milliseconds
+     */
+    public void setColorChangeTimeout(int timeout) {
+        if (timeout < 0) {
+            throw new IllegalArgumentException("The timeout mustn't be negative");
+        }
+        this.colorChangeTimeout = timeout;
+    }
+
+    /**
+     * @return The number of colors picked in the color picker
+     */
+    public long getColorChangeCount() {
+        return colorChangeCount;
+    }
+
+    /**
+     * @return The number of picked colors that have been replaced by a later
+     * one before they were committed
+     */
+    public long getDroppedColorChangeCount() {
+        return droppedColorChangeCount;
+    }
+
+    /**
+     * @return True if the swatch-only mode is enabled
+     */
+    public boolean isSwatchOnly() {
+        return swatchOnly;
+    }
+
+    /**
+     * Enables the swatch-only mode. The field renders a plain color swatch
+     * and creates the color picker on the first click. The color picker is
+     * released again when its popup gets closed. Has no effect once the
+     * content has been initialized.
+     *
+     * @param swatchOnly True to enable the swatch-only mode
+     */
+    public void setSwatchOnly(boolean swatchOnly) {
+        this.swatchOnly = swatchOnly;
         if (isContentInitialized()) {
-            getContent().hidePopup();
+            Logger.getLogger(AbstractColorPickerField.class.getName()).warning(
+                    "This change of the swatchOnly mode has no effect. "
+                    + "The content has already been initialized.");
+        }
+    }
+
+    /**
+     * @return True if the color picker is released on detach
+     */
+    public boolean isReleaseOnDetach() {
+        return releaseOnDetach;
+    }
+
+    /**
+     * Releases the color picker when the field gets detached, e.g. when it
+     * sits in a hidden tab or a cached window. A new color picker is created
+     * from the properties of this field on the next attach, so only the
+     * field itself is kept in memory. Has no effect once the content has
+     * been initialized.
+     *
+     * @param releaseOnDetach True to release the color picker on detach
+     */
+    public void setReleaseOnDetach(boolean releaseOnDetach) {
+        this.releaseOnDetach = releaseOnDetach;
+        if (isContentInitialized()) {
+            Logger.getLogger(AbstractColorPickerField.class.getName()).warning(
+                    "This change of the releaseOnDetach mode has no effect. "
+                    + "The content has already been initialized.");
+        }
+    }
+
+    /**
+     * Gets the factory that creates the wrapped color picker
+     *
+     * @return The factory
+     */
+    public ColorPickerFactory<? extends COLOR_PICKER> getColorPickerFactory() {
+        return colorPickerFactory;
+    }
+
+    /**
+     * Sets the factory that creates the wrapped color picker. Has no effect
+     * once the content has been initialized.
+     *
+     * @param colorPickerFactory The factory
+     */
+    public void setColorPickerFactory(ColorPickerFactory<? extends COLOR_PICKER> colorPickerFactory) {
+        if (colorPickerFactory == null) {
+            throw new NullPointerException("The picker factory mustn't be null!");
+        }
+        this.colorPickerFactory = colorPickerFactory;
+        if (isContentInitialized()) {
+            Logger.getLogger(AbstractColorPickerField.class.getName()).warning(
+                    "This change of the colorPickerFactory has no effect. "
+                    + "The content has already been initialized.");
         }
     }
 
@@ -491,4 +1337,117 @@ public abstract class AbstractColorPickerField<COLOR_PICKER extends AbstractColo
         }
     }
 
+    /**
+     * Opens the color picker when the swatch gets clicked
+     */
+    private class SwatchClickListener implements LayoutEvents.LayoutClickListener {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public void layoutClick(LayoutEvents.LayoutClickEvent event) {
+            if (colorPicker == null) {
+                showPopup();
+            }
+        }
+
+    }
+
+    /**
+     * Releases the color picker when its popup gets closed
+     */
+    private class PopupCloseListener implements Window.CloseListener {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public void windowClose(Window.CloseEvent e) {
+            e.getWindow().removeCloseListener(this);
+            popup = null;
+            showPopup = false;
+            flushColorChange();
+            if (swatchOnly) {
+                releaseColorPicker();
+            }
+        }
+
+    }
+
+    /**
+     * Polls the client of a {@link UI} while fields wait for the timeout of
+     * the {@link ColorChangeMode#LAZY} mode and commits their colors on the
+     * request thread. Registered as poll listener of the {@link UI} while
+     * any field is waiting. The poll interval of the {@link UI} is restored
+     * afterwards.
+     */
+    private static final class ColorChangePoller implements UIEvents.PollListener {
+
+        private static final long serialVersionUID = 1L;
+
+        private final UI ui;
+
+        private final int previousPollInterval;
+
+        private final Set<AbstractColorPickerField<?>> fields
+                = new LinkedHashSet<AbstractColorPickerField<?>>();
+
+        private ColorChangePoller(UI ui) {
+            this.ui = ui;
+            this.previousPollInterval = ui.getPollInterval();
+        }
+
+        /**
+         * Gets the poller of a {@link UI}, registering a new one if needed
+         *
+         * @param ui The {@link UI}
+         * @return The poller
+         */
+        static ColorChangePoller forUI(UI ui) {
+            for (Object listener : ui.getListeners(UIEvents.PollEvent.class)) {
+                if (listener instanceof ColorChangePoller) {
+                    return (ColorChangePoller) listener;
+                }
+            }
+            ColorChangePoller poller = new ColorChangePoller(ui);
+            ui.addPollListener(poller);
+            return poller;
+        }
+
+        void add(AbstractColorPickerField<?> field) {
+            fields.add(field);
+            updatePollInterval();
+        }
+
+        void remove(AbstractColorPickerField<?> field) {
+            if (fields.remove(field)) {
+                updatePollInterval();
+            }
+        }
+
+        private void updatePollInterval() {
+            if (fields.isEmpty()) {
+                ui.removePollListener(this);
+                ui.setPollInterval(previousPollInterval);
+                return;
+            }
+            int interval = previousPollInterval > 0
+                    ? previousPollInterval : Integer.MAX_VALUE;
+            for (AbstractColorPickerField<?> field : fields) {
+                interval = Math.min(interval, field.getColorChangeTimeout());
+            }
+            ui.setPollInterval(interval);
+        }
+
+        @Override
+        public void poll(UIEvents.PollEvent event) {
+            for (AbstractColorPickerField<?> field
+                    : new ArrayList<AbstractColorPickerField<?>>(fields)) {
+                if (field.isColorChangeQuiet()) {
+                    field.flushColorChange();
+                }
+            }
+        }
+
+    }
+
 }
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield;
+
+import com.vaadin.shared.ui.colorpicker.Color;
+import java.io.Serializable;
+
+/**
+ * An immutable color backed by a single packed ARGB {@code int}
+ * ({@code 0xAARRGGBB}).
+ * <p>
+ * Unlike {@link Color} instances of this class can safely be shared between
+ * threads and used as keys of maps and sets. Instances are obtained with
+ * {@link #valueOf(int)}, which returns interned instances for the 216 web
+ * safe colors and transparent black and keeps recently requested colors in a
+ * small pool, so converting the same colors over and over does not allocate.
+ * Use {@link #equals(java.lang.Object)} to compare colors, not identity.
+ *
+ * @author Max Schuster
+ */
+public final class ArgbColor implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The {@link #POOL} has {@code 2^POOL_BITS} slots
+     */
+    private static final int POOL_BITS = 12;
+
+    /**
+     * Permanently interned colors, the web safe colors by index
+     * {@code r * 36 + g * 6 + b} with channels in steps of {@code 0x33}
+     */
+    private static final ArgbColor[] WEB_SAFE = new ArgbColor[216];
+
+    /**
+     * Direct-mapped pool of recently requested colors. Races are harmless
+     * because instances are immutable and compared by value.
+     */
+    private static final ArgbColor[] POOL = new ArgbColor[1 << POOL_BITS];
+
+    static {
+        for (int i = 0; i < WEB_SAFE.length; i++) {
+            int r = i / 36 * 0x33;
+            int g = i / 6 % 6 * 0x33;
+            int b = i % 6 * 0x33;
+            WEB_SAFE[i] = new ArgbColor(0xFF000000 | r << 16 | g << 8 | b);
+        }
+    }
+
+    /**
+     * Fully transparent black
+     */
+    public static final ArgbColor TRANSPARENT = new ArgbColor(0);
+
+    /**
+     * Opaque white
+     */
+    public static final ArgbColor WHITE = valueOf(0xFFFFFFFF);
+
+    /**
+     * Opaque black
+     */
+    public static final ArgbColor BLACK = valueOf(0xFF000000);
+
+    /**
+     * The packed ARGB color
+     */
+    private final int argb;
+
+    private ArgbColor(int argb) {
+        this.argb = argb;
+    }
+
+    /**
+     * Gets the color for the given packed ARGB value
+     *
+     * @param argb The packed ARGB color ({@code 0xAARRGGBB})
+     * @return The color
+     */
+    public static ArgbColor valueOf(int argb) {
+        if (argb == 0) {
+            return TRANSPARENT;
+        }
+        if ((argb >>> 24) == 0xFF) {
+            int r = argb >> 16 & 0xFF;
+            int g = argb >> 8 & 0xFF;
+            int b = argb & 0xFF;
+            if (r % 0x33 == 0 && g % 0x33 == 0 && b % 0x33 == 0) {
+                return WEB_SAFE[r / 0x33 * 36 + g / 0x33 * 6 + b / 0x33];
+            }
+        }
+        int slot = (argb * 0x9E3779B9) >>> (32 - POOL_BITS);
+        ArgbColor color = POOL[slot];
+        if (color == null || color.argb != argb) {
+            color = new ArgbColor(argb);
+            POOL[slot] = color;
+        }
+        return color;
+    }
+
+    /**
+     * Gets an opaque color
+     *
+     * @param red The red channel between 0 and 255
+     * @param green The green channel between 0 and 255
+     * @param blue The blue channel between 0 and 255
+     * @return The color
+     */
+    public static ArgbColor valueOf(int red, int green, int blue) {
+        return valueOf(red, green, blue, 255);
+    }
+
+    /**
+     * Gets a color
+     *
+     * @param red The red channel between 0 and 255
+     * @param green The green channel between 0 and 255
+     * @param blue The blue channel between 0 and 255
+     * @param alpha The alpha channel between 0 and 255
+     * @return The color
+     */
+    public static ArgbColor valueOf(int red, int green, int blue, int alpha) {
+        if (((red | green | blue | alpha) & ~0xFF) != 0) {
+            throw new IllegalArgumentException("All channels must be between "
+                    + "0 and 255");
+        }
+        return valueOf(alpha << 24 | red << 16 | green << 8 | blue);
+    }
+
+    /**
+     * Gets the immutable equivalent of the given {@link Color}
+     *
+     * @param color The {@link Color} or {@code null}
+     * @return The color or {@code null}
+     */
+    public static ArgbColor valueOf(Color color) {
+        if (color == null) {
+            return null;
+        }
+        return valueOf(color.getRGB());
+    }
+
+    /**
+     * @return The packed ARGB color ({@code 0xAARRGGBB})
+     */
+    public int getArgb() {
+        return argb;
+    }
+
+    /**
+     * @return The red channel between 0 and 255
+     */
+    public int getRed() {
+        return argb >> 16 & 0xFF;
+    }
+
+    /**
+     * @return The green channel between 0 and 255
+     */
+    public int getGreen() {
+        return argb >> 8 & 0xFF;
+    }
+
+    /**
+     * @return The blue channel between 0 and 255
+     */
+    public int getBlue() {
+        return argb & 0xFF;
+    }
+
+    /**
+     * @return The alpha channel between 0 and 255
+     */
+    public int getAlpha() {
+        return argb >>> 24;
+    }
+
+    /**
+     * Creates a new {@link Color} with the same channels. The returned
+     * {@link Color} is mutable and not shared.
+     *
+     * @return A new {@link Color}
+     */
+    public Color toColor() {
+        return new Color(getRed(), getGreen(), getBlue(), getAlpha());
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof ArgbColor && ((ArgbColor) obj).argb == argb;
+    }
+
+    @Override
+    public int hashCode() {
+        return argb;
+    }
+
+    @Override
+    public String toString() {
+        return "ArgbColor[0x" + Integer.toHexString(argb) + "]";
+    }
+
+    private Object readResolve() {
+        return valueOf(argb);
+    }
+
+}
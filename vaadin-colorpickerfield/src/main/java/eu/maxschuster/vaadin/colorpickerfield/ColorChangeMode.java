@@ -0,0 +1,46 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield;
+
+/**
+ * Defines when a color picked in the color picker becomes the value of an
+ * {@link AbstractColorPickerField}. Deferred modes only commit the latest
+ * color, intermediate colors are dropped.
+ *
+ * @author Max Schuster
+ * @see AbstractColorPickerField#setColorChangeMode(ColorChangeMode)
+ */
+public enum ColorChangeMode {
+
+    /**
+     * Every picked color is committed immediately
+     */
+    EAGER,
+
+    /**
+     * A picked color is committed once no other color has been picked for
+     * the color change timeout, at the latest when the popup gets closed.
+     * The commit runs on the request thread, the client is polled while a
+     * color is pending. Works with and without server push.
+     */
+    LAZY,
+
+    /**
+     * The last picked color is committed when the popup gets closed
+     */
+    ON_POPUP_CLOSE
+
+}
@@ -58,7 +58,8 @@ public class ColorPickerAreaField extends AbstractColorPickerField<ColorPickerAr
      * @param initialColor Initial {@link Color}
      */
     public ColorPickerAreaField(String popupCaption, Color initialColor) {
-        super(ColorPickerArea.class, popupCaption, initialColor);
+        super(ColorPickerArea.class, ColorPickerFactories.COLOR_PICKER_AREA,
+                popupCaption, initialColor);
         setPrimaryStyleName(STYLE_NAME);
     }
 
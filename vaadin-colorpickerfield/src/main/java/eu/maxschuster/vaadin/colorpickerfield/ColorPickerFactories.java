@@ -0,0 +1,157 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield;
+
+import com.vaadin.ui.AbstractColorPicker;
+import com.vaadin.ui.ColorPicker;
+import com.vaadin.ui.ColorPickerArea;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Built-in {@link ColorPickerFactory}s
+ *
+ * @author Max Schuster
+ */
+public final class ColorPickerFactories {
+
+    /**
+     * Creates {@link ColorPicker}s without reflection
+     */
+    public static final ColorPickerFactory<ColorPicker> COLOR_PICKER
+            = new ColorPickerConstructor();
+
+    /**
+     * Creates {@link ColorPickerArea}s without reflection
+     */
+    public static final ColorPickerFactory<ColorPickerArea> COLOR_PICKER_AREA
+            = new ColorPickerAreaConstructor();
+
+    /**
+     * The {@code (String)} constructor of every picker type, looked up once
+     * per class
+     */
+    private static final ClassValue<Constructor<?>> CONSTRUCTORS
+            = new ClassValue<Constructor<?>>() {
+
+        @Override
+        protected Constructor<?> computeValue(Class<?> type) {
+            try {
+                return type.getDeclaredConstructor(String.class);
+            } catch (NoSuchMethodException ex) {
+                throw new IllegalArgumentException("The picker type " + type.getName()
+                        + " has no constructor with a popup caption parameter", ex);
+            }
+        }
+
+    };
+
+    private ColorPickerFactories() {
+    }
+
+    /**
+     * Gets a factory for the given picker type. The built-in picker types
+     * are created directly, other types through their
+     * {@code (String popupCaption)} constructor, which is looked up only once
+     * per class.
+     *
+     * @param <COLOR_PICKER> Color picker type to create
+     * @param pickerType The picker type
+     * @return A factory for the picker type
+     */
+    @SuppressWarnings("unchecked")
+    public static <COLOR_PICKER extends AbstractColorPicker> ColorPickerFactory<COLOR_PICKER>
+            forType(Class<COLOR_PICKER> pickerType) {
+        if (pickerType == null) {
+            throw new NullPointerException("The picker type mustn't be null!");
+        } else if (pickerType == ColorPicker.class) {
+            return (ColorPickerFactory<COLOR_PICKER>) COLOR_PICKER;
+        } else if (pickerType == ColorPickerArea.class) {
+            return (ColorPickerFactory<COLOR_PICKER>) COLOR_PICKER_AREA;
+        }
+        // fail fast if the constructor is missing
+        CONSTRUCTORS.get(pickerType);
+        return new ReflectiveFactory<COLOR_PICKER>(pickerType);
+    }
+
+    private static final class ColorPickerConstructor
+            implements ColorPickerFactory<ColorPicker> {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public ColorPicker createColorPicker(String popupCaption) {
+            return new ColorPicker(popupCaption);
+        }
+
+        private Object readResolve() {
+            return COLOR_PICKER;
+        }
+
+    }
+
+    private static final class ColorPickerAreaConstructor
+            implements ColorPickerFactory<ColorPickerArea> {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public ColorPickerArea createColorPicker(String popupCaption) {
+            return new ColorPickerArea(popupCaption);
+        }
+
+        private Object readResolve() {
+            return COLOR_PICKER_AREA;
+        }
+
+    }
+
+    /**
+     * Calls the cached constructor of a custom picker type. Only the type
+     * is serialized, the constructor is looked up again afterwards.
+     */
+    private static final class ReflectiveFactory<COLOR_PICKER extends AbstractColorPicker>
+            implements ColorPickerFactory<COLOR_PICKER> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Class<COLOR_PICKER> pickerType;
+
+        ReflectiveFactory(Class<COLOR_PICKER> pickerType) {
+            this.pickerType = pickerType;
+        }
+
+        @Override
+        public COLOR_PICKER createColorPicker(String popupCaption) {
+            try {
+                return pickerType.cast(CONSTRUCTORS.get(pickerType).newInstance(popupCaption));
+            } catch (InvocationTargetException ex) {
+                Throwable cause = ex.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                } else if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new RuntimeException(cause);
+            } catch (ReflectiveOperationException ex) {
+                // passthru all other reflection exceptions because they should never happen
+                throw new RuntimeException(ex);
+            }
+        }
+
+    }
+
+}
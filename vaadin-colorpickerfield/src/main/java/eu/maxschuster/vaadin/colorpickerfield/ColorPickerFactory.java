@@ -0,0 +1,40 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield;
+
+import com.vaadin.ui.AbstractColorPicker;
+import java.io.Serializable;
+
+/**
+ * Creates the {@link AbstractColorPicker} wrapped by an
+ * {@link AbstractColorPickerField}. See {@link ColorPickerFactories} for the
+ * built-in implementations.
+ *
+ * @author Max Schuster
+ * @param <COLOR_PICKER> Color picker type to create
+ */
+public interface ColorPickerFactory<COLOR_PICKER extends AbstractColorPicker>
+        extends Serializable {
+
+    /**
+     * Creates a new color picker
+     *
+     * @param popupCaption The caption of the popup window
+     * @return A new color picker
+     */
+    COLOR_PICKER createColorPicker(String popupCaption);
+
+}
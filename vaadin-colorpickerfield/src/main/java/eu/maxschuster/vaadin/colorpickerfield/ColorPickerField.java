@@ -51,7 +51,8 @@ public class ColorPickerField extends AbstractColorPickerField<ColorPicker> {
      * @param initialColor Initial {@link Color}
      */
     public ColorPickerField(String popupCaption, Color initialColor) {
-        super(ColorPicker.class, popupCaption, initialColor);
+        super(ColorPicker.class, ColorPickerFactories.COLOR_PICKER,
+                popupCaption, initialColor);
         setPrimaryStyleName(STYLE_NAME);
     }
 
@@ -0,0 +1,245 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield;
+
+import com.vaadin.ui.AbstractColorPicker;
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * An immutable set of color picker options that can be applied to many
+ * {@link AbstractColorPickerField}s. Every {@code with...} method returns a
+ * modified copy.
+ *
+ * <pre>
+ * ColorPickerFieldConfiguration compact = ColorPickerFieldConfiguration.DEFAULT
+ *         .withPopupStyle(AbstractColorPicker.PopupStyle.POPUP_SIMPLE)
+ *         .withHistoryVisibility(false);
+ * compact.applyTo(fields);
+ * </pre>
+ *
+ * @author Max Schuster
+ */
+public final class ColorPickerFieldConfiguration implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The defaults of a new {@link AbstractColorPickerField}
+     */
+    public static final ColorPickerFieldConfiguration DEFAULT
+            = new ColorPickerFieldConfiguration(AbstractColorPicker.PopupStyle.POPUP_NORMAL,
+                    0, 0, false, true, true, true, true, true);
+
+    private final AbstractColorPicker.PopupStyle popupStyle;
+    private final int positionX;
+    private final int positionY;
+    private final boolean defaultCaptionEnabled;
+    private final boolean rgbVisibility;
+    private final boolean hsvVisibility;
+    private final boolean swatchesVisibility;
+    private final boolean historyVisibility;
+    private final boolean textfieldVisibility;
+
+    private ColorPickerFieldConfiguration(AbstractColorPicker.PopupStyle popupStyle,
+            int positionX, int positionY, boolean defaultCaptionEnabled,
+            boolean rgbVisibility, boolean hsvVisibility, boolean swatchesVisibility,
+            boolean historyVisibility, boolean textfieldVisibility) {
+        this.popupStyle = popupStyle;
+        this.positionX = positionX;
+        this.positionY = positionY;
+        this.defaultCaptionEnabled = defaultCaptionEnabled;
+        this.rgbVisibility = rgbVisibility;
+        this.hsvVisibility = hsvVisibility;
+        this.swatchesVisibility = swatchesVisibility;
+        this.historyVisibility = historyVisibility;
+        this.textfieldVisibility = textfieldVisibility;
+    }
+
+    /**
+     * Applies this configuration to every field, each in a single update
+     *
+     * @param fields The fields
+     */
+    public void applyTo(Iterable<? extends AbstractColorPickerField<?>> fields) {
+        for (AbstractColorPickerField<?> field : fields) {
+            field.configure(this);
+        }
+    }
+
+    /**
+     * Applies this configuration to every field, each in a single update
+     *
+     * @param fields The fields
+     */
+    public void applyTo(AbstractColorPickerField<?>... fields) {
+        applyTo(Arrays.asList(fields));
+    }
+
+    /**
+     * @return The style for the popup window
+     */
+    public AbstractColorPicker.PopupStyle getPopupStyle() {
+        return popupStyle;
+    }
+
+    /**
+     * @param popupStyle The style for the popup window
+     * @return A modified copy
+     */
+    public ColorPickerFieldConfiguration withPopupStyle(AbstractColorPicker.PopupStyle popupStyle) {
+        if (popupStyle == null) {
+            throw new NullPointerException("The popup style mustn't be null!");
+        }
+        return new ColorPickerFieldConfiguration(popupStyle, positionX, positionY,
+                defaultCaptionEnabled, rgbVisibility, hsvVisibility, swatchesVisibility,
+                historyVisibility, textfieldVisibility);
+    }
+
+    /**
+     * @return The x-coordinate of the popup window
+     */
+    public int getPositionX() {
+        return positionX;
+    }
+
+    /**
+     * @return The y-coordinate of the popup window
+     */
+    public int getPositionY() {
+        return positionY;
+    }
+
+    /**
+     * @param x The x-coordinate of the popup window
+     * @param y The y-coordinate of the popup window
+     * @return A modified copy
+     */
+    public ColorPickerFieldConfiguration withPosition(int x, int y) {
+        return new ColorPickerFieldConfiguration(popupStyle, x, y,
+                defaultCaptionEnabled, rgbVisibility, hsvVisibility, swatchesVisibility,
+                historyVisibility, textfieldVisibility);
+    }
+
+    /**
+     * @return True if the default caption is enabled
+     */
+    public boolean isDefaultCaptionEnabled() {
+        return defaultCaptionEnabled;
+    }
+
+    /**
+     * @param enabled Default caption enabled
+     * @return A modified copy
+     */
+    public ColorPickerFieldConfiguration withDefaultCaptionEnabled(boolean enabled) {
+        return new ColorPickerFieldConfiguration(popupStyle, positionX, positionY,
+                enabled, rgbVisibility, hsvVisibility, swatchesVisibility,
+                historyVisibility, textfieldVisibility);
+    }
+
+    /**
+     * @return The visibility of the RGB Tab
+     */
+    public boolean isRGBVisibility() {
+        return rgbVisibility;
+    }
+
+    /**
+     * @param visible The visibility of the RGB Tab
+     * @return A modified copy
+     * @throws IllegalArgumentException If all tabs would be hidden
+     */
+    public ColorPickerFieldConfiguration withRGBVisibility(boolean visible) {
+        AbstractColorPickerField.checkTabVisibility(visible, hsvVisibility, swatchesVisibility);
+        return new ColorPickerFieldConfiguration(popupStyle, positionX, positionY,
+                defaultCaptionEnabled, visible, hsvVisibility, swatchesVisibility,
+                historyVisibility, textfieldVisibility);
+    }
+
+    /**
+     * @return The visibility of the HSV Tab
+     */
+    public boolean isHSVVisibility() {
+        return hsvVisibility;
+    }
+
+    /**
+     * @param visible The visibility of the HSV Tab
+     * @return A modified copy
+     * @throws IllegalArgumentException If all tabs would be hidden
+     */
+    public ColorPickerFieldConfiguration withHSVVisibility(boolean visible) {
+        AbstractColorPickerField.checkTabVisibility(rgbVisibility, visible, swatchesVisibility);
+        return new ColorPickerFieldConfiguration(popupStyle, positionX, positionY,
+                defaultCaptionEnabled, rgbVisibility, visible, swatchesVisibility,
+                historyVisibility, textfieldVisibility);
+    }
+
+    /**
+     * @return The visibility of the Swatches Tab
+     */
+    public boolean isSwatchesVisibility() {
+        return swatchesVisibility;
+    }
+
+    /**
+     * @param visible The visibility of the Swatches Tab
+     * @return A modified copy
+     * @throws IllegalArgumentException If all tabs would be hidden
+     */
+    public ColorPickerFieldConfiguration withSwatchesVisibility(boolean visible) {
+        AbstractColorPickerField.checkTabVisibility(rgbVisibility, hsvVisibility, visible);
+        return new ColorPickerFieldConfiguration(popupStyle, positionX, positionY,
+                defaultCaptionEnabled, rgbVisibility, hsvVisibility, visible,
+                historyVisibility, textfieldVisibility);
+    }
+
+    /**
+     * @return The visibility of the Color History
+     */
+    public boolean isHistoryVisibility() {
+        return historyVisibility;
+    }
+
+    /**
+     * @param visible The visibility of the Color History
+     * @return A modified copy
+     */
+    public ColorPickerFieldConfiguration withHistoryVisibility(boolean visible) {
+        return new ColorPickerFieldConfiguration(popupStyle, positionX, positionY,
+                defaultCaptionEnabled, rgbVisibility, hsvVisibility, swatchesVisibility,
+                visible, textfieldVisibility);
+    }
+
+    /**
+     * @return The visibility of the CSS color code text field
+     */
+    public boolean isTextfieldVisibility() {
+        return textfieldVisibility;
+    }
+
+    /**
+     * @param visible The visibility of the CSS color code text field
+     * @return A modified copy
+     */
+    public ColorPickerFieldConfiguration withTextfieldVisibility(boolean visible) {
+        return new ColorPickerFieldConfiguration(popupStyle, positionX, positionY,
+                defaultCaptionEnabled, rgbVisibility, hsvVisibility, swatchesVisibility,
+                historyVisibility, visible);
+    }
+
+}
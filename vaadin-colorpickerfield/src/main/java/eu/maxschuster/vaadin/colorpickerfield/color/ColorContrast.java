@@ -0,0 +1,129 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.color;
+
+/**
+ * Relative luminance and contrast ratio of packed ARGB colors
+ * ({@code 0xAARRGGBB}) as defined by the Web Content Accessibility
+ * Guidelines (WCAG) 2.
+ * <p>
+ * The luminance of a color is the sum of three lookups in tables that hold
+ * the linearized and weighted value of every channel byte, so computing a
+ * contrast ratio needs neither {@link Math#pow(double, double)} nor any
+ * allocation.
+ *
+ * @author Max Schuster
+ */
+public final class ColorContrast {
+
+    /**
+     * Minimum contrast ratio of normal text, WCAG level AA
+     */
+    public static final double AA_NORMAL_TEXT = 4.5;
+
+    /**
+     * Minimum contrast ratio of large text and user interface components,
+     * WCAG level AA
+     */
+    public static final double AA_LARGE_TEXT = 3;
+
+    /**
+     * Minimum contrast ratio of normal text, WCAG level AAA
+     */
+    public static final double AAA_NORMAL_TEXT = 7;
+
+    /**
+     * Minimum contrast ratio of large text, WCAG level AAA
+     */
+    public static final double AAA_LARGE_TEXT = 4.5;
+
+    /**
+     * The weighted linear light value of every channel byte
+     */
+    private static final double[] RED = new double[256];
+    private static final double[] GREEN = new double[256];
+    private static final double[] BLUE = new double[256];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            double linear = ColorSpaces.toLinear(i);
+            RED[i] = 0.2126 * linear;
+            GREEN[i] = 0.7152 * linear;
+            BLUE[i] = 0.0722 * linear;
+        }
+    }
+
+    private ColorContrast() {
+    }
+
+    /**
+     * Gets the relative luminance of a color. The alpha channel is ignored.
+     *
+     * @param argb The packed ARGB color
+     * @return The relative luminance between 0 (black) and 1 (white)
+     */
+    public static double relativeLuminance(int argb) {
+        return RED[argb >> 16 & 0xFF] + GREEN[argb >> 8 & 0xFF] + BLUE[argb & 0xFF];
+    }
+
+    /**
+     * Gets the contrast ratio of a foreground color on a background color.
+     * A translucent foreground is blended over the background first, the
+     * alpha channel of the background is ignored.
+     *
+     * @param foreground The packed ARGB foreground color
+     * @param background The packed ARGB background color
+     * @return The contrast ratio between 1 and 21
+     */
+    public static double contrastRatio(int foreground, int background) {
+        double l1 = relativeLuminance(blend(foreground, background));
+        double l2 = relativeLuminance(background);
+        return l1 > l2 ? (l1 + 0.05) / (l2 + 0.05) : (l2 + 0.05) / (l1 + 0.05);
+    }
+
+    /**
+     * Checks if a foreground color has enough contrast on a background
+     * color
+     *
+     * @param foreground The packed ARGB foreground color
+     * @param background The packed ARGB background color
+     * @param minimumRatio The minimum contrast ratio, e.g.
+     * {@link #AA_NORMAL_TEXT}
+     * @return {@code true} if the contrast ratio is at least the minimum
+     */
+    public static boolean hasContrast(int foreground, int background, double minimumRatio) {
+        return contrastRatio(foreground, background) >= minimumRatio;
+    }
+
+    /**
+     * Blends a color over an opaque background in sRGB space like a browser
+     */
+    private static int blend(int foreground, int background) {
+        int alpha = foreground >>> 24;
+        if (alpha == 0xFF) {
+            return foreground;
+        }
+        int r = blendChannel(foreground >> 16 & 0xFF, background >> 16 & 0xFF, alpha);
+        int g = blendChannel(foreground >> 8 & 0xFF, background >> 8 & 0xFF, alpha);
+        int b = blendChannel(foreground & 0xFF, background & 0xFF, alpha);
+        return 0xFF000000 | r << 16 | g << 8 | b;
+    }
+
+    private static int blendChannel(int foreground, int background, int alpha) {
+        return (foreground * alpha + background * (255 - alpha) + 127) / 255;
+    }
+
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.color;
+
+import java.io.Serializable;
+
+/**
+ * A {@link ColorTransform} baked into a three-dimensional lookup table.
+ * <p>
+ * The source transform is evaluated once for every point of a
+ * {@code size * size * size} grid over the RGB cube. Other colors are
+ * trilinearly interpolated between the eight surrounding grid points with
+ * exact integer weights, so applying the table costs eight reads and a few
+ * multiplications regardless of the source transform. Grid colors are
+ * reproduced exactly if {@code size - 1} divides 255 (e.g. 18, 52 or 86),
+ * other sizes round the grid to the nearest channel bytes.
+ * <p>
+ * Only the RGB channels are transformed. The alpha channel of a color is
+ * kept, the source transform is called with opaque colors. Instances are
+ * immutable and can safely be shared between threads and fields.
+ *
+ * @author Max Schuster
+ */
+public final class ColorLut implements ColorTransform, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Default number of grid points per axis
+     */
+    public static final int DEFAULT_SIZE = 33;
+
+    /**
+     * Denominator of two interpolation weights
+     */
+    private static final int WEIGHT_SQUARE = 255 * 255;
+
+    /**
+     * Number of grid points per axis
+     */
+    private final int size;
+
+    /**
+     * The transformed RGB colors ({@code 0xRRGGBB}) of the grid, blue
+     * varies fastest
+     */
+    private final int[] table;
+
+    /**
+     * Bakes a transform into a table with {@link #DEFAULT_SIZE} grid points
+     * per axis
+     *
+     * @param transform The transform
+     */
+    public ColorLut(ColorTransform transform) {
+        this(transform, DEFAULT_SIZE);
+    }
+
+    /**
+     * Bakes a transform into a table
+     *
+     * @param transform The transform
+     * @param size The number of grid points per axis between 2 and 256
+     */
+    public ColorLut(ColorTransform transform, int size) {
+        if (transform == null) {
+            throw new NullPointerException("The transform mustn't be null!");
+        }
+        if (size < 2 || size > 256) {
+            throw new IllegalArgumentException("The size must be between 2 and 256");
+        }
+        this.size = size;
+        this.table = new int[size * size * size];
+        int[] channels = new int[size];
+        for (int i = 0; i < size; i++) {
+            channels[i] = (i * 255 + (size - 1) / 2) / (size - 1);
+        }
+        int index = 0;
+        for (int r = 0; r < size; r++) {
+            for (int g = 0; g < size; g++) {
+                for (int b = 0; b < size; b++) {
+                    table[index++] = transform.transform(0xFF000000
+                            | channels[r] << 16 | channels[g] << 8 | channels[b]) & 0xFFFFFF;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The number of grid points per axis
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Applies the table to a color
+     *
+     * @param argb The packed ARGB color
+     * @return The transformed packed ARGB color with the alpha channel of
+     * the given color
+     */
+    @Override
+    public int transform(int argb) {
+        final int last = size - 1;
+        // grid position in units of 1/255 cell, the last cell includes 255
+        int r = (argb >> 16 & 0xFF) * last;
+        int g = (argb >> 8 & 0xFF) * last;
+        int b = (argb & 0xFF) * last;
+        int ri = Math.min(r / 255, last - 1);
+        int gi = Math.min(g / 255, last - 1);
+        int bi = Math.min(b / 255, last - 1);
+        int fr = r - ri * 255;
+        int fg = g - gi * 255;
+        int fb = b - bi * 255;
+
+        final int[] t = table;
+        final int rStep = size * size;
+        int i = (ri * size + gi) * size + bi;
+        int c000 = t[i];
+        int c001 = t[i + 1];
+        int c010 = t[i + size];
+        int c011 = t[i + size + 1];
+        i += rStep;
+        int c100 = t[i];
+        int c101 = t[i + 1];
+        int c110 = t[i + size];
+        int c111 = t[i + size + 1];
+
+        return argb & 0xFF000000
+                | interpolate(16, c000, c001, c010, c011, c100, c101, c110, c111, fr, fg, fb) << 16
+                | interpolate(8, c000, c001, c010, c011, c100, c101, c110, c111, fr, fg, fb) << 8
+                | interpolate(0, c000, c001, c010, c011, c100, c101, c110, c111, fr, fg, fb);
+    }
+
+    /**
+     * Applies the table to every color of an array in place
+     *
+     * @param argb The packed ARGB colors
+     */
+    public void transform(int[] argb) {
+        transform(argb, argb);
+    }
+
+    /**
+     * Applies the table to every color of an array
+     *
+     * @param source The packed ARGB colors
+     * @param target Receives the transformed colors, may be the source
+     */
+    public void transform(int[] source, int[] target) {
+        if (target.length < source.length) {
+            throw new IllegalArgumentException("The target must have at least "
+                    + source.length + " entries");
+        }
+        for (int i = 0; i < source.length; i++) {
+            target[i] = transform(source[i]);
+        }
+    }
+
+    /**
+     * Interpolates a channel, blue first, then green and red. Each weight is
+     * a multiple of 1/255, only integer divisions by constants are used.
+     */
+    private static int interpolate(int shift, int c000, int c001, int c010, int c011,
+            int c100, int c101, int c110, int c111, int fr, int fg, int fb) {
+        int wb = 255 - fb;
+        int wg = 255 - fg;
+        int x00 = (c000 >> shift & 0xFF) * wb + (c001 >> shift & 0xFF) * fb;
+        int x01 = (c010 >> shift & 0xFF) * wb + (c011 >> shift & 0xFF) * fb;
+        int x10 = (c100 >> shift & 0xFF) * wb + (c101 >> shift & 0xFF) * fb;
+        int x11 = (c110 >> shift & 0xFF) * wb + (c111 >> shift & 0xFF) * fb;
+        // drop one factor of 255 so the last step fits into an int
+        int y0 = (x00 * wg + x01 * fg + 127) / 255;
+        int y1 = (x10 * wg + x11 * fg + 127) / 255;
+        return (y0 * (255 - fr) + y1 * fr + WEIGHT_SQUARE / 2) / WEIGHT_SQUARE;
+    }
+
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.color;
+
+import java.io.Serializable;
+import java.util.Collection;
+
+/**
+ * An immutable set of packed ARGB colors ({@code 0xAARRGGBB}) that answers
+ * nearest color queries.
+ * <p>
+ * The colors are indexed by a balanced k-d tree over their OKLab
+ * coordinates, so {@link #nearest(int)} finds the perceptually closest
+ * color in logarithmic time on average instead of comparing against every
+ * color. The alpha channel is not part of the distance, the nearest color is
+ * returned with its own alpha channel. Instances can safely be shared
+ * between threads and fields.
+ *
+ * @author Max Schuster
+ */
+public final class ColorPalette implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The colors in tree order. The root of the subtree of the index range
+     * {@code [from, to)} is the color at {@code (from + to) / 2}.
+     */
+    private final int[] colors;
+
+    /**
+     * The OKLab coordinates of the {@link #colors}, three per color
+     */
+    private final double[] coordinates;
+
+    /**
+     * The split axis of every node, {@code 0} (L), {@code 1} (a) or
+     * {@code 2} (b)
+     */
+    private final byte[] axes;
+
+    /**
+     * Creates a new palette
+     *
+     * @param colors The packed ARGB colors, the array is copied. Must not be
+     * empty.
+     */
+    public ColorPalette(int[] colors) {
+        final int size = colors.length;
+        if (size == 0) {
+            throw new IllegalArgumentException("The palette mustn't be empty");
+        }
+        double[] points = new double[size * 3];
+        double[] oklab = new double[3];
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            ColorSpaces.argbToOklab(colors[i], oklab);
+            System.arraycopy(oklab, 0, points, i * 3, 3);
+            order[i] = i;
+        }
+        this.axes = new byte[size];
+        build(points, order, 0, size);
+        this.colors = new int[size];
+        this.coordinates = new double[size * 3];
+        for (int i = 0; i < size; i++) {
+            this.colors[i] = colors[order[i]];
+            System.arraycopy(points, order[i] * 3, coordinates, i * 3, 3);
+        }
+    }
+
+    /**
+     * Creates a new palette
+     *
+     * @param colors The packed ARGB colors. Must not be empty.
+     * @return The palette
+     */
+    public static ColorPalette of(int... colors) {
+        return new ColorPalette(colors);
+    }
+
+    /**
+     * Creates a new palette
+     *
+     * @param colors The packed ARGB colors. Must not be empty.
+     * @return The palette
+     */
+    public static ColorPalette of(Collection<Integer> colors) {
+        int[] array = new int[colors.size()];
+        int i = 0;
+        for (Integer color : colors) {
+            array[i++] = color;
+        }
+        return new ColorPalette(array);
+    }
+
+    /**
+     * @return The number of colors
+     */
+    public int size() {
+        return colors.length;
+    }
+
+    /**
+     * @return A copy of the packed ARGB colors in no particular order
+     */
+    public int[] toArray() {
+        return colors.clone();
+    }
+
+    /**
+     * Finds the perceptually nearest color of this palette
+     *
+     * @param argb The packed ARGB color
+     * @return The packed ARGB color of the nearest palette color, the color
+     * itself if it is part of the palette
+     */
+    public int nearest(int argb) {
+        double[] oklab = new double[3];
+        ColorSpaces.argbToOklab(argb, oklab);
+        Query query = new Query(oklab);
+        search(query, 0, colors.length);
+        return colors[query.nearest];
+    }
+
+    /**
+     * Sorts the index range into a subtree. The median along the axis of the
+     * largest spread becomes the root.
+     */
+    private void build(double[] points, int[] order, int from, int to) {
+        while (to - from > 1) {
+            int axis = widestAxis(points, order, from, to);
+            int middle = (from + to) >>> 1;
+            select(points, order, from, to - 1, middle, axis);
+            axes[middle] = (byte) axis;
+            build(points, order, from, middle);
+            from = middle + 1;
+        }
+    }
+
+    private static int widestAxis(double[] points, int[] order, int from, int to) {
+        int widest = 0;
+        double widestSpread = -1;
+        for (int axis = 0; axis < 3; axis++) {
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (int i = from; i < to; i++) {
+                double value = points[order[i] * 3 + axis];
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+            if (max - min > widestSpread) {
+                widest = axis;
+                widestSpread = max - min;
+            }
+        }
+        return widest;
+    }
+
+    /**
+     * Moves the k-th smallest element along the axis to index {@code k}
+     * with all smaller elements before and all larger elements after it
+     */
+    private static void select(double[] points, int[] order, int left, int right, int k, int axis) {
+        while (left < right) {
+            double pivot = points[order[(left + right) >>> 1] * 3 + axis];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (points[order[i] * 3 + axis] < pivot) {
+                    i++;
+                }
+                while (points[order[j] * 3 + axis] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    int swap = order[i];
+                    order[i] = order[j];
+                    order[j] = swap;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void search(Query query, int from, int to) {
+        while (from < to) {
+            int node = (from + to) >>> 1;
+            int offset = node * 3;
+            double dl = coordinates[offset] - query.l;
+            double da = coordinates[offset + 1] - query.a;
+            double db = coordinates[offset + 2] - query.b;
+            double distance = dl * dl + da * da + db * db;
+            if (distance < query.distance) {
+                query.distance = distance;
+                query.nearest = node;
+            }
+            int axis = axes[node];
+            double delta = axis == 0 ? -dl : axis == 1 ? -da : -db;
+            // visit the side of the query first, the other side only if the
+            // split plane is closer than the nearest color found so far
+            if (delta < 0) {
+                search(query, from, node);
+                if (delta * delta >= query.distance) {
+                    return;
+                }
+                from = node + 1;
+            } else {
+                search(query, node + 1, to);
+                if (delta * delta >= query.distance) {
+                    return;
+                }
+                to = node;
+            }
+        }
+    }
+
+    /**
+     * The state of a nearest color search
+     */
+    private static final class Query {
+
+        final double l;
+
+        final double a;
+
+        final double b;
+
+        double distance = Double.POSITIVE_INFINITY;
+
+        int nearest;
+
+        Query(double[] oklab) {
+            this.l = oklab[0];
+            this.a = oklab[1];
+            this.b = oklab[2];
+        }
+
+    }
+
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.color;
+
+import java.io.Serializable;
+
+/**
+ * A set of opaque RGB colors backed by a bitmap with one bit for each of
+ * the {@code 2^24} colors of the RGB cube.
+ * <p>
+ * The bitmap is split into 256 blocks of 8 KB, one for every value of the
+ * red channel, that are only allocated once a color of the block is added.
+ * A full set takes 2 MB, sparse sets a fraction of it. Membership checks
+ * work on packed ARGB {@code int}s, take constant time and never allocate.
+ * The alpha channel is ignored.
+ * <p>
+ * Like {@link java.util.BitSet} this class is not synchronized. A set that
+ * is no longer modified after it has been safely published can be read by
+ * any number of threads.
+ *
+ * @author Max Schuster
+ */
+public class ColorSet implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Number of {@code long} words of a block
+     */
+    private static final int BLOCK_WORDS = (1 << 16) / 64;
+
+    /**
+     * The blocks by red channel, {@code null} if empty
+     */
+    private final long[][] blocks = new long[256][];
+
+    /**
+     * Number of colors in this set
+     */
+    private int size;
+
+    /**
+     * Creates an empty set
+     */
+    public ColorSet() {
+    }
+
+    /**
+     * Creates a set of the given colors
+     *
+     * @param colors The packed ARGB colors
+     */
+    public ColorSet(int... colors) {
+        addAll(colors);
+    }
+
+    /**
+     * Creates a set of the colors of the given palette
+     *
+     * @param palette The palette
+     */
+    public ColorSet(ColorPalette palette) {
+        addAll(palette.toArray());
+    }
+
+    /**
+     * Checks if the given color is part of this set
+     *
+     * @param argb The packed ARGB color, the alpha channel is ignored
+     * @return {@code true} if the set contains the color
+     */
+    public boolean contains(int argb) {
+        long[] block = blocks[argb >> 16 & 0xFF];
+        return block != null && (block[(argb & 0xFFFF) >>> 6] & 1L << argb) != 0;
+    }
+
+    /**
+     * Adds the given color
+     *
+     * @param argb The packed ARGB color, the alpha channel is ignored
+     * @return {@code true} if the set did not already contain the color
+     */
+    public boolean add(int argb) {
+        int red = argb >> 16 & 0xFF;
+        long[] block = blocks[red];
+        if (block == null) {
+            block = new long[BLOCK_WORDS];
+            blocks[red] = block;
+        }
+        int word = (argb & 0xFFFF) >>> 6;
+        long bit = 1L << argb;
+        if ((block[word] & bit) != 0) {
+            return false;
+        }
+        block[word] |= bit;
+        size++;
+        return true;
+    }
+
+    /**
+     * Adds all of the given colors
+     *
+     * @param colors The packed ARGB colors
+     */
+    public void addAll(int... colors) {
+        for (int argb : colors) {
+            add(argb);
+        }
+    }
+
+    /**
+     * Removes the given color
+     *
+     * @param argb The packed ARGB color, the alpha channel is ignored
+     * @return {@code true} if the set contained the color
+     */
+    public boolean remove(int argb) {
+        int red = argb >> 16 & 0xFF;
+        long[] block = blocks[red];
+        if (block == null) {
+            return false;
+        }
+        int word = (argb & 0xFFFF) >>> 6;
+        long bit = 1L << argb;
+        if ((block[word] & bit) == 0) {
+            return false;
+        }
+        block[word] &= ~bit;
+        size--;
+        return true;
+    }
+
+    /**
+     * Removes all colors and releases the blocks
+     */
+    public void clear() {
+        for (int i = 0; i < blocks.length; i++) {
+            blocks[i] = null;
+        }
+        size = 0;
+    }
+
+    /**
+     * @return The number of colors in this set
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return {@code true} if this set contains no colors
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Gets all colors of this set in ascending order
+     *
+     * @return The opaque packed ARGB colors
+     */
+    public int[] toArray() {
+        int[] colors = new int[size];
+        int count = 0;
+        for (int red = 0; red < blocks.length; red++) {
+            long[] block = blocks[red];
+            if (block == null) {
+                continue;
+            }
+            for (int word = 0; word < BLOCK_WORDS; word++) {
+                long bits = block[word];
+                while (bits != 0) {
+                    int bit = Long.numberOfTrailingZeros(bits);
+                    colors[count++] = 0xFF000000 | red << 16 | word << 6 | bit;
+                    bits &= bits - 1;
+                }
+            }
+        }
+        return colors;
+    }
+
+}
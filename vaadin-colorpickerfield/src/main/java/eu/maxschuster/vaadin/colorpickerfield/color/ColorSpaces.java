@@ -0,0 +1,581 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.color;
+
+/**
+ * Conversions between packed ARGB sRGB colors ({@code 0xAARRGGBB}) and the
+ * color spaces of CSS Color Module Level 4.
+ * <p>
+ * The conversions avoid {@link Math#pow(double, double)},
+ * {@link Math#cbrt(double)} and the trigonometric functions on the hot path.
+ * The sRGB transfer function is table-driven in both directions, cube roots
+ * are computed by Newton iteration and sine and cosine are interpolated
+ * from a table. Colors outside of the sRGB gamut are clipped.
+ *
+ * @author Max Schuster
+ */
+public final class ColorSpaces {
+
+    /**
+     * The linear light value of every sRGB channel byte
+     */
+    private static final double[] LINEAR = new double[256];
+
+    /**
+     * The linear light value halfway between two successive sRGB channel
+     * bytes, {@code LINEAR_MIDPOINTS[i]} lies between byte {@code i} and
+     * {@code i + 1}
+     */
+    private static final double[] LINEAR_MIDPOINTS = new double[255];
+
+    /**
+     * Number of {@link #SINE} intervals per turn, must be a power of two
+     */
+    private static final int SINE_STEPS = 4096;
+
+    /**
+     * The sine of every step of a turn plus one for interpolation
+     */
+    private static final double[] SINE = new double[SINE_STEPS + 1];
+
+    /**
+     * CIE Lab constants
+     */
+    private static final double KAPPA = 24389d / 27d;
+    private static final double EPSILON = 216d / 24389d;
+
+    /**
+     * D50 white point
+     */
+    private static final double D50_X = 0.3457 / 0.3585;
+    private static final double D50_Z = (1.0 - 0.3457 - 0.3585) / 0.3585;
+    private static final double[] D50 = {D50_X, 1, D50_Z};
+
+    /**
+     * XYZ (D50) to linear sRGB, Bradford adapted
+     */
+    private static final double[] XYZ_D50_TO_LINEAR_SRGB = multiply(new double[]{
+        3.2409699419045226, -1.537383177570094, -0.4986107602930034,
+        -0.9692436362808796, 1.8759675015077202, 0.04155505740717559,
+        0.05563007969699366, -0.20397695888897652, 1.0569715142428786
+    }, new double[]{
+        0.955473421488075, -0.02309845494876471, 0.06325924320057072,
+        -0.0283697093338637, 1.0099953980813041, 0.021041441191917323,
+        0.012314014864481998, -0.020507649298898964, 1.330365926242124
+    });
+
+    /**
+     * Linear sRGB to XYZ (D50), Bradford adapted
+     */
+    private static final double[] LINEAR_SRGB_TO_XYZ_D50 = multiply(new double[]{
+        1.0479298208405488, 0.022946793341019088, -0.05019222954313557,
+        0.029627815688159344, 0.990434484573249, -0.01707382502938514,
+        -0.009243058152591178, 0.015055144896577895, 0.7518742899580008
+    }, new double[]{
+        0.41239079926595934, 0.357584339383878, 0.1804807884018343,
+        0.21263900587151027, 0.715168678767756, 0.07219231536073371,
+        0.01933081871559182, 0.11919477979462598, 0.9505321522496607
+    });
+
+    /**
+     * Linear sRGB to the LMS cone responses of OKLab
+     */
+    private static final double[] LINEAR_SRGB_TO_LMS = {
+        0.4122214708, 0.5363325363, 0.0514459929,
+        0.2119034982, 0.6806995451, 0.1073969566,
+        0.0883024619, 0.2817188376, 0.6299787005
+    };
+
+    /**
+     * Cube-rooted LMS cone responses to OKLab
+     */
+    private static final double[] LMS_TO_OKLAB = {
+        0.2104542553, 0.7936177850, -0.0040720468,
+        1.9779984951, -2.4285922050, 0.4505937099,
+        0.0259040371, 0.7827717662, -0.8086757660
+    };
+
+    static {
+        for (int i = 0; i < LINEAR.length; i++) {
+            LINEAR[i] = decode(i / 255d);
+        }
+        for (int i = 0; i < LINEAR_MIDPOINTS.length; i++) {
+            LINEAR_MIDPOINTS[i] = decode((i + 0.5) / 255d);
+        }
+        for (int i = 0; i < SINE.length; i++) {
+            SINE[i] = Math.sin(2 * Math.PI * i / SINE_STEPS);
+        }
+    }
+
+    private ColorSpaces() {
+    }
+
+    /**
+     * Gets the linear light value of an sRGB channel
+     *
+     * @param channel The channel between 0 and 255
+     * @return The linear light value between 0 and 1
+     */
+    public static double toLinear(int channel) {
+        return LINEAR[channel];
+    }
+
+    /**
+     * Gets the sRGB channel of a linear light value, rounded to the nearest
+     * byte. Values outside of {@code [0, 1]} are clipped.
+     *
+     * @param linear The linear light value
+     * @return The channel between 0 and 255
+     */
+    public static int fromLinear(double linear) {
+        int low = 0;
+        int high = LINEAR_MIDPOINTS.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (linear < LINEAR_MIDPOINTS[mid]) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Computes the cube root by Newton iteration
+     *
+     * @param x The value
+     * @return The cube root of the value
+     */
+    public static double cbrt(double x) {
+        if (x == 0 || Double.isNaN(x) || Double.isInfinite(x)) {
+            return x;
+        }
+        boolean negative = x < 0;
+        if (negative) {
+            x = -x;
+        }
+        // bit-level initial guess within a few percent
+        double y = Double.longBitsToDouble(
+                Double.doubleToRawLongBits(x) / 3 + 0x2A9F7893782DA1CEL);
+        for (int i = 0; i < 4; i++) {
+            y -= (y * y * y - x) / (3 * y * y);
+        }
+        return negative ? -y : y;
+    }
+
+    /**
+     * Interpolates the sine from a table
+     *
+     * @param degrees The angle in degrees
+     * @return The sine
+     */
+    public static double sinDegrees(double degrees) {
+        double steps = degrees * (SINE_STEPS / 360d);
+        double floor = Math.floor(steps);
+        int index = (int) ((long) floor & (SINE_STEPS - 1));
+        double fraction = steps - floor;
+        return SINE[index] + (SINE[index + 1] - SINE[index]) * fraction;
+    }
+
+    /**
+     * Interpolates the cosine from a table
+     *
+     * @param degrees The angle in degrees
+     * @return The cosine
+     */
+    public static double cosDegrees(double degrees) {
+        return sinDegrees(degrees + 90);
+    }
+
+    /**
+     * Computes the angle of the point {@code (x, y)}
+     *
+     * @param y The y coordinate
+     * @param x The x coordinate
+     * @return The angle in degrees between 0 (inclusive) and 360 (exclusive)
+     */
+    public static double atan2Degrees(double y, double x) {
+        double ax = Math.abs(x);
+        double ay = Math.abs(y);
+        if (ax == 0 && ay == 0) {
+            return 0;
+        }
+        boolean swap = ay > ax;
+        double t = swap ? ax / ay : ay / ax;
+        // atan(t) = 45 + atan((t - 1) / (t + 1)) for t above tan(22.5)
+        double offset = 0;
+        if (t > 0.41421356237309503) {
+            t = (t - 1) / (t + 1);
+            offset = 45;
+        }
+        double t2 = t * t;
+        double atan = t * (1 + t2 * (-1 / 3d + t2 * (1 / 5d + t2 * (-1 / 7d
+                + t2 * (1 / 9d + t2 * (-1 / 11d + t2 * (1 / 13d + t2 * (-1 / 15d
+                + t2 * (1 / 17d)))))))));
+        double degrees = offset + atan * (180 / Math.PI);
+        if (swap) {
+            degrees = 90 - degrees;
+        }
+        if (x < 0) {
+            degrees = 180 - degrees;
+        }
+        if (y < 0) {
+            degrees = 360 - degrees;
+        }
+        return degrees >= 360 ? degrees - 360 : degrees;
+    }
+
+    /**
+     * Converts HSL to packed ARGB
+     *
+     * @param hue The hue in degrees
+     * @param saturation The saturation between 0 and 1
+     * @param lightness The lightness between 0 and 1
+     * @param alpha The alpha channel between 0 and 255
+     * @return The packed ARGB color
+     */
+    public static int hslToArgb(double hue, double saturation, double lightness, int alpha) {
+        saturation = clamp(saturation, 1);
+        lightness = clamp(lightness, 1);
+        double h = normalizeHue(hue) / 30;
+        double a = saturation * Math.min(lightness, 1 - lightness);
+        return alpha << 24
+                | toByte(hslChannel(0, h, lightness, a)) << 16
+                | toByte(hslChannel(8, h, lightness, a)) << 8
+                | toByte(hslChannel(4, h, lightness, a));
+    }
+
+    /**
+     * Gets the hue that HSL and HWB share
+     *
+     * @param argb The packed ARGB color
+     * @return The hue in degrees
+     */
+    public static double hue(int argb) {
+        int r = argb >> 16 & 0xFF;
+        int g = argb >> 8 & 0xFF;
+        int b = argb & 0xFF;
+        return hue(r, g, b, Math.max(r, Math.max(g, b)), Math.min(r, Math.min(g, b)));
+    }
+
+    /**
+     * Converts packed ARGB to HSL
+     *
+     * @param argb The packed ARGB color
+     * @param hsl Receives the hue in degrees, the saturation and the
+     * lightness between 0 and 1
+     */
+    public static void argbToHsl(int argb, double[] hsl) {
+        int r = argb >> 16 & 0xFF;
+        int g = argb >> 8 & 0xFF;
+        int b = argb & 0xFF;
+        int max = Math.max(r, Math.max(g, b));
+        int min = Math.min(r, Math.min(g, b));
+        double lightness = (max + min) / 510d;
+        double saturation = 0;
+        if (max != min) {
+            double m = Math.min(lightness, 1 - lightness);
+            saturation = (max / 255d - lightness) / m;
+        }
+        hsl[0] = hue(r, g, b, max, min);
+        hsl[1] = saturation;
+        hsl[2] = lightness;
+    }
+
+    /**
+     * Converts HWB to packed ARGB
+     *
+     * @param hue The hue in degrees
+     * @param whiteness The whiteness between 0 and 1
+     * @param blackness The blackness between 0 and 1
+     * @param alpha The alpha channel between 0 and 255
+     * @return The packed ARGB color
+     */
+    public static int hwbToArgb(double hue, double whiteness, double blackness, int alpha) {
+        whiteness = clamp(whiteness, 1);
+        blackness = clamp(blackness, 1);
+        if (whiteness + blackness >= 1) {
+            int gray = toByte(whiteness / (whiteness + blackness));
+            return alpha << 24 | gray << 16 | gray << 8 | gray;
+        }
+        double h = normalizeHue(hue) / 30;
+        double scale = 1 - whiteness - blackness;
+        return alpha << 24
+                | toByte(hslChannel(0, h, 0.5, 0.5) * scale + whiteness) << 16
+                | toByte(hslChannel(8, h, 0.5, 0.5) * scale + whiteness) << 8
+                | toByte(hslChannel(4, h, 0.5, 0.5) * scale + whiteness);
+    }
+
+    /**
+     * Converts packed ARGB to HWB
+     *
+     * @param argb The packed ARGB color
+     * @param hwb Receives the hue in degrees, the whiteness and the
+     * blackness between 0 and 1
+     */
+    public static void argbToHwb(int argb, double[] hwb) {
+        int r = argb >> 16 & 0xFF;
+        int g = argb >> 8 & 0xFF;
+        int b = argb & 0xFF;
+        int max = Math.max(r, Math.max(g, b));
+        int min = Math.min(r, Math.min(g, b));
+        hwb[0] = hue(r, g, b, max, min);
+        hwb[1] = min / 255d;
+        hwb[2] = 1 - max / 255d;
+    }
+
+    /**
+     * Converts CIE Lab (D50) to packed ARGB
+     *
+     * @param lightness The lightness between 0 and 100
+     * @param a The a axis
+     * @param b The b axis
+     * @param alpha The alpha channel between 0 and 255
+     * @return The packed ARGB color
+     */
+    public static int labToArgb(double lightness, double a, double b, int alpha) {
+        double f1 = (lightness + 16) / 116;
+        double f0 = a / 500 + f1;
+        double f2 = f1 - b / 200;
+        double x = D50_X * labInverse(f0);
+        double y = lightness > KAPPA * EPSILON ? f1 * f1 * f1 : lightness / KAPPA;
+        double z = D50_Z * labInverse(f2);
+        return toArgb(XYZ_D50_TO_LINEAR_SRGB, x, y, z, alpha);
+    }
+
+    /**
+     * Converts packed ARGB to CIE Lab (D50)
+     *
+     * @param argb The packed ARGB color
+     * @param lab Receives the lightness between 0 and 100 and the a and b
+     * axes
+     */
+    public static void argbToLab(int argb, double[] lab) {
+        double f0 = labAxis(argb, 0);
+        double f1 = labAxis(argb, 1);
+        double f2 = labAxis(argb, 2);
+        lab[0] = 116 * f1 - 16;
+        lab[1] = 500 * (f0 - f1);
+        lab[2] = 200 * (f1 - f2);
+    }
+
+    /**
+     * Gets one of the compressed axes f(X / Xn), f(Y / Yn) and f(Z / Zn) that
+     * CIE Lab (D50) is composed of. Lets callers compute Lab without an array:
+     * {@code L = 116 * f1 - 16}, {@code a = 500 * (f0 - f1)} and
+     * {@code b = 200 * (f1 - f2)}.
+     *
+     * @param argb The packed ARGB color
+     * @param axis 0 for X, 1 for Y or 2 for Z
+     * @return The compressed axis
+     */
+    public static double labAxis(int argb, int axis) {
+        int i = axis * 3;
+        double[] m = LINEAR_SRGB_TO_XYZ_D50;
+        return labForward((m[i] * LINEAR[argb >> 16 & 0xFF]
+                + m[i + 1] * LINEAR[argb >> 8 & 0xFF]
+                + m[i + 2] * LINEAR[argb & 0xFF]) / D50[axis]);
+    }
+
+    /**
+     * Converts OKLab to packed ARGB
+     *
+     * @param lightness The lightness between 0 and 1
+     * @param a The a axis
+     * @param b The b axis
+     * @param alpha The alpha channel between 0 and 255
+     * @return The packed ARGB color
+     */
+    public static int oklabToArgb(double lightness, double a, double b, int alpha) {
+        double l = lightness + 0.3963377774 * a + 0.2158037573 * b;
+        double m = lightness - 0.1055613458 * a - 0.0638541728 * b;
+        double s = lightness - 0.0894841775 * a - 1.2914855480 * b;
+        l = l * l * l;
+        m = m * m * m;
+        s = s * s * s;
+        return alpha << 24
+                | fromLinear(4.0767416621 * l - 3.3077115913 * m + 0.2309699292 * s) << 16
+                | fromLinear(-1.2684380046 * l + 2.6097574011 * m - 0.3413193965 * s) << 8
+                | fromLinear(-0.0041960863 * l - 0.7034186147 * m + 1.7076147010 * s);
+    }
+
+    /**
+     * Converts packed ARGB to OKLab
+     *
+     * @param argb The packed ARGB color
+     * @param oklab Receives the lightness between 0 and 1 and the a and b
+     * axes
+     */
+    public static void argbToOklab(int argb, double[] oklab) {
+        double l = oklabCone(argb, 0);
+        double m = oklabCone(argb, 1);
+        double s = oklabCone(argb, 2);
+        oklab[0] = oklabAxis(l, m, s, 0);
+        oklab[1] = oklabAxis(l, m, s, 1);
+        oklab[2] = oklabAxis(l, m, s, 2);
+    }
+
+    /**
+     * Gets one of the cube-rooted cone responses l', m' and s' that OKLab is
+     * composed of. Together with
+     * {@link #oklabAxis(double, double, double, int)} it lets callers compute
+     * OKLab without an array.
+     *
+     * @param argb The packed ARGB color
+     * @param cone 0 for l', 1 for m' or 2 for s'
+     * @return The cube-rooted cone response
+     */
+    public static double oklabCone(int argb, int cone) {
+        int i = cone * 3;
+        double[] m = LINEAR_SRGB_TO_LMS;
+        return cbrt(m[i] * LINEAR[argb >> 16 & 0xFF]
+                + m[i + 1] * LINEAR[argb >> 8 & 0xFF]
+                + m[i + 2] * LINEAR[argb & 0xFF]);
+    }
+
+    /**
+     * Combines the cube-rooted cone responses to an OKLab axis
+     *
+     * @param l The cube-rooted l' response
+     * @param m The cube-rooted m' response
+     * @param s The cube-rooted s' response
+     * @param axis 0 for the lightness, 1 for a or 2 for b
+     * @return The OKLab axis
+     * @see #oklabCone(int, int)
+     */
+    public static double oklabAxis(double l, double m, double s, int axis) {
+        int i = axis * 3;
+        return LMS_TO_OKLAB[i] * l + LMS_TO_OKLAB[i + 1] * m + LMS_TO_OKLAB[i + 2] * s;
+    }
+
+    /**
+     * Converts OKLCh to packed ARGB
+     *
+     * @param lightness The lightness between 0 and 1
+     * @param chroma The chroma
+     * @param hue The hue in degrees
+     * @param alpha The alpha channel between 0 and 255
+     * @return The packed ARGB color
+     */
+    public static int oklchToArgb(double lightness, double chroma, double hue, int alpha) {
+        chroma = Math.max(chroma, 0);
+        return oklabToArgb(lightness, chroma * cosDegrees(hue),
+                chroma * sinDegrees(hue), alpha);
+    }
+
+    /**
+     * Converts packed ARGB to OKLCh
+     *
+     * @param argb The packed ARGB color
+     * @param oklch Receives the lightness between 0 and 1, the chroma and the
+     * hue in degrees
+     */
+    public static void argbToOklch(int argb, double[] oklch) {
+        argbToOklab(argb, oklch);
+        double a = oklch[1];
+        double b = oklch[2];
+        oklch[1] = Math.sqrt(a * a + b * b);
+        oklch[2] = atan2Degrees(b, a);
+    }
+
+    private static double hslChannel(int n, double h, double lightness, double a) {
+        double k = n + h;
+        if (k >= 12) {
+            k -= 12;
+        }
+        return lightness - a * Math.max(-1, Math.min(Math.min(k - 3, 9 - k), 1));
+    }
+
+    private static double hue(int r, int g, int b, int max, int min) {
+        if (max == min) {
+            return 0;
+        }
+        double d = max - min;
+        double hue;
+        if (max == r) {
+            hue = (g - b) / d + (g < b ? 6 : 0);
+        } else if (max == g) {
+            hue = (b - r) / d + 2;
+        } else {
+            hue = (r - g) / d + 4;
+        }
+        return hue * 60;
+    }
+
+    private static double labInverse(double f) {
+        double f3 = f * f * f;
+        return f3 > EPSILON ? f3 : (116 * f - 16) / KAPPA;
+    }
+
+    private static double labForward(double t) {
+        return t > EPSILON ? cbrt(t) : (KAPPA * t + 16) / 116;
+    }
+
+    private static int toArgb(double[] m, double x, double y, double z, int alpha) {
+        return alpha << 24
+                | fromLinear(m[0] * x + m[1] * y + m[2] * z) << 16
+                | fromLinear(m[3] * x + m[4] * y + m[5] * z) << 8
+                | fromLinear(m[6] * x + m[7] * y + m[8] * z);
+    }
+
+    /**
+     * @param hue The hue in degrees
+     * @return The hue between 0 (inclusive) and 360 (exclusive)
+     */
+    private static double normalizeHue(double hue) {
+        hue %= 360;
+        if (hue < 0) {
+            hue += 360;
+        }
+        return hue >= 360 ? 0 : hue;
+    }
+
+    private static double clamp(double value, double max) {
+        return value < 0 ? 0 : value > max ? max : value;
+    }
+
+    /**
+     * Rounds a gamma encoded value between 0 and 1 to a channel byte
+     */
+    private static int toByte(double value) {
+        int channel = (int) (value * 255 + 0.5);
+        return channel < 0 ? 0 : channel > 255 ? 255 : channel;
+    }
+
+    /**
+     * Applies the sRGB transfer function, only used to build the tables
+     */
+    private static double decode(double encoded) {
+        return encoded <= 0.04045 ? encoded / 12.92
+                : Math.pow((encoded + 0.055) / 1.055, 2.4);
+    }
+
+    private static double[] multiply(double[] a, double[] b) {
+        double[] product = new double[9];
+        for (int row = 0; row < 3; row++) {
+            for (int column = 0; column < 3; column++) {
+                double sum = 0;
+                for (int i = 0; i < 3; i++) {
+                    sum += a[row * 3 + i] * b[i * 3 + column];
+                }
+                product[row * 3 + column] = sum;
+            }
+        }
+        return product;
+    }
+
+}
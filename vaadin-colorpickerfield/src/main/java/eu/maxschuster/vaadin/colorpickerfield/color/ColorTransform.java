@@ -0,0 +1,37 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.color;
+
+import java.io.Serializable;
+
+/**
+ * Maps a packed ARGB color ({@code 0xAARRGGBB}) to another one, e.g. to
+ * darken, desaturate or simulate color blindness. Bake expensive transforms
+ * into a {@link ColorLut}.
+ *
+ * @author Max Schuster
+ */
+public interface ColorTransform extends Serializable {
+
+    /**
+     * Transforms a color
+     *
+     * @param argb The packed ARGB color
+     * @return The transformed packed ARGB color
+     */
+    int transform(int argb);
+
+}
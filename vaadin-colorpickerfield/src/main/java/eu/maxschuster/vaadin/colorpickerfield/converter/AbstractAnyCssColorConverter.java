@@ -0,0 +1,132 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.converter;
+
+import com.vaadin.data.util.converter.Converter;
+import com.vaadin.shared.ui.colorpicker.Color;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Base class for {@link Converter}s that convert between any supported CSS
+ * color notation and {@link Color}.
+ * <p>
+ * The notation is detected from the leading character or keyword of the
+ * input and parsed in a single pass by the scanner of that notation, so
+ * mixed input never costs more than one parse. Supported are hex colors
+ * with or without {@code #}, {@code rgb()}, {@code rgba()}, {@code hsl()},
+ * {@code hsla()}, {@code hwb()}, {@code lab()}, {@code oklch()} and the CSS
+ * named colors.
+ * <p>
+ * Colors are serialized by the output converter, see
+ * {@link #setOutputConverter(eu.maxschuster.vaadin.colorpickerfield.converter.AbstractColorConverter)}.
+ * By default opaque colors are serialized as hex color and all others as
+ * {@code rgba()} color, so no information is lost.
+ *
+ * @author Max Schuster
+ * @param <PRESENTATION> The presentation type. Must be compatible with what
+ * {@link #getPresentationType()} returns.
+ * @param <MODEL> The model type. Must be compatible with what
+ * {@link #getModelType()} returns.
+ */
+public abstract class AbstractAnyCssColorConverter<PRESENTATION, MODEL> extends AbstractColorConverter<PRESENTATION, MODEL> {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Writes opaque colors
+     */
+    private static final ColorToHexConverter OPAQUE_OUTPUT = new ColorToHexConverter();
+
+    /**
+     * Writes translucent colors
+     */
+    private static final ColorToRgbaConverter TRANSLUCENT_OUTPUT = new ColorToRgbaConverter();
+
+    /**
+     * The converter that serializes colors or {@code null} for the default
+     */
+    private AbstractColorConverter<?, ?> outputConverter;
+
+    public AbstractAnyCssColorConverter(Class<PRESENTATION> presentationType, Class<MODEL> modelType) {
+        super(presentationType, modelType);
+    }
+
+    /**
+     * Gets the converter that serializes colors
+     *
+     * @return The output converter or {@code null} if the default is used
+     */
+    public AbstractColorConverter<?, ?> getOutputConverter() {
+        return outputConverter;
+    }
+
+    /**
+     * Sets the converter that serializes colors. Only its notation is used,
+     * its type parameters do not matter.
+     *
+     * @param outputConverter The output converter or {@code null} to write
+     * opaque colors as hex and all others as {@code rgba()} color
+     */
+    public void setOutputConverter(AbstractColorConverter<?, ?> outputConverter) {
+        if (outputConverter instanceof AbstractAnyCssColorConverter) {
+            throw new IllegalArgumentException("The output converter must "
+                    + "have a fixed notation");
+        }
+        this.outputConverter = outputConverter;
+        invalidateCacheRegion();
+    }
+
+    @Override
+    protected long scanArgb(CharSequence string) {
+        return CssColorParser.parseAny(string);
+    }
+
+    @Override
+    protected void writeArgb(int argb, Appendable out) throws IOException {
+        if (outputConverter != null) {
+            outputConverter.formatArgb(argb, out);
+        } else if ((argb >>> 24) == 0xFF) {
+            OPAQUE_OUTPUT.writeArgb(argb, out);
+        } else {
+            TRANSLUCENT_OUTPUT.writeArgb(argb, out);
+        }
+    }
+
+    @Override
+    protected String getNotation() {
+        return "css color";
+    }
+
+    @Override
+    protected Object getCacheKey() {
+        if (outputConverter == null) {
+            return getClass();
+        }
+        return Arrays.asList(getClass(), outputConverter.getRegionKey());
+    }
+
+    /**
+     * Also changes when the {@link #outputConverter} is reconfigured
+     */
+    @Override
+    int getSerializationVersion() {
+        AbstractColorConverter<?, ?> output = outputConverter;
+        int version = super.getSerializationVersion();
+        return output == null ? version : Math.max(version, output.getSerializationVersion());
+    }
+
+}
@@ -17,9 +17,32 @@ package eu.maxschuster.vaadin.colorpickerfield.converter;
 
 import com.vaadin.data.util.converter.Converter;
 import com.vaadin.shared.ui.colorpicker.Color;
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Base class for {@link Converter}s that convert to or from {@link Color}
+ * <p>
+ * Besides the {@link Converter} methods every converter offers the
+ * exception-free {@link #tryParseArgb(java.lang.CharSequence)} that reports
+ * invalid input through its return value. Invalid input costs about the same
+ * as valid input there, which makes it the right choice for validation and
+ * bulk imports of dirty data.
+ * <p>
+ * {@link #parseArgb(java.lang.CharSequence)} and
+ * {@link #serializeArgb(int, java.lang.Appendable)} work on packed ARGB
+ * {@code int}s ({@code 0xAARRGGBB}, the format of {@link Color#getRGB()}), so
+ * hot paths never need to materialize a {@link Color}. Colors can be
+ * serialized straight into a {@link StringBuilder}, {@link Appendable},
+ * {@code char[]} or {@link CharBuffer} without temporary strings. The
+ * output can be customized with a {@link ColorFormat}, see
+ * {@link #setColorFormat(eu.maxschuster.vaadin.colorpickerfield.converter.ColorFormat)}.
+ * <p>
+ * Converters that convert the same colors over and over can share a
+ * {@link ColorConversionCache}, see
+ * {@link #setConversionCache(eu.maxschuster.vaadin.colorpickerfield.converter.ColorConversionCache)}.
  * 
  * @author Max Schuster
  * @param <PRESENTATION> The presentation type. Must be compatible with what
@@ -36,11 +59,44 @@ public abstract class AbstractColorConverter<PRESENTATION, MODEL> implements Con
      */
     private final Class<PRESENTATION> presentationType;
 
+    /**
+     * Source of increasing serialization versions shared by all converters
+     */
+    private static final AtomicInteger SERIALIZATION_VERSIONS = new AtomicInteger();
+
     /**
      * The model type
      */
     private final Class<MODEL> modelType;
 
+    /**
+     * The optional conversion cache
+     */
+    private ColorConversionCache conversionCache;
+
+    /**
+     * The region of {@link #conversionCache} used by this converter.
+     * Resolved lazily.
+     */
+    private transient ColorConversionCache.Region cacheRegion;
+
+    /**
+     * The {@link #getSerializationVersion()} the {@link #cacheRegion} was
+     * resolved for
+     */
+    private transient int cacheRegionVersion;
+
+    /**
+     * Set to a new {@link #SERIALIZATION_VERSIONS} value whenever the
+     * serialization of this converter changes
+     */
+    private transient int serializationVersion;
+
+    /**
+     * The optional format that replaces the notation when serializing
+     */
+    private ColorFormat colorFormat;
+
     public AbstractColorConverter(Class<PRESENTATION> presentationType, Class<MODEL> modelType) {
         this.presentationType = presentationType;
         this.modelType = modelType;
@@ -56,23 +112,350 @@ public abstract class AbstractColorConverter<PRESENTATION, MODEL> implements Con
         return this.presentationType;
     }
 
+    /**
+     * Parses the given {@link CharSequence} without throwing an exception
+     * for invalid input.
+     *
+     * @param string The {@link CharSequence} to parse. Never {@code null}.
+     * @return The packed ARGB color ({@code 0xAARRGGBB}) in the lower 32 bits
+     * of a non-negative {@code long} or a negative value if the string is
+     * invalid. Use {@link #isValidArgb(long)} and {@link #getErrorIndex(long)}
+     * to inspect the result.
+     */
+    public long tryParseArgb(CharSequence string) {
+        ColorConversionCache.Region region = getCacheRegion();
+        if (region != null) {
+            return region.parse(this, string);
+        }
+        return scanArgb(string);
+    }
+
+    /**
+     * Parses the given {@link CharSequence} as packed ARGB color.
+     *
+     * @param string The {@link CharSequence} to parse. Never {@code null}.
+     * @return The packed ARGB color ({@code 0xAARRGGBB})
+     * @throws ConversionException If the string is invalid
+     */
+    public int parseArgb(CharSequence string) throws ConversionException {
+        long result = tryParseArgb(string);
+        if (!isValidArgb(result)) {
+            throw new ConversionException(CssColorParser.errorMessage(
+                    string, result, getNotation()));
+        }
+        return (int) result;
+    }
+
+    /**
+     * Serializes the given packed ARGB color in the notation of this
+     * converter.
+     *
+     * @param argb The packed ARGB color ({@code 0xAARRGGBB})
+     * @param out The {@link Appendable} to write to
+     * @throws IOException If the {@link Appendable} throws
+     */
+    public void serializeArgb(int argb, Appendable out) throws IOException {
+        ColorConversionCache.Region region = getCacheRegion();
+        if (region != null) {
+            out.append(region.serialize(this, argb));
+        } else {
+            formatArgb(argb, out);
+        }
+    }
+
+    /**
+     * Serializes the given packed ARGB color in the notation of this
+     * converter.
+     *
+     * @param argb The packed ARGB color ({@code 0xAARRGGBB})
+     * @param out The {@link StringBuilder} to append to
+     */
+    public void serializeArgb(int argb, StringBuilder out) {
+        try {
+            serializeArgb(argb, (Appendable) out);
+        } catch (IOException e) {
+            // StringBuilder never throws
+            throw new ConversionException(e);
+        }
+    }
+
+    /**
+     * Serializes the given packed ARGB color in the notation of this
+     * converter at the current position of the given {@link CharBuffer}.
+     *
+     * @param argb The packed ARGB color ({@code 0xAARRGGBB})
+     * @param out The {@link CharBuffer} to write to
+     * @throws java.nio.BufferOverflowException If the buffer is too small
+     */
+    public void serializeArgb(int argb, CharBuffer out) {
+        try {
+            serializeArgb(argb, (Appendable) out);
+        } catch (IOException e) {
+            // CharBuffer never throws
+            throw new ConversionException(e);
+        }
+    }
+
+    /**
+     * Serializes the given packed ARGB color in the notation of this
+     * converter into the given {@code char[]}.
+     *
+     * @param argb The packed ARGB color ({@code 0xAARRGGBB})
+     * @param buffer The buffer to write to
+     * @param offset The index of the first character to write
+     * @return The number of characters written
+     * @throws java.nio.BufferOverflowException If the buffer is too small
+     */
+    public int serializeArgb(int argb, char[] buffer, int offset) {
+        CharBuffer out = CharBuffer.wrap(buffer, offset, buffer.length - offset);
+        serializeArgb(argb, out);
+        return out.position() - offset;
+    }
+
+    /**
+     * Serializes the given packed ARGB color in the notation of this
+     * converter.
+     *
+     * @param argb The packed ARGB color ({@code 0xAARRGGBB})
+     * @return The serialized color
+     */
+    public String serializeArgb(int argb) {
+        ColorConversionCache.Region region = getCacheRegion();
+        if (region != null) {
+            return region.serialize(this, argb);
+        }
+        return serializeArgbUncached(argb);
+    }
+
+    /**
+     * Serializes the given packed ARGB color bypassing the cache
+     *
+     * @param argb The packed ARGB color ({@code 0xAARRGGBB})
+     * @return The serialized color
+     */
+    String serializeArgbUncached(int argb) {
+        StringBuilder sb = new StringBuilder(32);
+        try {
+            formatArgb(argb, sb);
+        } catch (IOException e) {
+            // StringBuilder never throws
+            throw new ConversionException(e);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Writes the given packed ARGB color with the {@link #colorFormat} or in
+     * the notation of this converter, bypassing the cache
+     */
+    void formatArgb(int argb, Appendable out) throws IOException {
+        ColorFormat format = colorFormat;
+        if (format != null) {
+            format.format(argb, out);
+        } else {
+            writeArgb(argb, out);
+        }
+    }
+
+    /**
+     * Gets the format used to serialize colors
+     *
+     * @return The format or {@code null} if colors are serialized in the
+     * notation of this converter
+     */
+    public ColorFormat getColorFormat() {
+        return colorFormat;
+    }
+
+    /**
+     * Sets the format used to serialize colors. Parsing is not affected, so
+     * the format should write something this converter can parse.
+     *
+     * @param colorFormat The format or {@code null} to serialize colors in
+     * the notation of this converter
+     */
+    public void setColorFormat(ColorFormat colorFormat) {
+        this.colorFormat = colorFormat;
+        invalidateCacheRegion();
+    }
+
+    /**
+     * Gets the conversion cache
+     *
+     * @return The conversion cache or {@code null} if caching is disabled
+     */
+    public ColorConversionCache getConversionCache() {
+        return conversionCache;
+    }
+
+    /**
+     * Sets the conversion cache. Caching is opt-in, pass
+     * {@link ColorConversionCache#getShared()} to use the JVM-wide cache.
+     *
+     * @param conversionCache The conversion cache or {@code null} to disable
+     * caching
+     */
+    public void setConversionCache(ColorConversionCache conversionCache) {
+        this.conversionCache = conversionCache;
+        this.cacheRegion = null;
+    }
+
+    /**
+     * Gets the key of the cache region used by this converter. Converters
+     * with equal keys must parse and serialize identically.
+     *
+     * @return The cache key, the type of this converter by default
+     */
+    protected Object getCacheKey() {
+        return getClass();
+    }
+
+    /**
+     * @return The {@link #getCacheKey()} combined with the
+     * {@link #colorFormat}
+     */
+    Object getRegionKey() {
+        ColorFormat format = colorFormat;
+        if (format == null) {
+            return getCacheKey();
+        }
+        return Arrays.asList(getCacheKey(), format);
+    }
+
+    /**
+     * Makes the converter and every converter that serializes through it
+     * look up their cache region again, e.g. after {@link #getCacheKey()}
+     * changed
+     */
+    void invalidateCacheRegion() {
+        serializationVersion = SERIALIZATION_VERSIONS.incrementAndGet();
+    }
+
+    /**
+     * @return A number that changes whenever {@link #getRegionKey()} may
+     * have changed. Later changes always have greater numbers.
+     */
+    int getSerializationVersion() {
+        return serializationVersion;
+    }
+
+    /**
+     * @return The cache region of this converter or {@code null} if caching
+     * is disabled
+     */
+    private ColorConversionCache.Region getCacheRegion() {
+        ColorConversionCache cache = conversionCache;
+        if (cache == null) {
+            return null;
+        }
+        ColorConversionCache.Region region = cacheRegion;
+        int version = getSerializationVersion();
+        if (region == null || cacheRegionVersion != version) {
+            region = cache.getRegion(getRegionKey());
+            cacheRegion = region;
+            cacheRegionVersion = version;
+        }
+        return region;
+    }
+
+    /**
+     * Checks if the given {@link CharSequence} can be parsed by this
+     * converter without throwing an exception.
+     *
+     * @param string The {@link CharSequence} to check. Never {@code null}.
+     * @return {@code true} if the string is valid
+     */
+    public boolean isValid(CharSequence string) {
+        return isValidArgb(tryParseArgb(string));
+    }
+
+    /**
+     * Checks if a result of {@link #tryParseArgb(java.lang.CharSequence)}
+     * holds a color.
+     *
+     * @param result The result
+     * @return {@code true} if the result holds a color
+     */
+    public static boolean isValidArgb(long result) {
+        return !CssColorParser.isError(result);
+    }
+
+    /**
+     * Gets the index of the first offending character of an invalid result
+     * of {@link #tryParseArgb(java.lang.CharSequence)}.
+     *
+     * @param result The result
+     * @return The index of the first offending character or {@code -1} if the
+     * result holds a color
+     */
+    public static int getErrorIndex(long result) {
+        return isValidArgb(result) ? -1 : CssColorParser.errorIndex(result);
+    }
+
+    /**
+     * Scans the given {@link CharSequence} in the notation of this converter.
+     * Implementations must not throw for invalid input but return an error
+     * result.
+     *
+     * @param string The {@link CharSequence} to scan. Never {@code null}.
+     * @return The packed ARGB color or an error result
+     * @see #tryParseArgb(java.lang.CharSequence)
+     */
+    protected abstract long scanArgb(CharSequence string);
+
+    /**
+     * Writes the given packed ARGB color in the notation of this converter.
+     *
+     * @param argb The packed ARGB color ({@code 0xAARRGGBB})
+     * @param out The {@link Appendable} to write to
+     * @throws IOException If the {@link Appendable} throws
+     * @see #serializeArgb(int, java.lang.Appendable)
+     */
+    protected abstract void writeArgb(int argb, Appendable out) throws IOException;
+
+    /**
+     * Gets the name of the notation handled by this converter. Used for error
+     * messages.
+     *
+     * @return The name of the notation, e.g. "css hex color"
+     */
+    protected abstract String getNotation();
+
     /**
      * Serializes the given {@link Color} as a {@link String}. The String must
-     * be unserialize by {@link #unserializeColor(java.lang.String)}
+     * be unserialize by {@link #unserializeColor(java.lang.String)}. Delegates
+     * to {@link #serializeArgb(int)}.
      *
      * @param color The {@link Color} to serialize. Never {@code null}.
      * @return {@link Color} serialized as {@link String}
      * @throws ConversionException If the {@link Color} can't be serialized
      */
-    protected abstract String serializeColor(Color color) throws ConversionException;
+    protected String serializeColor(Color color) throws ConversionException {
+        return serializeArgb(color.getRGB());
+    }
 
     /**
-     * Unserializes the given {@link String} as a {@link Color}.
+     * Unserializes the given {@link String} as a {@link Color}. Delegates to
+     * {@link #parseArgb(java.lang.CharSequence)}, so invalid input creates
+     * exactly one exception.
      *
      * @param string The {@link String} to unserialize. Never {@code null}.
      * @return {@link String} unserialized as {@link Color}
      * @throws ConversionException If the {@link String} can't be unserialized
      */
-    protected abstract Color unserializeColor(String string) throws ConversionException;
+    protected Color unserializeColor(String string) throws ConversionException {
+        return toColor(parseArgb(string));
+    }
+
+    /**
+     * Creates a {@link Color} from a packed ARGB color.
+     *
+     * @param argb The packed ARGB color ({@code 0xAARRGGBB})
+     * @return A new {@link Color}
+     */
+    protected static Color toColor(int argb) {
+        return new Color(argb >> 16 & 0xFF, argb >> 8 & 0xFF, argb & 0xFF,
+                argb >>> 24);
+    }
     
 }
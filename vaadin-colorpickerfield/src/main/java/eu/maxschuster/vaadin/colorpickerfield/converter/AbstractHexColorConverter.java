@@ -17,11 +17,12 @@ package eu.maxschuster.vaadin.colorpickerfield.converter;
 
 import com.vaadin.data.util.converter.Converter;
 import com.vaadin.shared.ui.colorpicker.Color;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.io.IOException;
 
 /**
- * Base class for {@link Converter}s that convert between CSS hex color and {@link Color}
+ * Base class for {@link Converter}s that convert between CSS hex color and {@link Color}.
+ * Accepts the {@code #RGB}, {@code #RGBA}, {@code #RRGGBB} and
+ * {@code #RRGGBBAA} notations, the {@code #} is optional.
  * 
  * @author Max Schuster
  * @param <PRESENTATION> The presentation type. Must be compatible with what
@@ -36,32 +37,27 @@ public abstract class AbstractHexColorConverter<PRESENTATION, MODEL> extends Abs
     public AbstractHexColorConverter(Class<PRESENTATION> presentationType, Class<MODEL> modelType) {
         super(presentationType, modelType);
     }
-    
-    private static final Pattern HEX_PATTERN = Pattern.compile(
-            "^(#)?([0-9a-f]{3}|[0-9a-f]{6})$", Pattern.CASE_INSENSITIVE);
+
+    /**
+     * Writes {@code #rrggbb} like {@link Color#getCSS()}, the alpha channel
+     * is ignored.
+     */
+    @Override
+    protected void writeArgb(int argb, Appendable out) throws IOException {
+        out.append('#');
+        CssColorWriter.appendHexByte(out, argb >> 16 & 0xFF);
+        CssColorWriter.appendHexByte(out, argb >> 8 & 0xFF);
+        CssColorWriter.appendHexByte(out, argb & 0xFF);
+    }
 
     @Override
-    protected String serializeColor(Color color) throws ConversionException {
-        return color.getCSS();
+    protected long scanArgb(CharSequence string) {
+        return CssColorParser.parseHex(string);
     }
 
     @Override
-    protected Color unserializeColor(String string) throws ConversionException {
-        Matcher m = HEX_PATTERN.matcher(string);
-        if (!m.matches()) {
-            throw new ConversionException("Could not convert '" + string
-                    + "' to a css hex color");
-        }
-        String hex = m.group(2);
-        if (hex.length() == 3) {
-            // Maybe a mathematically whay to do this?
-            StringBuilder sb = new StringBuilder(6);
-            for (char character : hex.toCharArray()) {
-                sb.append(character).append(character);
-            }
-            hex = sb.toString();
-        }
-        return new Color(Integer.parseInt(hex, 16));
+    protected String getNotation() {
+        return "css hex color";
     }
     
 }
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.converter;
+
+import com.vaadin.data.util.converter.Converter;
+import com.vaadin.shared.ui.colorpicker.Color;
+import eu.maxschuster.vaadin.colorpickerfield.color.ColorSpaces;
+import java.io.IOException;
+
+/**
+ * Base class for {@link Converter}s that convert between CSS {@code hsl()} color and {@link Color}.
+ * Accepts the CSS Color 4 syntax {@code hsl(H S L [/ A])} as well as the
+ * legacy {@code hsl(H, S%, L%)} and {@code hsla(H, S%, L%, A)} forms. The hue
+ * may be an angle ({@code deg}, {@code rad}, {@code grad}, {@code turn}),
+ * saturation and lightness are percentages.
+ * 
+ * @author Max Schuster
+ * @param <PRESENTATION> The presentation type. Must be compatible with what
+ * {@link #getPresentationType()} returns.
+ * @param <MODEL> The model type. Must be compatible with what
+ * {@link #getModelType()} returns.
+ */
+public abstract class AbstractHslColorConverter<PRESENTATION, MODEL> extends AbstractColorConverter<PRESENTATION, MODEL> {
+    
+    private static final long serialVersionUID = 1L;
+
+    public AbstractHslColorConverter(Class<PRESENTATION> presentationType, Class<MODEL> modelType) {
+        super(presentationType, modelType);
+    }
+
+    /**
+     * Writes {@code hsl(H S% L%)} or {@code hsl(H S% L% / A)}
+     */
+    @Override
+    protected void writeArgb(int argb, Appendable out) throws IOException {
+        int r = argb >> 16 & 0xFF;
+        int g = argb >> 8 & 0xFF;
+        int b = argb & 0xFF;
+        int max = Math.max(r, Math.max(g, b));
+        int min = Math.min(r, Math.min(g, b));
+        double lightness = (max + min) / 510d;
+        double saturation = max == min ? 0
+                : (max / 255d - lightness) / Math.min(lightness, 1 - lightness);
+        out.append("hsl(");
+        CssColorWriter.appendDecimal(out, ColorSpaces.hue(argb), 2);
+        out.append(' ');
+        CssColorWriter.appendDecimal(out, saturation * 100, 2);
+        out.append("% ");
+        CssColorWriter.appendDecimal(out, lightness * 100, 2);
+        out.append('%');
+        CssColorWriter.appendSlashAlpha(out, argb >>> 24);
+        out.append(')');
+    }
+
+    @Override
+    protected long scanArgb(CharSequence string) {
+        return CssColor4Parser.parse(string, CssColor4Parser.HSL);
+    }
+
+    @Override
+    protected String getNotation() {
+        return "css hsl color";
+    }
+    
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.converter;
+
+import com.vaadin.data.util.converter.Converter;
+import com.vaadin.shared.ui.colorpicker.Color;
+import eu.maxschuster.vaadin.colorpickerfield.color.ColorSpaces;
+import java.io.IOException;
+
+/**
+ * Base class for {@link Converter}s that convert between CSS {@code hwb()} color and {@link Color}.
+ * Accepts the CSS Color 4 syntax {@code hwb(H W B [/ A])}. The hue may be an
+ * angle ({@code deg}, {@code rad}, {@code grad}, {@code turn}), whiteness and
+ * blackness are percentages.
+ * 
+ * @author Max Schuster
+ * @param <PRESENTATION> The presentation type. Must be compatible with what
+ * {@link #getPresentationType()} returns.
+ * @param <MODEL> The model type. Must be compatible with what
+ * {@link #getModelType()} returns.
+ */
+public abstract class AbstractHwbColorConverter<PRESENTATION, MODEL> extends AbstractColorConverter<PRESENTATION, MODEL> {
+    
+    private static final long serialVersionUID = 1L;
+
+    public AbstractHwbColorConverter(Class<PRESENTATION> presentationType, Class<MODEL> modelType) {
+        super(presentationType, modelType);
+    }
+
+    /**
+     * Writes {@code hwb(H W% B%)} or {@code hwb(H W% B% / A)}
+     */
+    @Override
+    protected void writeArgb(int argb, Appendable out) throws IOException {
+        int r = argb >> 16 & 0xFF;
+        int g = argb >> 8 & 0xFF;
+        int b = argb & 0xFF;
+        out.append("hwb(");
+        CssColorWriter.appendDecimal(out, ColorSpaces.hue(argb), 2);
+        out.append(' ');
+        CssColorWriter.appendDecimal(out, Math.min(r, Math.min(g, b)) / 255d * 100, 2);
+        out.append("% ");
+        CssColorWriter.appendDecimal(out, (1 - Math.max(r, Math.max(g, b)) / 255d) * 100, 2);
+        out.append('%');
+        CssColorWriter.appendSlashAlpha(out, argb >>> 24);
+        out.append(')');
+    }
+
+    @Override
+    protected long scanArgb(CharSequence string) {
+        return CssColor4Parser.parse(string, CssColor4Parser.HWB);
+    }
+
+    @Override
+    protected String getNotation() {
+        return "css hwb color";
+    }
+    
+}
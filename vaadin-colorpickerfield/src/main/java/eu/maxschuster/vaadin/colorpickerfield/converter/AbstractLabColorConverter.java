@@ -0,0 +1,70 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.converter;
+
+import com.vaadin.data.util.converter.Converter;
+import com.vaadin.shared.ui.colorpicker.Color;
+import eu.maxschuster.vaadin.colorpickerfield.color.ColorSpaces;
+import java.io.IOException;
+
+/**
+ * Base class for {@link Converter}s that convert between CSS {@code lab()} color (CIE Lab, D50) and
+ * {@link Color}. Accepts the CSS Color 4 syntax {@code lab(L a b [/ A])}
+ * with numbers or percentages. Colors outside of the sRGB gamut are clipped.
+ * 
+ * @author Max Schuster
+ * @param <PRESENTATION> The presentation type. Must be compatible with what
+ * {@link #getPresentationType()} returns.
+ * @param <MODEL> The model type. Must be compatible with what
+ * {@link #getModelType()} returns.
+ */
+public abstract class AbstractLabColorConverter<PRESENTATION, MODEL> extends AbstractColorConverter<PRESENTATION, MODEL> {
+    
+    private static final long serialVersionUID = 1L;
+
+    public AbstractLabColorConverter(Class<PRESENTATION> presentationType, Class<MODEL> modelType) {
+        super(presentationType, modelType);
+    }
+
+    /**
+     * Writes {@code lab(L a b)} or {@code lab(L a b / A)}
+     */
+    @Override
+    protected void writeArgb(int argb, Appendable out) throws IOException {
+        double f0 = ColorSpaces.labAxis(argb, 0);
+        double f1 = ColorSpaces.labAxis(argb, 1);
+        double f2 = ColorSpaces.labAxis(argb, 2);
+        out.append("lab(");
+        CssColorWriter.appendDecimal(out, 116 * f1 - 16, 2);
+        out.append(' ');
+        CssColorWriter.appendDecimal(out, 500 * (f0 - f1), 2);
+        out.append(' ');
+        CssColorWriter.appendDecimal(out, 200 * (f1 - f2), 2);
+        CssColorWriter.appendSlashAlpha(out, argb >>> 24);
+        out.append(')');
+    }
+
+    @Override
+    protected long scanArgb(CharSequence string) {
+        return CssColor4Parser.parse(string, CssColor4Parser.LAB);
+    }
+
+    @Override
+    protected String getNotation() {
+        return "css lab color";
+    }
+    
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.converter;
+
+import com.vaadin.data.util.converter.Converter;
+import com.vaadin.shared.ui.colorpicker.Color;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Base class for {@link Converter}s that convert between CSS named colors
+ * ({@code rebeccapurple}, {@code teal}, ...) and {@link Color}.
+ * <p>
+ * Names are case-insensitive. The 148 CSS named colors and
+ * {@code transparent} are supported. Colors without a name are serialized
+ * as the name of the perceptually nearest named color unless
+ * {@link #setNearestMatch(boolean)} is disabled. Where several names share
+ * a color the first name in alphabetical order is written, e.g.
+ * {@code aqua} instead of {@code cyan}.
+ *
+ * @author Max Schuster
+ * @param <PRESENTATION> The presentation type. Must be compatible with what
+ * {@link #getPresentationType()} returns.
+ * @param <MODEL> The model type. Must be compatible with what
+ * {@link #getModelType()} returns.
+ */
+public abstract class AbstractNamedColorConverter<PRESENTATION, MODEL> extends AbstractColorConverter<PRESENTATION, MODEL> {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Serialize colors without a name as the nearest named color
+     */
+    private boolean nearestMatch = true;
+
+    public AbstractNamedColorConverter(Class<PRESENTATION> presentationType, Class<MODEL> modelType) {
+        super(presentationType, modelType);
+    }
+
+    /**
+     * @return {@code true} if colors without a name are serialized as the
+     * nearest named color
+     */
+    public boolean isNearestMatch() {
+        return nearestMatch;
+    }
+
+    /**
+     * Sets how colors without a name are serialized
+     *
+     * @param nearestMatch {@code true} to serialize them as the nearest
+     * named color, {@code false} to throw a {@link ConversionException}
+     */
+    public void setNearestMatch(boolean nearestMatch) {
+        this.nearestMatch = nearestMatch;
+        invalidateCacheRegion();
+    }
+
+    @Override
+    protected void writeArgb(int argb, Appendable out) throws IOException {
+        String name = nearestMatch
+                ? CssColorNames.nearestNameOf(argb)
+                : CssColorNames.nameOf(argb);
+        if (name == null) {
+            throw new ConversionException("The color 0x"
+                    + Integer.toHexString(argb) + " has no " + getNotation()
+                    + " name");
+        }
+        out.append(name);
+    }
+
+    @Override
+    protected long scanArgb(CharSequence string) {
+        return CssColorNames.parse(string);
+    }
+
+    @Override
+    protected String getNotation() {
+        return "css named color";
+    }
+
+    @Override
+    protected Object getCacheKey() {
+        return Arrays.asList(getClass(), nearestMatch);
+    }
+
+}
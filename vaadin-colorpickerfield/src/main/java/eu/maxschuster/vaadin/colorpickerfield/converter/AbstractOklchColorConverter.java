@@ -0,0 +1,75 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.converter;
+
+import com.vaadin.data.util.converter.Converter;
+import com.vaadin.shared.ui.colorpicker.Color;
+import eu.maxschuster.vaadin.colorpickerfield.color.ColorSpaces;
+import java.io.IOException;
+
+/**
+ * Base class for {@link Converter}s that convert between CSS {@code oklch()} color and {@link Color}.
+ * Accepts the CSS Color 4 syntax {@code oklch(L C H [/ A])} with numbers or
+ * percentages for lightness and chroma and an angle for the hue. Colors
+ * outside of the sRGB gamut are clipped.
+ * 
+ * @author Max Schuster
+ * @param <PRESENTATION> The presentation type. Must be compatible with what
+ * {@link #getPresentationType()} returns.
+ * @param <MODEL> The model type. Must be compatible with what
+ * {@link #getModelType()} returns.
+ */
+public abstract class AbstractOklchColorConverter<PRESENTATION, MODEL> extends AbstractColorConverter<PRESENTATION, MODEL> {
+    
+    private static final long serialVersionUID = 1L;
+
+    public AbstractOklchColorConverter(Class<PRESENTATION> presentationType, Class<MODEL> modelType) {
+        super(presentationType, modelType);
+    }
+
+    /**
+     * Writes {@code oklch(L C H)} or {@code oklch(L C H / A)}
+     */
+    @Override
+    protected void writeArgb(int argb, Appendable out) throws IOException {
+        double l = ColorSpaces.oklabCone(argb, 0);
+        double m = ColorSpaces.oklabCone(argb, 1);
+        double s = ColorSpaces.oklabCone(argb, 2);
+        double a = ColorSpaces.oklabAxis(l, m, s, 1);
+        double b = ColorSpaces.oklabAxis(l, m, s, 2);
+        double chroma = Math.sqrt(a * a + b * b);
+        out.append("oklch(");
+        CssColorWriter.appendDecimal(out, ColorSpaces.oklabAxis(l, m, s, 0), 5);
+        out.append(' ');
+        CssColorWriter.appendDecimal(out, chroma, 5);
+        out.append(' ');
+        // the hue of achromatic colors is meaningless noise
+        CssColorWriter.appendDecimal(out, chroma < 0.000005 ? 0 : ColorSpaces.atan2Degrees(b, a), 2);
+        CssColorWriter.appendSlashAlpha(out, argb >>> 24);
+        out.append(')');
+    }
+
+    @Override
+    protected long scanArgb(CharSequence string) {
+        return CssColor4Parser.parse(string, CssColor4Parser.OKLCH);
+    }
+
+    @Override
+    protected String getNotation() {
+        return "css oklch color";
+    }
+    
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.converter;
+
+import com.vaadin.data.util.converter.Converter;
+import com.vaadin.shared.ui.colorpicker.Color;
+import java.util.Locale;
+
+/**
+ * Base class for {@link Converter}s that convert between {@link Color} and a
+ * packed binary model type. The model holds the four channels directly, so
+ * storing and loading colors never parses or formats a string.
+ *
+ * @author Max Schuster
+ * @param <MODEL> The model type. Must be compatible with what
+ * {@link #getModelType()} returns.
+ */
+public abstract class AbstractPackedColorConverter<MODEL> implements Converter<Color, MODEL> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Class<MODEL> modelType;
+
+    public AbstractPackedColorConverter(Class<MODEL> modelType) {
+        this.modelType = modelType;
+    }
+
+    @Override
+    public MODEL convertToModel(Color value, Class<? extends MODEL> targetType, Locale locale) throws ConversionException {
+        if (value == null) {
+            return null;
+        }
+        return pack(value.getRGB());
+    }
+
+    @Override
+    public Color convertToPresentation(MODEL value, Class<? extends Color> targetType, Locale locale) throws ConversionException {
+        if (value == null) {
+            return null;
+        }
+        int argb = unpack(value);
+        return new Color(argb >> 16 & 0xFF, argb >> 8 & 0xFF, argb & 0xFF,
+                argb >>> 24);
+    }
+
+    @Override
+    public Class<MODEL> getModelType() {
+        return modelType;
+    }
+
+    @Override
+    public Class<Color> getPresentationType() {
+        return Color.class;
+    }
+
+    /**
+     * Packs a color into the model type
+     *
+     * @param argb The packed ARGB color ({@code 0xAARRGGBB})
+     * @return The model value
+     */
+    protected abstract MODEL pack(int argb);
+
+    /**
+     * Unpacks a color from the model type
+     *
+     * @param value The model value, never {@code null}
+     * @return The packed ARGB color ({@code 0xAARRGGBB})
+     * @throws ConversionException If the value is no valid packed color
+     */
+    protected abstract int unpack(MODEL value) throws ConversionException;
+
+}
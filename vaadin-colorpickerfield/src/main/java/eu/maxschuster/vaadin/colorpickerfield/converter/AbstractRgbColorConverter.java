@@ -17,8 +17,7 @@ package eu.maxschuster.vaadin.colorpickerfield.converter;
 
 import com.vaadin.data.util.converter.Converter;
 import com.vaadin.shared.ui.colorpicker.Color;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.io.IOException;
 
 /**
  * Base class for {@link Converter}s that convert between CSS rgb() color and {@link Color}
@@ -33,48 +32,53 @@ public abstract class AbstractRgbColorConverter<PRESENTATION, MODEL> extends Abs
     
     private static final long serialVersionUID = 1L;
 
-    private static final Pattern RGB_PATTERN = Pattern.compile(
-            "^rgb\\(\\s*(\\d{0,3})\\s*,\\s*(\\d{0,3})\\s*,\\s*(\\d{0,3})\\s*\\)$",
-            Pattern.CASE_INSENSITIVE);
-
     public AbstractRgbColorConverter(Class<PRESENTATION> presentationType, Class<MODEL> modelType) {
         super(presentationType, modelType);
     }
 
     @Override
-    protected String serializeColor(Color color) throws ConversionException {
-        return String.format("rgb(%d,%d,%d)",
-                color.getRed(), color.getGreen(), color.getBlue());
+    protected void writeArgb(int argb, Appendable out) throws IOException {
+        out.append("rgb(");
+        CssColorWriter.appendByte(out, argb >> 16 & 0xFF);
+        out.append(',');
+        CssColorWriter.appendByte(out, argb >> 8 & 0xFF);
+        out.append(',');
+        CssColorWriter.appendByte(out, argb & 0xFF);
+        out.append(')');
     }
 
     @Override
-    protected Color unserializeColor(String string) throws ConversionException {
-        Matcher m = RGB_PATTERN.matcher(string);
-        if (!m.matches()) {
-            throw new ConversionException("Could not convert '" + string
-                    + "' to a css rgb color");
-        }
-        int red = parseColor(m.group(1));
-        int greed = parseColor(m.group(2));
-        int blue = parseColor(m.group(3));
-        return new Color(red, greed, blue);
+    protected long scanArgb(CharSequence string) {
+        return CssColorParser.parseRgb(string, false);
+    }
+
+    @Override
+    protected String getNotation() {
+        return "css rgb color";
     }
 
+    /**
+     * Parses a single color channel between 0 and 255
+     *
+     * @param colorString The channel
+     * @return The channel value
+     * @throws ConversionException If the channel is invalid
+     * @deprecated Not used by the converter anymore, it parses the whole
+     * color in {@link #scanArgb(java.lang.CharSequence)}. Kept for
+     * subclasses.
+     */
+    @Deprecated
     protected int parseColor(String colorString) throws ConversionException {
         if (colorString == null) {
             throw new ConversionException("Color string mustn't be null");
         }
-        int color;
-        try {
-            color = Integer.valueOf(colorString);
-        } catch (NumberFormatException e) {
-            throw new ConversionException("Can't convert color string '"
-                    + colorString + "' to integer", e);
-        }
-        if (color < 0 || color > 255) {
-            throw new ConversionException("Illegal value of color '" + color + "'");
+        int length = colorString.length();
+        long result = CssColorParser.parseChannel(colorString, 0, length);
+        if (CssColorParser.isError(result) || (int) result != length) {
+            throw new ConversionException("Illegal value of color '"
+                    + colorString + "'");
         }
-        return color;
+        return (int) (result >>> 32);
     }
     
 }
@@ -17,8 +17,7 @@ package eu.maxschuster.vaadin.colorpickerfield.converter;
 
 import com.vaadin.data.util.converter.Converter;
 import com.vaadin.shared.ui.colorpicker.Color;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.io.IOException;
 
 /**
  * Base class for {@link Converter}s that convert between CSS rgba() color and {@link Color}
@@ -33,62 +32,78 @@ public abstract class AbstractRgbaColorConverter<PRESENTATION, MODEL> extends Ab
     
     private static final long serialVersionUID = 1L;
 
-    private static final Pattern RGBA_PATTERN = Pattern.compile(
-            "^rgba\\(\\s*(\\d{0,3})\\s*,\\s*(\\d{0,3})\\s*,\\s*(\\d{0,3})\\s*,\\s*([01](\\.\\d+)?)\\s*\\)$",
-            Pattern.CASE_INSENSITIVE);
-
     public AbstractRgbaColorConverter(Class<PRESENTATION> presentationType, Class<MODEL> modelType) {
         super(presentationType, modelType);
     }
 
     @Override
-    protected String serializeColor(Color color) throws ConversionException {
-        double alpha = intToDouble(color.getAlpha());
-        String alphaString;
-        if (alpha == (long) alpha) {
-            alphaString = String.format("%d", (long) alpha);
-        } else {
-            alphaString = String.format("%s", alpha);
-        }
-        return String.format("rgba(%d,%d,%d,%s)", color.getRed(),
-                color.getGreen(), color.getBlue(), alphaString);
+    protected void writeArgb(int argb, Appendable out) throws IOException {
+        out.append("rgba(");
+        CssColorWriter.appendByte(out, argb >> 16 & 0xFF);
+        out.append(',');
+        CssColorWriter.appendByte(out, argb >> 8 & 0xFF);
+        out.append(',');
+        CssColorWriter.appendByte(out, argb & 0xFF);
+        out.append(',');
+        out.append(CssAlphaTable.toString(argb >>> 24));
+        out.append(')');
     }
 
     @Override
-    protected Color unserializeColor(String string) throws ConversionException {
-        Matcher m = RGBA_PATTERN.matcher(string);
-        if (!m.matches()) {
-            throw new ConversionException("Could not convert '" + string
-                    + "' to a css rgba color");
-        }
-        int red = parseColor(m.group(1));
-        int greed = parseColor(m.group(2));
-        int blue = parseColor(m.group(3));
-        int alpha = parseAlpha(m.group(4));
-        return new Color(red, greed, blue, alpha);
+    protected long scanArgb(CharSequence string) {
+        return CssColorParser.parseRgb(string, true);
+    }
+
+    @Override
+    protected String getNotation() {
+        return "css rgba color";
     }
 
+    /**
+     * Parses an alpha value between 0 and 1
+     *
+     * @param colorString The alpha value
+     * @return The alpha value between 0 and 255
+     * @throws ConversionException If the alpha value is invalid
+     * @deprecated Not used by the converter anymore, it parses the whole
+     * color in {@link #scanArgb(java.lang.CharSequence)}. Kept for
+     * subclasses.
+     */
+    @Deprecated
     protected int parseAlpha(String colorString) throws ConversionException {
         if (colorString == null) {
             throw new ConversionException("Color string mustn't be null");
         }
-        double alpha;
-        try {
-            alpha = Double.valueOf(colorString);
-        } catch (NumberFormatException e) {
-            throw new ConversionException("Can't convert color string '"
-                    + colorString + "' to double", e);
+        int length = colorString.length();
+        long result = CssColorParser.parseAlpha(colorString, 0, length);
+        if (CssColorParser.isError(result) || (int) result != length) {
+            throw new ConversionException("Illegal value of alpha '"
+                    + colorString + "'");
         }
-        if (alpha < 0 || alpha > 1) {
-            throw new ConversionException("Illegal value of color '" + alpha + "'");
-        }
-        return doubleToInt(alpha);
+        return (int) (result >>> 32);
     }
 
+    /**
+     * @param alpha The alpha value between 0 and 255
+     * @return The alpha value between 0 and 1
+     * @deprecated Not used by the converter anymore, see
+     * {@link CssAlphaTable}. Kept for subclasses.
+     */
+    @Deprecated
     protected double intToDouble(int alpha) {
-        return alpha / 255d;
+        if (alpha < 0 || alpha > 255) {
+            return alpha / 255d;
+        }
+        return CssAlphaTable.toDouble(alpha);
     }
 
+    /**
+     * @param alpha The alpha value between 0 and 1
+     * @return The alpha value between 0 and 255
+     * @deprecated Not used by the converter anymore, see
+     * {@link CssAlphaTable}. Kept for subclasses.
+     */
+    @Deprecated
     protected int doubleToInt(double alpha) {
         return (int) Math.round(alpha * 255d);
     }
@@ -0,0 +1,402 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.converter;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Converts whole arrays and lists of colors with the notation of an
+ * {@link AbstractColorConverter} in one call.
+ * <p>
+ * Parsing never throws for invalid entries. Every entry is validated and
+ * failures are collected in a bitmap of the {@link ParseResult}, one bit
+ * per entry. Inputs with at least {@link #getParallelThreshold()} entries
+ * are split into chunks of whole 64 entry blocks and converted on a
+ * {@link ForkJoinPool}.
+ *
+ * @author Max Schuster
+ */
+public class BatchColorConverter implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Default minimum number of entries for parallel conversion
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 16384;
+
+    /**
+     * Entries per bitmap word and granularity of parallel chunks
+     */
+    private static final int BLOCK_SIZE = 64;
+
+    /**
+     * Minimum number of entries converted by a single parallel task
+     */
+    private static final int MIN_CHUNK_SIZE = 4096;
+
+    /**
+     * The converter that defines the notation
+     */
+    private final AbstractColorConverter<?, ?> converter;
+
+    /**
+     * Minimum number of entries for parallel conversion
+     */
+    private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+
+    /**
+     * The pool used for parallel conversion or {@code null} for the shared
+     * pool
+     */
+    private transient ForkJoinPool pool;
+
+    /**
+     * Creates a new batch converter
+     *
+     * @param converter The converter that defines the notation
+     */
+    public BatchColorConverter(AbstractColorConverter<?, ?> converter) {
+        if (converter == null) {
+            throw new NullPointerException("The converter mustn't be null!");
+        }
+        this.converter = converter;
+    }
+
+    /**
+     * @return The converter that defines the notation
+     */
+    public AbstractColorConverter<?, ?> getConverter() {
+        return converter;
+    }
+
+    /**
+     * @return The minimum number of entries for parallel conversion
+     */
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * Sets the minimum number of entries for parallel conversion
+     *
+     * @param parallelThreshold The minimum number of entries or
+     * {@link Integer#MAX_VALUE} to always convert sequentially
+     */
+    public void setParallelThreshold(int parallelThreshold) {
+        if (parallelThreshold < 1) {
+            throw new IllegalArgumentException("The threshold must be positive");
+        }
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * @return The pool used for parallel conversion
+     */
+    public ForkJoinPool getPool() {
+        return pool != null ? pool : SharedPool.INSTANCE;
+    }
+
+    /**
+     * Sets the pool used for parallel conversion
+     *
+     * @param pool The pool or {@code null} to use a pool shared by all batch
+     * converters
+     */
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Parses every entry of the given array
+     *
+     * @param strings The strings to parse. {@code null} entries are invalid.
+     * @return The result
+     */
+    public ParseResult parse(CharSequence[] strings) {
+        return parse(Arrays.asList(strings));
+    }
+
+    /**
+     * Parses every entry of the given list
+     *
+     * @param strings The strings to parse. {@code null} entries are invalid.
+     * @return The result
+     */
+    public ParseResult parse(List<? extends CharSequence> strings) {
+        if (!(strings instanceof RandomAccess)) {
+            strings = Arrays.asList(strings.toArray(new CharSequence[strings.size()]));
+        }
+        int size = strings.size();
+        ParseResult result = new ParseResult(size);
+        if (size >= parallelThreshold) {
+            result.errorCount = getPool().invoke(
+                    new ParseTask(strings, result, 0, size));
+        } else {
+            result.errorCount = parseRange(strings, result, 0, size);
+        }
+        return result;
+    }
+
+    /**
+     * Serializes every packed ARGB color of the given array
+     *
+     * @param argb The packed ARGB colors ({@code 0xAARRGGBB})
+     * @return The serialized colors
+     */
+    public String[] serialize(int[] argb) {
+        String[] strings = new String[argb.length];
+        if (argb.length >= parallelThreshold) {
+            getPool().invoke(new SerializeTask(argb, strings, 0, argb.length));
+        } else {
+            serializeRange(argb, strings, 0, argb.length);
+        }
+        return strings;
+    }
+
+    /**
+     * Serializes every packed ARGB color of the given array into a list
+     *
+     * @param argb The packed ARGB colors ({@code 0xAARRGGBB})
+     * @return A fixed-size list of the serialized colors
+     */
+    public List<String> serializeToList(int[] argb) {
+        return Arrays.asList(serialize(argb));
+    }
+
+    private int parseRange(List<? extends CharSequence> strings,
+            ParseResult result, int from, int to) {
+        final AbstractColorConverter<?, ?> c = converter;
+        final int[] argb = result.argb;
+        final long[] errors = result.errors;
+        int errorCount = 0;
+        for (int i = from; i < to; i++) {
+            CharSequence string = strings.get(i);
+            long value = string == null ? -1 : c.tryParseArgb(string);
+            if (value < 0) {
+                errors[i >>> 6] |= 1L << i;
+                errorCount++;
+            } else {
+                argb[i] = (int) value;
+            }
+        }
+        return errorCount;
+    }
+
+    private void serializeRange(int[] argb, String[] strings, int from, int to) {
+        final AbstractColorConverter<?, ?> c = converter;
+        final StringBuilder sb = new StringBuilder(32);
+        for (int i = from; i < to; i++) {
+            sb.setLength(0);
+            c.serializeArgb(argb[i], sb);
+            strings[i] = sb.toString();
+        }
+    }
+
+    /**
+     * Splits the range at a 64 entry block boundary, so no two tasks write
+     * to the same bitmap word
+     *
+     * @return The split index or {@code -1} if the range is too small
+     */
+    private static int split(int from, int to) {
+        if (to - from < 2 * MIN_CHUNK_SIZE) {
+            return -1;
+        }
+        return (from + (to - from) / 2) & -BLOCK_SIZE;
+    }
+
+    private final class ParseTask extends RecursiveTask<Integer> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<? extends CharSequence> strings;
+
+        private final ParseResult result;
+
+        private final int from;
+
+        private final int to;
+
+        ParseTask(List<? extends CharSequence> strings, ParseResult result,
+                int from, int to) {
+            this.strings = strings;
+            this.result = result;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Integer compute() {
+            int mid = split(from, to);
+            if (mid < 0) {
+                return parseRange(strings, result, from, to);
+            }
+            ParseTask right = new ParseTask(strings, result, mid, to);
+            right.fork();
+            int left = new ParseTask(strings, result, from, mid).compute();
+            return left + right.join();
+        }
+
+    }
+
+    private final class SerializeTask extends RecursiveTask<Void> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int[] argb;
+
+        private final String[] strings;
+
+        private final int from;
+
+        private final int to;
+
+        SerializeTask(int[] argb, String[] strings, int from, int to) {
+            this.argb = argb;
+            this.strings = strings;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Void compute() {
+            int mid = split(from, to);
+            if (mid < 0) {
+                serializeRange(argb, strings, from, to);
+                return null;
+            }
+            SerializeTask right = new SerializeTask(argb, strings, mid, to);
+            right.fork();
+            new SerializeTask(argb, strings, from, mid).compute();
+            right.join();
+            return null;
+        }
+
+    }
+
+    /**
+     * Lazily created pool shared by all batch converters
+     */
+    private static final class SharedPool {
+
+        static final ForkJoinPool INSTANCE = new ForkJoinPool();
+
+    }
+
+    /**
+     * The result of a batch parse. Invalid entries have the value {@code 0}
+     * and their bit set in the error bitmap.
+     */
+    public static final class ParseResult implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int[] argb;
+
+        private final long[] errors;
+
+        private int errorCount;
+
+        private ParseResult(int size) {
+            argb = new int[size];
+            errors = new long[(size + BLOCK_SIZE - 1) / BLOCK_SIZE];
+        }
+
+        /**
+         * @return The number of parsed entries
+         */
+        public int size() {
+            return argb.length;
+        }
+
+        /**
+         * Gets the packed ARGB colors. The array is not copied.
+         *
+         * @return The packed ARGB colors ({@code 0xAARRGGBB}), {@code 0} for
+         * invalid entries
+         */
+        public int[] getArgb() {
+            return argb;
+        }
+
+        /**
+         * Gets the error bitmap. Bit {@code i % 64} of word {@code i / 64}
+         * is set if entry {@code i} is invalid. The array is not copied.
+         *
+         * @return The error bitmap
+         */
+        public long[] getErrorBitmap() {
+            return errors;
+        }
+
+        /**
+         * @return The number of invalid entries
+         */
+        public int getErrorCount() {
+            return errorCount;
+        }
+
+        /**
+         * @return {@code true} if at least one entry is invalid
+         */
+        public boolean hasErrors() {
+            return errorCount != 0;
+        }
+
+        /**
+         * @param index The index of the entry
+         * @return {@code true} if the entry is invalid
+         */
+        public boolean isError(int index) {
+            if (index < 0 || index >= argb.length) {
+                throw new IndexOutOfBoundsException("Index: " + index);
+            }
+            return (errors[index >>> 6] & 1L << index) != 0;
+        }
+
+        /**
+         * Finds the next invalid entry
+         *
+         * @param fromIndex The index to start at
+         * @return The index of the next invalid entry or {@code -1}
+         */
+        public int nextErrorIndex(int fromIndex) {
+            if (fromIndex < 0) {
+                fromIndex = 0;
+            }
+            if (fromIndex >= argb.length) {
+                return -1;
+            }
+            int word = fromIndex >>> 6;
+            long bits = errors[word] & (-1L << fromIndex);
+            while (bits == 0) {
+                if (++word == errors.length) {
+                    return -1;
+                }
+                bits = errors[word];
+            }
+            return word * BLOCK_SIZE + Long.numberOfTrailingZeros(bits);
+        }
+
+    }
+
+}
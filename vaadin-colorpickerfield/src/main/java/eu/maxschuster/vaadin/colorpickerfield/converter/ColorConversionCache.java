@@ -0,0 +1,568 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.converter;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A bounded, thread-safe LRU cache for the results of
+ * {@link AbstractColorConverter}s. Caches both directions, {@link String} to
+ * packed ARGB and packed ARGB to {@link String}, separately for every
+ * notation. Only immutable values are cached, so a cache never hands out a
+ * {@link com.vaadin.shared.ui.colorpicker.Color} a caller could modify.
+ * <p>
+ * Each notation gets its own region with up to {@link #getMaximumSize()}
+ * entries per direction. Every region is split into lock-striped segments
+ * that evict their least recently used entry when full. The segments are
+ * array based and keyed by the primitive color or the characters of the
+ * string, so lookups that hit the cache do not allocate. At most
+ * {@value #MAXIMUM_REGIONS} regions are kept. A cache can be shared by any
+ * number of converters, sessions and threads, see {@link #getShared()}.
+ * <p>
+ * Enable caching with
+ * {@link AbstractColorConverter#setConversionCache(eu.maxschuster.vaadin.colorpickerfield.converter.ColorConversionCache)}.
+ *
+ * @author Max Schuster
+ */
+public final class ColorConversionCache implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Default maximum number of entries per notation and direction
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 4096;
+
+    /**
+     * Maximum number of regions, an arbitrary region is dropped when a new
+     * one would exceed it
+     */
+    public static final int MAXIMUM_REGIONS = 64;
+
+    /**
+     * Number of lock stripes per direction, must be a power of two
+     */
+    private static final int SEGMENTS = 16;
+
+    /**
+     * The JVM-wide shared cache
+     */
+    private static final ColorConversionCache SHARED
+            = new ColorConversionCache(DEFAULT_MAXIMUM_SIZE, true);
+
+    /**
+     * Maximum number of entries per notation and direction
+     */
+    private final int maximumSize;
+
+    /**
+     * Whether this is the JVM-wide shared cache
+     */
+    private final boolean shared;
+
+    /**
+     * The regions by notation
+     */
+    private transient volatile ConcurrentMap<Object, Region> regions;
+
+    /**
+     * Creates a new cache
+     *
+     * @param maximumSize Maximum number of entries per notation and
+     * direction
+     */
+    public ColorConversionCache(int maximumSize) {
+        this(maximumSize, false);
+    }
+
+    private ColorConversionCache(int maximumSize, boolean shared) {
+        if (maximumSize < SEGMENTS) {
+            throw new IllegalArgumentException("The maximum size must be at least "
+                    + SEGMENTS);
+        }
+        this.maximumSize = maximumSize;
+        this.shared = shared;
+        this.regions = new ConcurrentHashMap<Object, Region>();
+    }
+
+    /**
+     * Gets the JVM-wide shared cache with a maximum size of
+     * {@value #DEFAULT_MAXIMUM_SIZE}. Converters that are deserialized keep
+     * using the shared cache.
+     *
+     * @return The shared cache
+     */
+    public static ColorConversionCache getShared() {
+        return SHARED;
+    }
+
+    /**
+     * @return Maximum number of entries per notation and direction
+     */
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * @return The number of lookups answered by the cache
+     */
+    public long getHitCount() {
+        long hits = 0;
+        for (Region region : regions.values()) {
+            for (int i = 0; i < SEGMENTS; i++) {
+                hits += region.parsed[i].getHitCount() + region.serialized[i].getHitCount();
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * @return The number of lookups that had to convert
+     */
+    public long getMissCount() {
+        long misses = 0;
+        for (Region region : regions.values()) {
+            for (int i = 0; i < SEGMENTS; i++) {
+                misses += region.parsed[i].getMissCount() + region.serialized[i].getMissCount();
+            }
+        }
+        return misses;
+    }
+
+    /**
+     * @return The number of cached entries
+     */
+    public int size() {
+        int size = 0;
+        for (Region region : regions.values()) {
+            for (int i = 0; i < SEGMENTS; i++) {
+                size += region.parsed[i].size() + region.serialized[i].size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Removes all entries and resets the counters
+     */
+    public void clear() {
+        for (Region region : regions.values()) {
+            for (int i = 0; i < SEGMENTS; i++) {
+                region.parsed[i].clear();
+                region.serialized[i].clear();
+            }
+        }
+    }
+
+    /**
+     * Gets the region for the given notation
+     *
+     * @param notation An object identifying the notation, e.g. the converter
+     * type
+     * @return The region
+     */
+    Region getRegion(Object notation) {
+        Region region = regions.get(notation);
+        if (region == null) {
+            if (regions.size() >= MAXIMUM_REGIONS) {
+                // converters that still use the dropped region keep working
+                Iterator<Region> iterator = regions.values().iterator();
+                if (iterator.hasNext()) {
+                    iterator.next();
+                    iterator.remove();
+                }
+            }
+            region = new Region(maximumSize);
+            Region existing = regions.putIfAbsent(notation, region);
+            if (existing != null) {
+                region = existing;
+            }
+        }
+        return region;
+    }
+
+    private Object readResolve() {
+        return shared ? SHARED : new ColorConversionCache(maximumSize);
+    }
+
+    /**
+     * Spreads the bits of a hash code
+     */
+    private static int spread(int h) {
+        h ^= (h >>> 16);
+        return h ^ (h >>> 4);
+    }
+
+    /**
+     * The cached conversions of one notation
+     */
+    static final class Region {
+
+        private final ParsedSegment[] parsed = new ParsedSegment[SEGMENTS];
+
+        private final SerializedSegment[] serialized = new SerializedSegment[SEGMENTS];
+
+        private Region(int maximumSize) {
+            for (int i = 0; i < SEGMENTS; i++) {
+                parsed[i] = new ParsedSegment(maximumSize / SEGMENTS);
+                serialized[i] = new SerializedSegment(maximumSize / SEGMENTS);
+            }
+        }
+
+        /**
+         * Gets the cached result of
+         * {@link AbstractColorConverter#scanArgb(java.lang.CharSequence)} or
+         * scans and caches it.
+         *
+         * @param converter The converter to scan with on a miss
+         * @param string The string to parse
+         * @return The packed ARGB color or an error result
+         */
+        long parse(AbstractColorConverter<?, ?> converter, CharSequence string) {
+            int hash = hash(string);
+            ParsedSegment segment = parsed[spread(hash) & (SEGMENTS - 1)];
+            synchronized (segment) {
+                int slot = segment.find(hash, string);
+                if (slot >= 0) {
+                    segment.hit(slot);
+                    return segment.results[slot];
+                }
+                segment.misses++;
+            }
+            String key = string.toString();
+            long result = converter.scanArgb(key);
+            synchronized (segment) {
+                segment.put(hash, key, result);
+            }
+            return result;
+        }
+
+        /**
+         * Gets the cached serialization of the given color or serializes and
+         * caches it.
+         *
+         * @param converter The converter to serialize with on a miss
+         * @param argb The packed ARGB color
+         * @return The serialized color
+         */
+        String serialize(AbstractColorConverter<?, ?> converter, int argb) {
+            SerializedSegment segment = serialized[spread(argb) & (SEGMENTS - 1)];
+            synchronized (segment) {
+                int slot = segment.find(argb);
+                if (slot >= 0) {
+                    segment.hit(slot);
+                    return segment.strings[slot];
+                }
+                segment.misses++;
+            }
+            String result = converter.serializeArgbUncached(argb);
+            synchronized (segment) {
+                segment.put(argb, result);
+            }
+            return result;
+        }
+
+        /**
+         * Same as {@link String#hashCode()} for any {@link CharSequence}
+         */
+        private static int hash(CharSequence string) {
+            if (string instanceof String) {
+                return string.hashCode();
+            }
+            int hash = 0;
+            for (int i = 0, length = string.length(); i < length; i++) {
+                hash = 31 * hash + string.charAt(i);
+            }
+            return hash;
+        }
+
+    }
+
+    /**
+     * A fixed capacity hash table of slots kept in least recently used order.
+     * Subclasses store the keys and values of the slots in arrays. Guarded by
+     * its own monitor.
+     */
+    private abstract static class Segment {
+
+        private static final int NONE = -1;
+
+        private final int capacity;
+
+        /**
+         * First slot of each bucket
+         */
+        private final int[] buckets;
+
+        /**
+         * Turns a hash code into a bucket index
+         */
+        private final int shift;
+
+        /**
+         * Hash code of the key of each slot
+         */
+        final int[] hashes;
+
+        /**
+         * Next slot in the same bucket
+         */
+        private final int[] chain;
+
+        /**
+         * Neighbours in access order, from the eldest to the newest slot
+         */
+        private final int[] before;
+        private final int[] after;
+
+        private int eldest = NONE;
+        private int newest = NONE;
+        private int size;
+
+        private long hits;
+
+        long misses;
+
+        Segment(int capacity) {
+            this.capacity = capacity;
+            int tableSize = Integer.highestOneBit(capacity * 2 - 1) << 1;
+            buckets = new int[tableSize];
+            Arrays.fill(buckets, NONE);
+            shift = Integer.numberOfLeadingZeros(tableSize) + 1;
+            hashes = new int[capacity];
+            chain = new int[capacity];
+            before = new int[capacity];
+            after = new int[capacity];
+        }
+
+        /**
+         * Independent of the bits that select the segment
+         */
+        private int bucket(int hash) {
+            return (hash * 0x9E3779B9) >>> shift;
+        }
+
+        /**
+         * @return The first slot of the bucket of the given hash code
+         */
+        final int first(int hash) {
+            return buckets[bucket(hash)];
+        }
+
+        /**
+         * @return The next slot in the same bucket
+         */
+        final int next(int slot) {
+            return chain[slot];
+        }
+
+        /**
+         * Marks the given slot as newest
+         */
+        final void hit(int slot) {
+            hits++;
+            if (slot != newest) {
+                unlink(slot);
+                linkNewest(slot);
+            }
+        }
+
+        /**
+         * Gets a slot for a new key, evicting the eldest slot if full
+         */
+        final int allocate(int hash) {
+            int slot;
+            if (size < capacity) {
+                slot = size++;
+            } else {
+                slot = eldest;
+                removeFromBucket(slot);
+                unlink(slot);
+            }
+            int bucket = bucket(hash);
+            hashes[slot] = hash;
+            chain[slot] = buckets[bucket];
+            buckets[bucket] = slot;
+            linkNewest(slot);
+            return slot;
+        }
+
+        private void removeFromBucket(int slot) {
+            int bucket = bucket(hashes[slot]);
+            if (buckets[bucket] == slot) {
+                buckets[bucket] = chain[slot];
+                return;
+            }
+            for (int s = buckets[bucket]; s != NONE; s = chain[s]) {
+                if (chain[s] == slot) {
+                    chain[s] = chain[slot];
+                    return;
+                }
+            }
+        }
+
+        private void unlink(int slot) {
+            int b = before[slot];
+            int a = after[slot];
+            if (b == NONE) {
+                eldest = a;
+            } else {
+                after[b] = a;
+            }
+            if (a == NONE) {
+                newest = b;
+            } else {
+                before[a] = b;
+            }
+        }
+
+        private void linkNewest(int slot) {
+            before[slot] = newest;
+            after[slot] = NONE;
+            if (newest == NONE) {
+                eldest = slot;
+            } else {
+                after[newest] = slot;
+            }
+            newest = slot;
+        }
+
+        final synchronized long getHitCount() {
+            return hits;
+        }
+
+        final synchronized long getMissCount() {
+            return misses;
+        }
+
+        final synchronized int size() {
+            return size;
+        }
+
+        final synchronized void clear() {
+            Arrays.fill(buckets, NONE);
+            eldest = NONE;
+            newest = NONE;
+            size = 0;
+            hits = 0;
+            misses = 0;
+            clearValues();
+        }
+
+        /**
+         * Releases the references held by the slots
+         */
+        abstract void clearValues();
+
+    }
+
+    /**
+     * Maps strings to parse results
+     */
+    private static final class ParsedSegment extends Segment {
+
+        private final String[] strings;
+
+        final long[] results;
+
+        ParsedSegment(int capacity) {
+            super(capacity);
+            strings = new String[capacity];
+            results = new long[capacity];
+        }
+
+        int find(int hash, CharSequence string) {
+            for (int s = first(hash); s >= 0; s = next(s)) {
+                if (hashes[s] == hash && contentEquals(strings[s], string)) {
+                    return s;
+                }
+            }
+            return -1;
+        }
+
+        void put(int hash, String string, long result) {
+            int slot = find(hash, string);
+            if (slot < 0) {
+                slot = allocate(hash);
+                strings[slot] = string;
+            }
+            results[slot] = result;
+        }
+
+        @Override
+        void clearValues() {
+            Arrays.fill(strings, null);
+        }
+
+        private static boolean contentEquals(String cached, CharSequence string) {
+            if (string instanceof String) {
+                return cached.equals(string);
+            }
+            int length = cached.length();
+            if (string.length() != length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (cached.charAt(i) != string.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+    }
+
+    /**
+     * Maps packed ARGB colors to serialized strings
+     */
+    private static final class SerializedSegment extends Segment {
+
+        final String[] strings;
+
+        SerializedSegment(int capacity) {
+            super(capacity);
+            strings = new String[capacity];
+        }
+
+        int find(int argb) {
+            for (int s = first(argb); s >= 0; s = next(s)) {
+                if (hashes[s] == argb) {
+                    return s;
+                }
+            }
+            return -1;
+        }
+
+        void put(int argb, String string) {
+            int slot = find(argb);
+            if (slot < 0) {
+                slot = allocate(argb);
+            }
+            strings[slot] = string;
+        }
+
+        @Override
+        void clearValues() {
+            Arrays.fill(strings, null);
+        }
+
+    }
+
+}
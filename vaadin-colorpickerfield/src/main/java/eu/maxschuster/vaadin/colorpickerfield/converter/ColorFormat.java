@@ -0,0 +1,346 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.converter;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A compiled template that serializes packed ARGB colors.
+ * <p>
+ * The template is compiled once into a small array of instructions that is
+ * executed for every color, without reflection, {@link java.util.Formatter}
+ * or temporary strings. Instances are immutable and can be shared between
+ * converters and threads.
+ * <p>
+ * Everything outside of braces is copied literally, <code>{{</code> and
+ * <code>}}</code> write single braces. Placeholders:
+ * <ul>
+ * <li>{@code {r}}, {@code {g}}, {@code {b}}: the channel as decimal number
+ * between 0 and 255</li>
+ * <li>{@code {a}}: the alpha channel as number between 0 and 1</li>
+ * <li>{@code {r:d}}, {@code {a:d}}, ...: the channel as decimal number
+ * between 0 and 255</li>
+ * <li>{@code {r:x}}, {@code {r:X}}, ...: the channel as two lower or upper
+ * case hex digits</li>
+ * <li>{@code {r:%}}, ...: the channel as percentage with up to two
+ * fractional digits, e.g. {@code 50.2%}</li>
+ * <li>{@code {hex}}, {@code {HEX}}: the red, green and blue channels as
+ * lower or upper case hex digits, shortened to three digits if possible</li>
+ * <li>{@code {hexa}}, {@code {HEXA}}: like {@code {hex}} followed by the
+ * alpha channel, shortened to four digits if possible</li>
+ * </ul>
+ * For example {@code #{HEX}} writes {@code #FFF} and {@code #0FE000},
+ * {@code rgb({r}, {g}, {b})} writes {@code rgb(15, 224, 0)}.
+ * <p>
+ * A format only changes how colors are written. Choose a template the
+ * parser of the converter accepts if values have to be read back.
+ *
+ * @author Max Schuster
+ */
+public final class ColorFormat implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Writes {@code #rrggbb} like the {@link ColorToHexConverter}
+     */
+    public static final ColorFormat HEX = compile("#{r:x}{g:x}{b:x}");
+
+    /**
+     * Writes {@code rgb(r,g,b)} like the {@link ColorToRgbConverter}
+     */
+    public static final ColorFormat RGB = compile("rgb({r},{g},{b})");
+
+    /**
+     * Writes {@code rgba(r,g,b,a)} like the {@link ColorToRgbaConverter}
+     */
+    public static final ColorFormat RGBA = compile("rgba({r},{g},{b},{a})");
+
+    /**
+     * Instructions. The lower four bits hold the opcode, the upper bits the
+     * operand: the index of a literal, the shift of a channel or the
+     * {@link #HEX_UPPER_CASE} and {@link #HEX_ALPHA} flags.
+     */
+    private static final int OP_LITERAL = 0;
+    private static final int OP_DECIMAL = 1;
+    private static final int OP_HEX = 2;
+    private static final int OP_UPPER_HEX = 3;
+    private static final int OP_PERCENT = 4;
+    private static final int OP_FRACTION = 5;
+    private static final int OP_SHORTEST_HEX = 6;
+
+    private static final int OPERAND_SHIFT = 4;
+
+    private static final int HEX_UPPER_CASE = 1;
+    private static final int HEX_ALPHA = 2;
+
+    private static final char[] LOWER_HEX_DIGITS = "0123456789abcdef".toCharArray();
+    private static final char[] UPPER_HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    /**
+     * The source template
+     */
+    private final String pattern;
+
+    /**
+     * The compiled instructions
+     */
+    private final int[] instructions;
+
+    /**
+     * The literal parts of the template
+     */
+    private final String[] literals;
+
+    private ColorFormat(String pattern, int[] instructions, String[] literals) {
+        this.pattern = pattern;
+        this.instructions = instructions;
+        this.literals = literals;
+    }
+
+    /**
+     * Compiles the given template
+     *
+     * @param pattern The template
+     * @return The compiled format
+     * @throws IllegalArgumentException If the template is invalid
+     */
+    public static ColorFormat compile(String pattern) {
+        if (pattern == null) {
+            throw new NullPointerException("The pattern mustn't be null!");
+        }
+        final int length = pattern.length();
+        List<String> literals = new ArrayList<String>();
+        int[] instructions = new int[length];
+        int count = 0;
+        StringBuilder literal = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            char c = pattern.charAt(i);
+            if (c == '}') {
+                if (i + 1 == length || pattern.charAt(i + 1) != '}') {
+                    throw invalidPattern(pattern, i, "unmatched '}'");
+                }
+                literal.append(c);
+                i++;
+            } else if (c != '{') {
+                literal.append(c);
+            } else if (i + 1 < length && pattern.charAt(i + 1) == '{') {
+                literal.append(c);
+                i++;
+            } else {
+                int end = pattern.indexOf('}', i);
+                if (end < 0) {
+                    throw invalidPattern(pattern, i, "unclosed '{'");
+                }
+                if (literal.length() != 0) {
+                    instructions[count++] = instruction(OP_LITERAL, literals.size());
+                    literals.add(literal.toString());
+                    literal.setLength(0);
+                }
+                instructions[count++] = compilePlaceholder(pattern, i + 1, end);
+                i = end;
+            }
+        }
+        if (literal.length() != 0) {
+            instructions[count++] = instruction(OP_LITERAL, literals.size());
+            literals.add(literal.toString());
+        }
+        int[] trimmed = new int[count];
+        System.arraycopy(instructions, 0, trimmed, 0, count);
+        return new ColorFormat(pattern, trimmed,
+                literals.toArray(new String[literals.size()]));
+    }
+
+    private static int compilePlaceholder(String pattern, int start, int end) {
+        String placeholder = pattern.substring(start, end);
+        if (placeholder.equals("hex")) {
+            return instruction(OP_SHORTEST_HEX, 0);
+        } else if (placeholder.equals("HEX")) {
+            return instruction(OP_SHORTEST_HEX, HEX_UPPER_CASE);
+        } else if (placeholder.equals("hexa")) {
+            return instruction(OP_SHORTEST_HEX, HEX_ALPHA);
+        } else if (placeholder.equals("HEXA")) {
+            return instruction(OP_SHORTEST_HEX, HEX_ALPHA | HEX_UPPER_CASE);
+        }
+        int shift;
+        switch (placeholder.isEmpty() ? 0 : placeholder.charAt(0)) {
+            case 'r':
+                shift = 16;
+                break;
+            case 'g':
+                shift = 8;
+                break;
+            case 'b':
+                shift = 0;
+                break;
+            case 'a':
+                shift = 24;
+                break;
+            default:
+                throw invalidPattern(pattern, start, "unknown placeholder '"
+                        + placeholder + "'");
+        }
+        if (placeholder.length() == 1) {
+            return instruction(shift == 24 ? OP_FRACTION : OP_DECIMAL, shift);
+        }
+        if (placeholder.length() == 3 && placeholder.charAt(1) == ':') {
+            switch (placeholder.charAt(2)) {
+                case 'd':
+                    return instruction(OP_DECIMAL, shift);
+                case 'x':
+                    return instruction(OP_HEX, shift);
+                case 'X':
+                    return instruction(OP_UPPER_HEX, shift);
+                case '%':
+                    return instruction(OP_PERCENT, shift);
+                default:
+                    break;
+            }
+        }
+        throw invalidPattern(pattern, start, "unknown placeholder '"
+                + placeholder + "'");
+    }
+
+    private static int instruction(int opcode, int operand) {
+        return operand << OPERAND_SHIFT | opcode;
+    }
+
+    private static IllegalArgumentException invalidPattern(String pattern,
+            int index, String reason) {
+        return new IllegalArgumentException("Invalid color format '" + pattern
+                + "': " + reason + " at index " + index);
+    }
+
+    /**
+     * @return The source template
+     */
+    public String getPattern() {
+        return pattern;
+    }
+
+    /**
+     * Formats the given packed ARGB color
+     *
+     * @param argb The packed ARGB color ({@code 0xAARRGGBB})
+     * @param out The {@link Appendable} to write to
+     * @throws IOException If the {@link Appendable} throws
+     */
+    public void format(int argb, Appendable out) throws IOException {
+        for (int instruction : instructions) {
+            int operand = instruction >>> OPERAND_SHIFT;
+            switch (instruction & ((1 << OPERAND_SHIFT) - 1)) {
+                case OP_LITERAL:
+                    out.append(literals[operand]);
+                    break;
+                case OP_DECIMAL:
+                    CssColorWriter.appendByte(out, argb >>> operand & 0xFF);
+                    break;
+                case OP_HEX:
+                    appendHexByte(out, argb >>> operand & 0xFF, LOWER_HEX_DIGITS);
+                    break;
+                case OP_UPPER_HEX:
+                    appendHexByte(out, argb >>> operand & 0xFF, UPPER_HEX_DIGITS);
+                    break;
+                case OP_PERCENT:
+                    CssColorWriter.appendDecimal(out,
+                            (argb >>> operand & 0xFF) * 100 / 255d, 2);
+                    out.append('%');
+                    break;
+                case OP_FRACTION:
+                    out.append(CssAlphaTable.toString(argb >>> 24));
+                    break;
+                default:
+                    appendShortestHex(out, argb, operand);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Formats the given packed ARGB color
+     *
+     * @param argb The packed ARGB color ({@code 0xAARRGGBB})
+     * @param out The {@link StringBuilder} to append to
+     */
+    public void format(int argb, StringBuilder out) {
+        try {
+            format(argb, (Appendable) out);
+        } catch (IOException e) {
+            // StringBuilder never throws
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * Formats the given packed ARGB color
+     *
+     * @param argb The packed ARGB color ({@code 0xAARRGGBB})
+     * @return The formatted color
+     */
+    public String format(int argb) {
+        StringBuilder sb = new StringBuilder(32);
+        format(argb, sb);
+        return sb.toString();
+    }
+
+    private static void appendHexByte(Appendable out, int value, char[] digits) throws IOException {
+        out.append(digits[value >> 4]);
+        out.append(digits[value & 0xF]);
+    }
+
+    private static void appendShortestHex(Appendable out, int argb, int flags) throws IOException {
+        char[] digits = (flags & HEX_UPPER_CASE) != 0 ? UPPER_HEX_DIGITS : LOWER_HEX_DIGITS;
+        boolean alpha = (flags & HEX_ALPHA) != 0;
+        int value = alpha ? argb : argb | 0xFF000000;
+        // every byte consists of two equal nibbles
+        boolean shorthand = ((value ^ value >>> 4) & 0x0F0F0F0F) == 0;
+        if (shorthand) {
+            out.append(digits[argb >> 16 & 0xF]);
+            out.append(digits[argb >> 8 & 0xF]);
+            out.append(digits[argb & 0xF]);
+            if (alpha) {
+                out.append(digits[argb >>> 24 & 0xF]);
+            }
+        } else {
+            appendHexByte(out, argb >> 16 & 0xFF, digits);
+            appendHexByte(out, argb >> 8 & 0xFF, digits);
+            appendHexByte(out, argb & 0xFF, digits);
+            if (alpha) {
+                appendHexByte(out, argb >>> 24, digits);
+            }
+        }
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof ColorFormat
+                && ((ColorFormat) obj).pattern.equals(pattern);
+    }
+
+    @Override
+    public int hashCode() {
+        return pattern.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return pattern;
+    }
+
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.converter;
+
+import com.vaadin.data.util.converter.Converter;
+import com.vaadin.shared.ui.colorpicker.Color;
+import eu.maxschuster.vaadin.colorpickerfield.ArgbColor;
+import java.util.Locale;
+
+/**
+ * A {@link Converter} that can convert a {@link Color} to an immutable
+ * {@link ArgbColor} and back. Set it on a color picker field to bind the
+ * field to a property of type {@link ArgbColor}.
+ *
+ * @author Max Schuster
+ */
+public class ColorToArgbColorConverter implements Converter<Color, ArgbColor> {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public ArgbColor convertToModel(Color value, Class<? extends ArgbColor> targetType, Locale locale) throws ConversionException {
+        return ArgbColor.valueOf(value);
+    }
+
+    @Override
+    public Color convertToPresentation(ArgbColor value, Class<? extends Color> targetType, Locale locale) throws ConversionException {
+        if (value == null) {
+            return null;
+        }
+        return value.toColor();
+    }
+
+    @Override
+    public Class<ArgbColor> getModelType() {
+        return ArgbColor.class;
+    }
+
+    @Override
+    public Class<Color> getPresentationType() {
+        return Color.class;
+    }
+
+}
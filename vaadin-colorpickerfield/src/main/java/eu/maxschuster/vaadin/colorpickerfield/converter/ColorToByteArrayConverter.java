@@ -0,0 +1,65 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.converter;
+
+import com.vaadin.data.util.converter.Converter;
+import com.vaadin.shared.ui.colorpicker.Color;
+
+/**
+ * A {@link Converter} that can convert a {@link Color} to a {@code byte[]}
+ * and back. The array has a length of 4 and holds the channels in RGBA
+ * order, the order of a CSS {@code #RRGGBBAA} color: red at index 0, green
+ * at 1, blue at 2 and alpha at 3. Use
+ * {@link java.nio.ByteBuffer#wrap(byte[])} to read or write it as
+ * big-endian {@code int} ({@code 0xRRGGBBAA}).
+ *
+ * @author Max Schuster
+ */
+public class ColorToByteArrayConverter extends AbstractPackedColorConverter<byte[]> {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The number of bytes of a packed color
+     */
+    public static final int LENGTH = 4;
+
+    public ColorToByteArrayConverter() {
+        super(byte[].class);
+    }
+
+    @Override
+    protected byte[] pack(int argb) {
+        return new byte[]{
+            (byte) (argb >> 16),
+            (byte) (argb >> 8),
+            (byte) argb,
+            (byte) (argb >>> 24)
+        };
+    }
+
+    @Override
+    protected int unpack(byte[] value) throws ConversionException {
+        if (value.length != LENGTH) {
+            throw new ConversionException("Could not convert a byte[] of "
+                    + "length " + value.length + " to a color: expected "
+                    + LENGTH + " bytes");
+        }
+        return (value[3] & 0xFF) << 24 | (value[0] & 0xFF) << 16
+                | (value[1] & 0xFF) << 8 | value[2] & 0xFF;
+    }
+
+}
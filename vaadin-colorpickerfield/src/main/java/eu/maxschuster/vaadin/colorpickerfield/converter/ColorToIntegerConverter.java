@@ -0,0 +1,47 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.converter;
+
+import com.vaadin.data.util.converter.Converter;
+import com.vaadin.shared.ui.colorpicker.Color;
+
+/**
+ * A {@link Converter} that can convert a {@link Color} to an {@link Integer}
+ * and back. The integer holds the channels in ARGB order
+ * ({@code 0xAARRGGBB}), the same value {@link Color#getRGB()} returns.
+ * Opaque colors are negative.
+ *
+ * @author Max Schuster
+ */
+public class ColorToIntegerConverter extends AbstractPackedColorConverter<Integer> {
+
+    private static final long serialVersionUID = 1L;
+
+    public ColorToIntegerConverter() {
+        super(Integer.class);
+    }
+
+    @Override
+    protected Integer pack(int argb) {
+        return argb;
+    }
+
+    @Override
+    protected int unpack(Integer value) {
+        return value;
+    }
+
+}
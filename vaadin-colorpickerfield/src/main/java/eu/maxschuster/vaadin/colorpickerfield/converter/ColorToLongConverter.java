@@ -0,0 +1,52 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.converter;
+
+import com.vaadin.data.util.converter.Converter;
+import com.vaadin.shared.ui.colorpicker.Color;
+
+/**
+ * A {@link Converter} that can convert a {@link Color} to a {@link Long}
+ * and back. The long holds the channels in ARGB order
+ * ({@code 0xAARRGGBB}) in its lower 32 bits and is never negative, so it
+ * sorts like the unsigned ARGB value.
+ *
+ * @author Max Schuster
+ */
+public class ColorToLongConverter extends AbstractPackedColorConverter<Long> {
+
+    private static final long serialVersionUID = 1L;
+
+    public ColorToLongConverter() {
+        super(Long.class);
+    }
+
+    @Override
+    protected Long pack(int argb) {
+        return argb & 0xFFFFFFFFL;
+    }
+
+    @Override
+    protected int unpack(Long value) throws ConversionException {
+        long argb = value;
+        if ((argb & ~0xFFFFFFFFL) != 0) {
+            throw new ConversionException("Could not convert '" + value
+                    + "' to a color: not between 0 and 0xFFFFFFFF");
+        }
+        return (int) argb;
+    }
+
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.converter;
+
+/**
+ * Precomputed conversions between alpha bytes and their CSS decimal
+ * representation. There are only 256 alpha values, so every conversion is a
+ * table lookup.
+ *
+ * @author Max Schuster
+ */
+final class CssAlphaTable {
+
+    /**
+     * Number of fractional digits covered by {@link #BYTES_BY_MILLI}
+     */
+    static final int MILLI_DIGITS = 3;
+
+    /**
+     * {@code alpha / 255d} for every alpha byte
+     */
+    private static final double[] VALUES = new double[256];
+
+    /**
+     * The CSS decimal string for every alpha byte. {@code "0"} and {@code "1"}
+     * for the integral values, {@link Double#toString(double)} otherwise.
+     */
+    private static final String[] STRINGS = new String[256];
+
+    /**
+     * The shortest CSS decimal string for every alpha byte that parses back
+     * to the same byte
+     */
+    private static final String[] SHORT_STRINGS = new String[256];
+
+    /**
+     * The alpha byte for every decimal value with up to
+     * {@value #MILLI_DIGITS} fractional digits, indexed by thousandths.
+     */
+    private static final byte[] BYTES_BY_MILLI = new byte[1001];
+
+    static {
+        for (int alpha = 0; alpha < VALUES.length; alpha++) {
+            double value = alpha / 255d;
+            VALUES[alpha] = value;
+            STRINGS[alpha] = value == (long) value
+                    ? Long.toString((long) value) : Double.toString(value);
+        }
+        for (int milli = 0; milli < BYTES_BY_MILLI.length; milli++) {
+            // round half up like Math.round(milli / 1000d * 255)
+            BYTES_BY_MILLI[milli] = (byte) ((milli * 510 + 1000) / 2000);
+        }
+        for (int alpha = 0; alpha < SHORT_STRINGS.length; alpha++) {
+            for (int digits = 0, scale = 1; digits <= MILLI_DIGITS; digits++, scale *= 10) {
+                int value = (alpha * scale * 2 + 255) / 510;
+                if (fromMilli(value * (1000 / scale)) == alpha) {
+                    SHORT_STRINGS[alpha] = value == scale ? "1" : value == 0 ? "0"
+                            : "0." + Integer.toString(value + scale).substring(1)
+                                    .replaceAll("0+$", "");
+                    break;
+                }
+            }
+        }
+    }
+
+    private CssAlphaTable() {
+    }
+
+    /**
+     * @param alpha The alpha byte
+     * @return {@code alpha / 255d}
+     */
+    static double toDouble(int alpha) {
+        return VALUES[alpha];
+    }
+
+    /**
+     * @param alpha The alpha byte
+     * @return The CSS decimal string of the alpha byte
+     */
+    static String toString(int alpha) {
+        return STRINGS[alpha];
+    }
+
+    /**
+     * @param alpha The alpha byte
+     * @return The shortest CSS decimal string that parses back to the alpha
+     * byte
+     */
+    static String toShortString(int alpha) {
+        return SHORT_STRINGS[alpha];
+    }
+
+    /**
+     * @param milli The alpha value in thousandths between 0 and 1000
+     * @return The rounded alpha byte
+     */
+    static int fromMilli(int milli) {
+        return BYTES_BY_MILLI[milli] & 0xFF;
+    }
+
+}
@@ -0,0 +1,385 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.converter;
+
+import eu.maxschuster.vaadin.colorpickerfield.color.ColorSpaces;
+
+/**
+ * Single-pass, allocation-free scanner for the functional notations of CSS
+ * Color Module Level 4: {@code hsl()}/{@code hsla()}, {@code hwb()},
+ * {@code lab()} and {@code oklch()}.
+ * <p>
+ * Arguments are separated by whitespace with an optional {@code / alpha}.
+ * {@code hsl()} also accepts the legacy comma separated form. Numbers are
+ * read into fixed-point values with six fractional digits. Results and
+ * errors are encoded like the results of {@link CssColorParser}.
+ *
+ * @author Max Schuster
+ */
+final class CssColor4Parser {
+
+    static final int HSL = 0;
+    static final int HWB = 1;
+    static final int LAB = 2;
+    static final int OKLCH = 3;
+
+    /**
+     * Units of a component
+     */
+    static final int UNIT_NUMBER = 0;
+    static final int UNIT_PERCENT = 1;
+    static final int UNIT_DEGREES = 2;
+    static final int UNIT_NONE = 3;
+
+    /**
+     * Fixed-point scale of component values
+     */
+    static final long SCALE = 1000000;
+
+    /**
+     * Layout of a component: biased value, unit and end index
+     */
+    private static final int INDEX_BITS = 24;
+    private static final int VALUE_SHIFT = INDEX_BITS + 3;
+    private static final long VALUE_BIAS = 1L << 35;
+
+    /**
+     * Largest integral part of a number that fits the layout. Keeps the
+     * digits from overflowing while they are accumulated, the complete
+     * value is checked against {@link #VALUE_BIAS} afterwards.
+     */
+    private static final long MAX_INTEGER = (VALUE_BIAS - 1) / SCALE;
+
+    private static final String[] NAMES = {"hsl", "hwb", "lab", "oklch"};
+
+    private CssColor4Parser() {
+    }
+
+    /**
+     * Parses a color in the given notation
+     *
+     * @param string The string to parse
+     * @param notation One of {@link #HSL}, {@link #HWB}, {@link #LAB} and
+     * {@link #OKLCH}
+     * @return The packed ARGB color or an error result
+     */
+    static long parse(CharSequence string, int notation) {
+        final int length = string.length();
+        if (length >= 1 << INDEX_BITS) {
+            return CssColorParser.error(1 << INDEX_BITS);
+        }
+        String name = NAMES[notation];
+        if (notation == HSL && length > 3 && (string.charAt(3) | 0x20) == 'a') {
+            name = "hsla";
+        }
+        int i = CssColorParser.parseFunctionName(string, 0, length, name);
+        if (i < 0) {
+            return CssColorParser.error(~i);
+        }
+        final int start0 = i;
+        long c0 = parseComponent(string, i, length);
+        if (c0 < 0) {
+            return c0;
+        }
+        i = CssColorParser.skipWhitespace(string, index(c0), length);
+        final boolean legacy = notation == HSL && i < length && string.charAt(i) == ',';
+        if (legacy) {
+            i = CssColorParser.skipWhitespace(string, i + 1, length);
+        }
+        final int start1 = i;
+        long c1 = parseComponent(string, i, length);
+        if (c1 < 0) {
+            return c1;
+        }
+        i = CssColorParser.skipWhitespace(string, index(c1), length);
+        if (legacy) {
+            if (i == length || string.charAt(i) != ',') {
+                return CssColorParser.error(i);
+            }
+            i = CssColorParser.skipWhitespace(string, i + 1, length);
+        }
+        final int start2 = i;
+        long c2 = parseComponent(string, i, length);
+        if (c2 < 0) {
+            return c2;
+        }
+        i = CssColorParser.skipWhitespace(string, index(c2), length);
+        int alpha = 255;
+        if (i < length && string.charAt(i) == (legacy ? ',' : '/')) {
+            i = CssColorParser.skipWhitespace(string, i + 1, length);
+            final int startAlpha = i;
+            long a = parseComponent(string, i, length);
+            if (a < 0) {
+                return a;
+            }
+            double value = fraction(a, 1);
+            if (Double.isNaN(value)) {
+                return CssColorParser.error(startAlpha);
+            }
+            alpha = (int) (Math.max(0, Math.min(1, value)) * 255 + 0.5);
+            i = CssColorParser.skipWhitespace(string, index(a), length);
+        }
+        if (i == length || string.charAt(i) != ')') {
+            return CssColorParser.error(i);
+        }
+        if (i + 1 != length) {
+            return CssColorParser.error(i + 1);
+        }
+        int argb;
+        switch (notation) {
+            case HSL:
+            case HWB: {
+                if (!isHue(c0)) {
+                    return CssColorParser.error(start0);
+                }
+                double v1 = percentage(c1);
+                if (Double.isNaN(v1)) {
+                    return CssColorParser.error(start1);
+                }
+                double v2 = percentage(c2);
+                if (Double.isNaN(v2)) {
+                    return CssColorParser.error(start2);
+                }
+                argb = notation == HSL
+                        ? ColorSpaces.hslToArgb(degrees(c0), v1, v2, alpha)
+                        : ColorSpaces.hwbToArgb(degrees(c0), v1, v2, alpha);
+                break;
+            }
+            case LAB: {
+                double l = fraction(c0, 100);
+                if (Double.isNaN(l)) {
+                    return CssColorParser.error(start0);
+                }
+                double a = fraction(c1, 125);
+                if (Double.isNaN(a)) {
+                    return CssColorParser.error(start1);
+                }
+                double b = fraction(c2, 125);
+                if (Double.isNaN(b)) {
+                    return CssColorParser.error(start2);
+                }
+                argb = ColorSpaces.labToArgb(Math.max(0, Math.min(100, l)), a, b, alpha);
+                break;
+            }
+            default: {
+                double l = fraction(c0, 1);
+                if (Double.isNaN(l)) {
+                    return CssColorParser.error(start0);
+                }
+                double c = fraction(c1, 0.4);
+                if (Double.isNaN(c)) {
+                    return CssColorParser.error(start1);
+                }
+                if (!isHue(c2)) {
+                    return CssColorParser.error(start2);
+                }
+                argb = ColorSpaces.oklchToArgb(Math.max(0, Math.min(1, l)), c,
+                        degrees(c2), alpha);
+                break;
+            }
+        }
+        return argb & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Parses a number with an optional unit ({@code %}, {@code deg},
+     * {@code rad}, {@code grad} or {@code turn}) or the keyword
+     * {@code none}. Angles are converted to degrees.
+     *
+     * @param string The string to parse
+     * @param start The index of the first character
+     * @param end The end index
+     * @return The component or an error result
+     */
+    static long parseComponent(CharSequence string, int start, int end) {
+        int i = start;
+        if (matchesKeyword(string, i, end, "none")) {
+            return component(0, UNIT_NONE, i + 4);
+        }
+        boolean negative = false;
+        if (i < end && (string.charAt(i) == '-' || string.charAt(i) == '+')) {
+            negative = string.charAt(i) == '-';
+            i++;
+        }
+        final int digitsStart = i;
+        long integer = 0;
+        for (; i < end; i++) {
+            int digit = string.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                break;
+            }
+            integer = integer * 10 + digit;
+            if (integer > MAX_INTEGER) {
+                return CssColorParser.error(start);
+            }
+        }
+        boolean hasDigits = i > digitsStart;
+        long fraction = 0;
+        if (i < end && string.charAt(i) == '.') {
+            i++;
+            final int fractionStart = i;
+            long scale = SCALE;
+            for (; i < end; i++) {
+                int digit = string.charAt(i) - '0';
+                if (digit < 0 || digit > 9) {
+                    break;
+                }
+                if (scale > 1) {
+                    scale /= 10;
+                    fraction += digit * scale;
+                } else if (scale == 1) {
+                    // round half up with the first digit that does not fit
+                    if (digit >= 5) {
+                        fraction++;
+                    }
+                    scale = 0;
+                }
+            }
+            if (i == fractionStart) {
+                return CssColorParser.error(i);
+            }
+            hasDigits = true;
+        }
+        if (!hasDigits) {
+            return CssColorParser.error(start);
+        }
+        long value = integer * SCALE + fraction;
+        if (negative) {
+            value = -value;
+        }
+        int unit = UNIT_NUMBER;
+        if (i < end && string.charAt(i) == '%') {
+            unit = UNIT_PERCENT;
+            i++;
+        } else if (i < end && isLetter(string.charAt(i))) {
+            final int unitStart = i;
+            if (matchesKeyword(string, i, end, "deg")) {
+                i += 3;
+            } else if (matchesKeyword(string, i, end, "grad")) {
+                value = value * 9 / 10;
+                i += 4;
+            } else if (matchesKeyword(string, i, end, "rad")) {
+                value = Math.round(value * (180 / Math.PI));
+                i += 3;
+            } else if (matchesKeyword(string, i, end, "turn")) {
+                value *= 360;
+                i += 4;
+            } else {
+                return CssColorParser.error(unitStart);
+            }
+            unit = UNIT_DEGREES;
+        }
+        // MAX_INTEGER only bounds the integer part, the fraction or the
+        // angle unit may still overflow the biased value
+        if (Math.abs(value) >= VALUE_BIAS) {
+            return CssColorParser.error(start);
+        }
+        return component(value, unit, i);
+    }
+
+    /**
+     * @param component A component
+     * @return The index after the component
+     */
+    static int index(long component) {
+        return (int) component & ((1 << INDEX_BITS) - 1);
+    }
+
+    /**
+     * @param component A component
+     * @return The unit of the component
+     */
+    static int unit(long component) {
+        return (int) (component >>> INDEX_BITS) & 7;
+    }
+
+    /**
+     * @param component A component
+     * @return The fixed-point value of the component
+     */
+    static long value(long component) {
+        return (component >>> VALUE_SHIFT) - VALUE_BIAS;
+    }
+
+    private static long component(long value, int unit, int index) {
+        return (value + VALUE_BIAS) << VALUE_SHIFT | (long) unit << INDEX_BITS | index;
+    }
+
+    /**
+     * @return {@code true} if the component is a number, an angle or
+     * {@code none}
+     */
+    private static boolean isHue(long component) {
+        return unit(component) != UNIT_PERCENT;
+    }
+
+    /**
+     * @return The hue in degrees
+     */
+    private static double degrees(long component) {
+        return value(component) / (double) SCALE;
+    }
+
+    /**
+     * Reads a component that is a number or a percentage of the given
+     * reference value
+     *
+     * @return The value or {@link Double#NaN} for angles
+     */
+    private static double fraction(long component, double reference) {
+        switch (unit(component)) {
+            case UNIT_NUMBER:
+                return value(component) / (double) SCALE;
+            case UNIT_PERCENT:
+                return value(component) * reference / (100d * SCALE);
+            case UNIT_NONE:
+                return 0;
+            default:
+                return Double.NaN;
+        }
+    }
+
+    /**
+     * Reads a component that is a percentage or a number of percent
+     *
+     * @return The value between 0 and 1 or {@link Double#NaN} for angles
+     */
+    private static double percentage(long component) {
+        int unit = unit(component);
+        if (unit == UNIT_DEGREES) {
+            return Double.NaN;
+        }
+        return value(component) / (100d * SCALE);
+    }
+
+    private static boolean matchesKeyword(CharSequence string, int start, int end, String keyword) {
+        int length = keyword.length();
+        if (end - start < length) {
+            return false;
+        }
+        for (int n = 0; n < length; n++) {
+            if ((string.charAt(start + n) | 0x20) != keyword.charAt(n)) {
+                return false;
+            }
+        }
+        return start + length == end || !isLetter(string.charAt(start + length));
+    }
+
+    private static boolean isLetter(char c) {
+        return (c | 0x20) >= 'a' && (c | 0x20) <= 'z';
+    }
+
+}
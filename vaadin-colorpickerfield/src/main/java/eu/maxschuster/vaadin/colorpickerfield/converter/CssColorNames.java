@@ -0,0 +1,314 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.converter;
+
+import eu.maxschuster.vaadin.colorpickerfield.color.ColorSpaces;
+
+/**
+ * Lookup tables for the 148 CSS named colors and {@code transparent}.
+ * <p>
+ * Names are found with a perfect hash: the {@link #SEED} has been chosen so
+ * that no two names share a slot of the {@link #SLOTS} table. The hash folds
+ * ASCII letters to lower case while reading, so the lookup is
+ * case-insensitive without creating a lower case copy of the input. Colors
+ * are mapped back to names with a small open addressing table and to the
+ * nearest name with a lazily built grid of {@code 32x32x32} cells.
+ *
+ * @author Max Schuster
+ */
+final class CssColorNames {
+
+    /**
+     * All names in alphabetical order, {@code transparent} last
+     */
+    private static final String[] NAMES = {
+        "aliceblue", "antiquewhite", "aqua", "aquamarine", "azure", "beige",
+        "bisque", "black", "blanchedalmond", "blue", "blueviolet", "brown",
+        "burlywood", "cadetblue", "chartreuse", "chocolate", "coral",
+        "cornflowerblue", "cornsilk", "crimson", "cyan", "darkblue", "darkcyan",
+        "darkgoldenrod", "darkgray", "darkgreen", "darkgrey", "darkkhaki",
+        "darkmagenta", "darkolivegreen", "darkorange", "darkorchid", "darkred",
+        "darksalmon", "darkseagreen", "darkslateblue", "darkslategray",
+        "darkslategrey", "darkturquoise", "darkviolet", "deeppink",
+        "deepskyblue", "dimgray", "dimgrey", "dodgerblue", "firebrick",
+        "floralwhite", "forestgreen", "fuchsia", "gainsboro", "ghostwhite",
+        "gold", "goldenrod", "gray", "green", "greenyellow", "grey", "honeydew",
+        "hotpink", "indianred", "indigo", "ivory", "khaki", "lavender",
+        "lavenderblush", "lawngreen", "lemonchiffon", "lightblue", "lightcoral",
+        "lightcyan", "lightgoldenrodyellow", "lightgray", "lightgreen",
+        "lightgrey", "lightpink", "lightsalmon", "lightseagreen",
+        "lightskyblue", "lightslategray", "lightslategrey", "lightsteelblue",
+        "lightyellow", "lime", "limegreen", "linen", "magenta", "maroon",
+        "mediumaquamarine", "mediumblue", "mediumorchid", "mediumpurple",
+        "mediumseagreen", "mediumslateblue", "mediumspringgreen",
+        "mediumturquoise", "mediumvioletred", "midnightblue", "mintcream",
+        "mistyrose", "moccasin", "navajowhite", "navy", "oldlace", "olive",
+        "olivedrab", "orange", "orangered", "orchid", "palegoldenrod",
+        "palegreen", "paleturquoise", "palevioletred", "papayawhip",
+        "peachpuff", "peru", "pink", "plum", "powderblue", "purple",
+        "rebeccapurple", "red", "rosybrown", "royalblue", "saddlebrown",
+        "salmon", "sandybrown", "seagreen", "seashell", "sienna", "silver",
+        "skyblue", "slateblue", "slategray", "slategrey", "snow", "springgreen",
+        "steelblue", "tan", "teal", "thistle", "tomato", "turquoise", "violet",
+        "wheat", "white", "whitesmoke", "yellow", "yellowgreen", "transparent"
+    };
+
+    /**
+     * The packed ARGB colors of the {@link #NAMES}
+     */
+    private static final int[] ARGB = {
+        0xFFF0F8FF, 0xFFFAEBD7, 0xFF00FFFF, 0xFF7FFFD4, 0xFFF0FFFF, 0xFFF5F5DC,
+        0xFFFFE4C4, 0xFF000000, 0xFFFFEBCD, 0xFF0000FF, 0xFF8A2BE2, 0xFFA52A2A,
+        0xFFDEB887, 0xFF5F9EA0, 0xFF7FFF00, 0xFFD2691E, 0xFFFF7F50, 0xFF6495ED,
+        0xFFFFF8DC, 0xFFDC143C, 0xFF00FFFF, 0xFF00008B, 0xFF008B8B, 0xFFB8860B,
+        0xFFA9A9A9, 0xFF006400, 0xFFA9A9A9, 0xFFBDB76B, 0xFF8B008B, 0xFF556B2F,
+        0xFFFF8C00, 0xFF9932CC, 0xFF8B0000, 0xFFE9967A, 0xFF8FBC8F, 0xFF483D8B,
+        0xFF2F4F4F, 0xFF2F4F4F, 0xFF00CED1, 0xFF9400D3, 0xFFFF1493, 0xFF00BFFF,
+        0xFF696969, 0xFF696969, 0xFF1E90FF, 0xFFB22222, 0xFFFFFAF0, 0xFF228B22,
+        0xFFFF00FF, 0xFFDCDCDC, 0xFFF8F8FF, 0xFFFFD700, 0xFFDAA520, 0xFF808080,
+        0xFF008000, 0xFFADFF2F, 0xFF808080, 0xFFF0FFF0, 0xFFFF69B4, 0xFFCD5C5C,
+        0xFF4B0082, 0xFFFFFFF0, 0xFFF0E68C, 0xFFE6E6FA, 0xFFFFF0F5, 0xFF7CFC00,
+        0xFFFFFACD, 0xFFADD8E6, 0xFFF08080, 0xFFE0FFFF, 0xFFFAFAD2, 0xFFD3D3D3,
+        0xFF90EE90, 0xFFD3D3D3, 0xFFFFB6C1, 0xFFFFA07A, 0xFF20B2AA, 0xFF87CEFA,
+        0xFF778899, 0xFF778899, 0xFFB0C4DE, 0xFFFFFFE0, 0xFF00FF00, 0xFF32CD32,
+        0xFFFAF0E6, 0xFFFF00FF, 0xFF800000, 0xFF66CDAA, 0xFF0000CD, 0xFFBA55D3,
+        0xFF9370DB, 0xFF3CB371, 0xFF7B68EE, 0xFF00FA9A, 0xFF48D1CC, 0xFFC71585,
+        0xFF191970, 0xFFF5FFFA, 0xFFFFE4E1, 0xFFFFE4B5, 0xFFFFDEAD, 0xFF000080,
+        0xFFFDF5E6, 0xFF808000, 0xFF6B8E23, 0xFFFFA500, 0xFFFF4500, 0xFFDA70D6,
+        0xFFEEE8AA, 0xFF98FB98, 0xFFAFEEEE, 0xFFDB7093, 0xFFFFEFD5, 0xFFFFDAB9,
+        0xFFCD853F, 0xFFFFC0CB, 0xFFDDA0DD, 0xFFB0E0E6, 0xFF800080, 0xFF663399,
+        0xFFFF0000, 0xFFBC8F8F, 0xFF4169E1, 0xFF8B4513, 0xFFFA8072, 0xFFF4A460,
+        0xFF2E8B57, 0xFFFFF5EE, 0xFFA0522D, 0xFFC0C0C0, 0xFF87CEEB, 0xFF6A5ACD,
+        0xFF708090, 0xFF708090, 0xFFFFFAFA, 0xFF00FF7F, 0xFF4682B4, 0xFFD2B48C,
+        0xFF008080, 0xFFD8BFD8, 0xFFFF6347, 0xFF40E0D0, 0xFFEE82EE, 0xFFF5DEB3,
+        0xFFFFFFFF, 0xFFF5F5F5, 0xFFFFFF00, 0xFF9ACD32, 0x00000000
+    };
+
+    /**
+     * Seed of the perfect hash, found by trying seeds until the names did not
+     * collide in a table of {@code 1024} slots
+     */
+    private static final int SEED = 55265;
+
+    /**
+     * Index of the name in each hash slot plus one, {@code 0} if empty
+     */
+    private static final byte[] SLOTS = new byte[1024];
+
+    /**
+     * Keys of the reverse lookup table, see {@link #COLOR_NAMES}
+     */
+    private static final int[] COLOR_KEYS = new int[512];
+
+    /**
+     * Index of the name of the color in {@link #COLOR_KEYS} plus one,
+     * {@code 0} if empty
+     */
+    private static final byte[] COLOR_NAMES = new byte[COLOR_KEYS.length];
+
+    /**
+     * Length of the longest name
+     */
+    private static final int MAX_LENGTH;
+
+    static {
+        int maxLength = 0;
+        for (int i = 0; i < NAMES.length; i++) {
+            String name = NAMES[i];
+            maxLength = Math.max(maxLength, name.length());
+            int slot = hash(name) & (SLOTS.length - 1);
+            if (SLOTS[slot] != 0) {
+                throw new IllegalStateException("Hash collision of '"
+                        + name + "'");
+            }
+            SLOTS[slot] = (byte) (i + 1);
+            // the first name in alphabetical order wins, e.g. "gray"
+            int colorSlot = colorSlot(ARGB[i]);
+            while (COLOR_NAMES[colorSlot] != 0 && COLOR_KEYS[colorSlot] != ARGB[i]) {
+                colorSlot = (colorSlot + 1) & (COLOR_KEYS.length - 1);
+            }
+            if (COLOR_NAMES[colorSlot] == 0) {
+                COLOR_KEYS[colorSlot] = ARGB[i];
+                COLOR_NAMES[colorSlot] = (byte) (i + 1);
+            }
+        }
+        MAX_LENGTH = maxLength;
+    }
+
+    private CssColorNames() {
+    }
+
+    /**
+     * Looks up a color name, ignoring the case of ASCII letters
+     *
+     * @param string The name
+     * @return The packed ARGB color or an error result of
+     * {@link CssColorParser}
+     */
+    static long parse(CharSequence string) {
+        final int length = string.length();
+        if (length == 0 || length > MAX_LENGTH) {
+            return CssColorParser.error(0);
+        }
+        int h = SEED;
+        for (int i = 0; i < length; i++) {
+            char c = string.charAt(i);
+            if ((c | 0x20) < 'a' || (c | 0x20) > 'z') {
+                return CssColorParser.error(i);
+            }
+            h = (h ^ (c | 0x20)) * 0x01000193;
+        }
+        int index = (SLOTS[(h ^ h >>> 15) & (SLOTS.length - 1)] & 0xFF) - 1;
+        if (index < 0 || !matches(NAMES[index], string)) {
+            return CssColorParser.error(0);
+        }
+        return ARGB[index] & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Gets the name of the given color
+     *
+     * @param argb The packed ARGB color
+     * @return The name or {@code null} if the color has no name
+     */
+    static String nameOf(int argb) {
+        int slot = colorSlot(argb);
+        int index;
+        while ((index = COLOR_NAMES[slot] & 0xFF) != 0) {
+            if (COLOR_KEYS[slot] == argb) {
+                return NAMES[index - 1];
+            }
+            slot = (slot + 1) & (COLOR_KEYS.length - 1);
+        }
+        return null;
+    }
+
+    /**
+     * Gets the name of the given color or of the perceptually nearest named
+     * color. Colors without a name are matched by their nearest grid cell in
+     * OKLab, so the result is approximate for colors close to the middle
+     * between two names. The alpha channel is ignored unless it is
+     * {@code 0}, which maps to {@code transparent}.
+     *
+     * @param argb The packed ARGB color
+     * @return The name
+     */
+    static String nearestNameOf(int argb) {
+        String name = nameOf(argb);
+        if (name != null) {
+            return name;
+        }
+        if ((argb >>> 24) == 0) {
+            return NAMES[NAMES.length - 1];
+        }
+        name = nameOf(argb | 0xFF000000);
+        return name != null ? name : NearestGrid.nearest(argb);
+    }
+
+    /**
+     * @return The number of names
+     */
+    static int size() {
+        return NAMES.length;
+    }
+
+    /**
+     * @param index The index of a name
+     * @return The name
+     */
+    static String nameAt(int index) {
+        return NAMES[index];
+    }
+
+    /**
+     * @param index The index of a name
+     * @return The packed ARGB color of the name
+     */
+    static int argbAt(int index) {
+        return ARGB[index];
+    }
+
+    private static int hash(String name) {
+        int h = SEED;
+        for (int i = 0; i < name.length(); i++) {
+            h = (h ^ name.charAt(i)) * 0x01000193;
+        }
+        return h ^ h >>> 15;
+    }
+
+    private static int colorSlot(int argb) {
+        return (argb * 0x9E3779B9) >>> 23;
+    }
+
+    private static boolean matches(String name, CharSequence string) {
+        final int length = name.length();
+        if (string.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if ((string.charAt(i) | 0x20) != name.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Index of the nearest opaque named color for each cell of a
+     * {@code 32x32x32} grid over the RGB cube, built on first use
+     */
+    private static final class NearestGrid {
+
+        private static final byte[] CELLS = new byte[1 << 15];
+
+        static {
+            // transparent is the last name and never a nearest match
+            final int count = NAMES.length - 1;
+            final double[] names = new double[count * 3];
+            final double[] oklab = new double[3];
+            for (int i = 0; i < count; i++) {
+                ColorSpaces.argbToOklab(ARGB[i], oklab);
+                System.arraycopy(oklab, 0, names, i * 3, 3);
+            }
+            for (int cell = 0; cell < CELLS.length; cell++) {
+                int r = (cell >> 10) << 3 | 4;
+                int g = (cell >> 5 & 0x1F) << 3 | 4;
+                int b = (cell & 0x1F) << 3 | 4;
+                ColorSpaces.argbToOklab(0xFF000000 | r << 16 | g << 8 | b, oklab);
+                int nearest = 0;
+                double nearestDistance = Double.MAX_VALUE;
+                for (int i = 0; i < count; i++) {
+                    double dl = names[i * 3] - oklab[0];
+                    double da = names[i * 3 + 1] - oklab[1];
+                    double db = names[i * 3 + 2] - oklab[2];
+                    double distance = dl * dl + da * da + db * db;
+                    if (distance < nearestDistance) {
+                        nearest = i;
+                        nearestDistance = distance;
+                    }
+                }
+                CELLS[cell] = (byte) nearest;
+            }
+        }
+
+        static String nearest(int argb) {
+            int cell = (argb >> 9 & 0x7C00) | (argb >> 6 & 0x3E0) | (argb >> 3 & 0x1F);
+            return NAMES[CELLS[cell] & 0xFF];
+        }
+
+    }
+
+}
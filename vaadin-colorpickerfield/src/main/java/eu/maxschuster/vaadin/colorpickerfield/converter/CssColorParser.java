@@ -0,0 +1,393 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.converter;
+
+/**
+ * Single-pass, allocation-free scanners for CSS color notations.
+ * <p>
+ * All methods work directly on the given {@link CharSequence} and return
+ * either a packed ARGB color in the lower 32 bits of a non-negative
+ * {@code long} or a negative error value created by {@link #error(int)} that
+ * holds the index of the first offending character.
+ *
+ * @author Max Schuster
+ */
+final class CssColorParser {
+
+    /**
+     * Value of every character that is not a hex digit in {@link #NIBBLES}
+     */
+    private static final byte NO_NIBBLE = -1;
+
+    /**
+     * Maps ASCII characters to their hex digit value or {@link #NO_NIBBLE}
+     */
+    private static final byte[] NIBBLES = new byte[128];
+
+    static {
+        for (int i = 0; i < NIBBLES.length; i++) {
+            NIBBLES[i] = NO_NIBBLE;
+        }
+        for (int i = 0; i < 10; i++) {
+            NIBBLES['0' + i] = (byte) i;
+        }
+        for (int i = 0; i < 6; i++) {
+            NIBBLES['a' + i] = (byte) (10 + i);
+            NIBBLES['A' + i] = (byte) (10 + i);
+        }
+    }
+
+    private CssColorParser() {
+    }
+
+    /**
+     * Creates an error result for the given character index
+     *
+     * @param index Index of the first offending character
+     * @return A negative error result
+     */
+    static long error(int index) {
+        return ~(long) index;
+    }
+
+    /**
+     * @param result A result of one of the parse methods
+     * @return {@code true} if the result holds an error
+     */
+    static boolean isError(long result) {
+        return result < 0;
+    }
+
+    /**
+     * @param result An error result
+     * @return The index of the first offending character
+     */
+    static int errorIndex(long result) {
+        return (int) ~result;
+    }
+
+    /**
+     * Creates a human readable message for an error result
+     *
+     * @param string The string that has been parsed
+     * @param result The error result
+     * @param notation The name of the expected notation, e.g. "css hex color"
+     * @return The message
+     */
+    static String errorMessage(CharSequence string, long result, String notation) {
+        int index = errorIndex(result);
+        return "Could not convert '" + string + "' to a " + notation + ": "
+                + (index < string.length()
+                        ? "unexpected character '" + string.charAt(index) + "'"
+                        : "unexpected end")
+                + " at index " + index;
+    }
+
+    /**
+     * Gets the value of the given hex digit
+     *
+     * @param c The character
+     * @return The value of the digit or a negative value if the character is
+     * not a hex digit
+     */
+    static int nibble(char c) {
+        return c < NIBBLES.length ? NIBBLES[c] : NO_NIBBLE;
+    }
+
+    /**
+     * Parses a CSS hex color with an optional leading {@code #}. Supports the
+     * {@code RGB}, {@code RGBA}, {@code RRGGBB} and {@code RRGGBBAA} forms.
+     *
+     * @param string The string to parse
+     * @return The packed ARGB color or an error result
+     */
+    static long parseHex(CharSequence string) {
+        final int length = string.length();
+        int i = 0;
+        if (i < length && string.charAt(i) == '#') {
+            i++;
+        }
+        final int start = i;
+        int value = 0;
+        for (; i < length; i++) {
+            int nibble = nibble(string.charAt(i));
+            if (nibble < 0 || i - start == 8) {
+                return error(i);
+            }
+            value = (value << 4) | nibble;
+        }
+        switch (length - start) {
+            case 3:
+                return 0xFF000000L | expandShorthand(value << 4 | 0xF);
+            case 4:
+                return expandShorthand(value);
+            case 6:
+                return 0xFF000000L | value;
+            case 8:
+                return ((value >>> 8) | (value << 24)) & 0xFFFFFFFFL;
+            default:
+                return error(length);
+        }
+    }
+
+    /**
+     * Parses a color in any supported CSS notation. The notation is selected
+     * by the first character: {@code #} and digits select
+     * {@link #parseHex(java.lang.CharSequence)}. Input that starts with a
+     * letter is looked up as named color first. Otherwise {@code r} selects
+     * {@code rgb()} or {@code rgba()} depending on the fourth character,
+     * {@code h} selects {@code hsl()} or {@code hwb()} depending on the
+     * second character, {@code l} selects {@code lab()}, {@code o} selects
+     * {@code oklch()} and the hex digits {@code a} to {@code f} select
+     * {@link #parseHex(java.lang.CharSequence)}.
+     *
+     * @param string The string to parse
+     * @return The packed ARGB color or an error result
+     */
+    static long parseAny(CharSequence string) {
+        final int length = string.length();
+        if (length == 0) {
+            return error(0);
+        }
+        char c = string.charAt(0);
+        if (c == '#' || c <= '9' && nibble(c) >= 0) {
+            return parseHex(string);
+        }
+        // no name consists of hex digits only, so names never shadow hex
+        long named = CssColorNames.parse(string);
+        if (named >= 0) {
+            return named;
+        }
+        switch (c | 0x20) {
+            case 'r':
+                return parseRgb(string, length > 3
+                        && (string.charAt(3) | 0x20) == 'a');
+            case 'h':
+                return CssColor4Parser.parse(string, length > 1
+                        && (string.charAt(1) | 0x20) == 'w'
+                                ? CssColor4Parser.HWB : CssColor4Parser.HSL);
+            case 'l':
+                return CssColor4Parser.parse(string, CssColor4Parser.LAB);
+            case 'o':
+                return CssColor4Parser.parse(string, CssColor4Parser.OKLCH);
+            default:
+                return nibble(c) >= 0 ? parseHex(string) : error(0);
+        }
+    }
+
+    /**
+     * Parses a CSS {@code rgb(r,g,b)} or {@code rgba(r,g,b,a)} color. The
+     * function name is case-insensitive and whitespace is allowed around
+     * every argument. The channels must be integers between 0 and 255, the
+     * alpha channel a number between 0 and 1.
+     *
+     * @param string The string to parse
+     * @param alpha {@code true} to parse {@code rgba()}, {@code false} to
+     * parse {@code rgb()}
+     * @return The packed ARGB color or an error result
+     */
+    static long parseRgb(CharSequence string, boolean alpha) {
+        final int length = string.length();
+        int i = parseFunctionName(string, 0, length, alpha ? "rgba" : "rgb");
+        if (i < 0) {
+            return error(~i);
+        }
+        int argb = alpha ? 0 : 0xFF000000;
+        for (int channel = 0; channel < (alpha ? 4 : 3); channel++) {
+            if (channel > 0) {
+                if (i == length || string.charAt(i) != ',') {
+                    return error(i);
+                }
+                i = skipWhitespace(string, i + 1, length);
+            }
+            long result = channel < 3
+                    ? parseChannel(string, i, length)
+                    : parseAlpha(string, i, length);
+            if (isError(result)) {
+                return result;
+            }
+            argb |= (int) (result >>> 32) << (channel < 3 ? 16 - channel * 8 : 24);
+            i = skipWhitespace(string, (int) result, length);
+        }
+        if (i == length || string.charAt(i) != ')') {
+            return error(i);
+        }
+        if (i + 1 != length) {
+            return error(i + 1);
+        }
+        return argb & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Matches the given lower case function name case-insensitively
+     * followed by {@code (} and optional whitespace.
+     *
+     * @param string The string to parse
+     * @param start The index to start at
+     * @param end The end index
+     * @param name The lower case function name
+     * @return The index of the first argument or the bitwise complement of
+     * the offending index
+     */
+    static int parseFunctionName(CharSequence string, int start, int end, String name) {
+        int i = start;
+        for (int n = 0; n < name.length(); n++, i++) {
+            if (i == end || (string.charAt(i) | 0x20) != name.charAt(n)) {
+                return ~i;
+            }
+        }
+        if (i == end || string.charAt(i) != '(') {
+            return ~i;
+        }
+        return skipWhitespace(string, i + 1, end);
+    }
+
+    /**
+     * Parses a color channel with up to three decimal digits between 0 and
+     * 255.
+     *
+     * @param string The string to parse
+     * @param start The index of the first digit
+     * @param end The end index
+     * @return The value in the upper and the index after the last digit in
+     * the lower 32 bits or an error result
+     */
+    static long parseChannel(CharSequence string, int start, int end) {
+        int value = 0;
+        int i = start;
+        for (; i < end; i++) {
+            int digit = string.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                break;
+            }
+            if (i - start == 3) {
+                return error(i);
+            }
+            value = value * 10 + digit;
+        }
+        if (i == start || value > 255) {
+            return error(start);
+        }
+        return (long) value << 32 | i;
+    }
+
+    /**
+     * Parses an alpha value between 0 and 1 in the form {@code [01](\.\d+)?}
+     * using fixed-point arithmetic and rounds it to a byte like
+     * {@code Math.round(alpha * 255)}. Values with up to three fractional
+     * digits are mapped to the byte by a lookup table. Only the first nine
+     * fractional digits are accumulated, later digits are remembered as a
+     * sticky flag if any of them is not zero. If they could push the value
+     * across a rounding midpoint, the value is rounded through
+     * {@link Double#parseDouble(java.lang.String)} instead.
+     *
+     * @param string The string to parse
+     * @param start The index of the first digit
+     * @param end The end index
+     * @return The alpha byte in the upper and the index after the last digit
+     * in the lower 32 bits or an error result
+     */
+    static long parseAlpha(CharSequence string, int start, int end) {
+        if (start == end) {
+            return error(start);
+        }
+        int integer = string.charAt(start) - '0';
+        if (integer != 0 && integer != 1) {
+            return error(start);
+        }
+        int i = start + 1;
+        long fraction = 0;
+        long scale = 1;
+        // a non-zero digit after the ninth fractional digit
+        boolean sticky = false;
+        if (i < end && string.charAt(i) == '.') {
+            i++;
+            final int fractionStart = i;
+            for (; i < end; i++) {
+                int digit = string.charAt(i) - '0';
+                if (digit < 0 || digit > 9) {
+                    break;
+                }
+                if (i - fractionStart < 9) {
+                    fraction = fraction * 10 + digit;
+                    scale *= 10;
+                } else if (digit != 0) {
+                    sticky = true;
+                }
+            }
+            if (i == fractionStart) {
+                return error(i);
+            }
+        }
+        if (integer == 1 && (fraction != 0 || sticky)) {
+            return error(start);
+        }
+        long value;
+        if (scale <= 1000) {
+            value = CssAlphaTable.fromMilli(
+                    (int) ((integer * scale + fraction) * (1000 / scale)));
+        } else {
+            long numerator = integer * scale + fraction;
+            value = (numerator * 510 + scale) / (scale * 2);
+            if (sticky && ((numerator + 1) * 510 + scale) / (scale * 2) != value) {
+                // the dropped digits decide on which side of the midpoint
+                // the value is
+                value = Math.round(Double.parseDouble(
+                        string.subSequence(start, i).toString()) * 255);
+            }
+        }
+        return value << 32 | i;
+    }
+
+    /**
+     * @param string The string
+     * @param start The index to start at
+     * @param end The end index
+     * @return The index of the first non-whitespace character or {@code end}
+     */
+    static int skipWhitespace(CharSequence string, int start, int end) {
+        int i = start;
+        while (i < end && isWhitespace(string.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * @param c The character
+     * @return {@code true} if the character is whitespace as defined by the
+     * {@code \s} regular expression class
+     */
+    static boolean isWhitespace(char c) {
+        return c == ' ' || (c >= '\t' && c <= '\r');
+    }
+
+    /**
+     * Expands the 16 bit {@code RGBA} shorthand to packed ARGB by doubling
+     * every nibble.
+     *
+     * @param rgba The shorthand value
+     * @return The packed ARGB color
+     */
+    private static long expandShorthand(int rgba) {
+        int r = (rgba >> 12 & 0xF) * 0x11;
+        int g = (rgba >> 8 & 0xF) * 0x11;
+        int b = (rgba >> 4 & 0xF) * 0x11;
+        int a = (rgba & 0xF) * 0x11;
+        return ((long) a << 24) | (r << 16) | (g << 8) | b;
+    }
+
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.converter;
+
+import java.io.IOException;
+
+/**
+ * Writes the parts of CSS color notations character by character into an
+ * {@link Appendable} without format parsing or temporary strings.
+ *
+ * @author Max Schuster
+ */
+final class CssColorWriter {
+
+    /**
+     * Lower case hex digits
+     */
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    /**
+     * Powers of ten by exponent
+     */
+    private static final long[] POWERS_OF_TEN = {1L, 10L, 100L, 1000L, 10000L,
+        100000L, 1000000L};
+
+    private CssColorWriter() {
+    }
+
+    /**
+     * Appends a value between 0 and 255 as decimal number
+     *
+     * @param out The {@link Appendable} to write to
+     * @param value The value
+     * @throws IOException If the {@link Appendable} throws
+     */
+    static void appendByte(Appendable out, int value) throws IOException {
+        if (value >= 100) {
+            out.append((char) ('0' + value / 100));
+            value %= 100;
+            out.append((char) ('0' + value / 10));
+        } else if (value >= 10) {
+            out.append((char) ('0' + value / 10));
+        }
+        out.append((char) ('0' + value % 10));
+    }
+
+    /**
+     * Appends a value between 0 and 255 as two lower case hex digits
+     *
+     * @param out The {@link Appendable} to write to
+     * @param value The value
+     * @throws IOException If the {@link Appendable} throws
+     */
+    static void appendHexByte(Appendable out, int value) throws IOException {
+        out.append(HEX_DIGITS[value >> 4 & 0xF]);
+        out.append(HEX_DIGITS[value & 0xF]);
+    }
+
+    /**
+     * Appends a decimal number rounded to the given number of fractional
+     * digits without trailing zeros
+     *
+     * @param out The {@link Appendable} to write to
+     * @param value The value
+     * @param fractionDigits The maximum number of fractional digits, at most
+     * 6
+     * @throws IOException If the {@link Appendable} throws
+     */
+    static void appendDecimal(Appendable out, double value, int fractionDigits) throws IOException {
+        long scale = POWERS_OF_TEN[fractionDigits];
+        long scaled = Math.round(value * scale);
+        if (scaled < 0) {
+            out.append('-');
+            scaled = -scaled;
+        }
+        appendLong(out, scaled / scale);
+        long fraction = scaled % scale;
+        if (fraction != 0) {
+            int digits = fractionDigits;
+            while (fraction % 10 == 0) {
+                fraction /= 10;
+                digits--;
+            }
+            out.append('.');
+            for (long divisor = POWERS_OF_TEN[digits - 1]; divisor > 0; divisor /= 10) {
+                out.append((char) ('0' + fraction / divisor % 10));
+            }
+        }
+    }
+
+    /**
+     * Appends a non-negative value as decimal number
+     *
+     * @param out The {@link Appendable} to write to
+     * @param value The value
+     * @throws IOException If the {@link Appendable} throws
+     */
+    static void appendLong(Appendable out, long value) throws IOException {
+        long divisor = 1;
+        while (divisor <= value / 10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            out.append((char) ('0' + value / divisor % 10));
+        }
+    }
+
+    /**
+     * Appends the {@code  / alpha} part of the CSS Color 4 functional
+     * notations, nothing for opaque colors
+     *
+     * @param out The {@link Appendable} to write to
+     * @param alpha The alpha channel
+     * @throws IOException If the {@link Appendable} throws
+     */
+    static void appendSlashAlpha(Appendable out, int alpha) throws IOException {
+        if (alpha != 255) {
+            out.append(" / ");
+            out.append(CssAlphaTable.toShortString(alpha));
+        }
+    }
+
+}
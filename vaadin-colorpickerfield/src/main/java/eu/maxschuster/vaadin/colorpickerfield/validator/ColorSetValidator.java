@@ -0,0 +1,88 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.validator;
+
+import com.vaadin.data.Validator;
+import com.vaadin.data.validator.AbstractValidator;
+import com.vaadin.shared.ui.colorpicker.Color;
+import eu.maxschuster.vaadin.colorpickerfield.color.ColorSet;
+
+/**
+ * A {@link Validator} that only accepts colors of a {@link ColorSet}, e.g.
+ * the colors of a corporate palette. Add it to a color picker field with
+ * {@link com.vaadin.ui.AbstractField#addValidator(com.vaadin.data.Validator)}.
+ * <p>
+ * Validation is a single bitmap lookup and does not allocate. The alpha
+ * channel is ignored. {@code null} is valid, use
+ * {@link com.vaadin.ui.AbstractField#setRequired(boolean)} to reject it.
+ *
+ * @author Max Schuster
+ */
+public class ColorSetValidator extends AbstractValidator<Color> {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The allowed colors
+     */
+    private final ColorSet colorSet;
+
+    /**
+     * Creates a new validator
+     *
+     * @param colorSet The allowed colors. The set is not copied, later
+     * changes affect the validator.
+     * @param errorMessage The message of the {@link InvalidValueException}.
+     * {@code {0}} is replaced with the CSS notation of the invalid
+     * {@link Color}, e.g. {@code #336699}.
+     */
+    public ColorSetValidator(ColorSet colorSet, String errorMessage) {
+        super(errorMessage);
+        if (colorSet == null) {
+            throw new NullPointerException("The color set mustn't be null!");
+        }
+        this.colorSet = colorSet;
+    }
+
+    /**
+     * @return The allowed colors
+     */
+    public ColorSet getColorSet() {
+        return colorSet;
+    }
+
+    @Override
+    protected boolean isValidValue(Color value) {
+        return value == null || colorSet.contains(value.getRGB());
+    }
+
+    @Override
+    public void validate(Object value) throws InvalidValueException {
+        if (!isValid(value)) {
+            // Color has no readable toString()
+            String invalid = value instanceof Color
+                    ? ((Color) value).getCSS() : String.valueOf(value);
+            throw new InvalidValueException(
+                    getErrorMessage().replace("{0}", invalid));
+        }
+    }
+
+    @Override
+    public Class<Color> getType() {
+        return Color.class;
+    }
+
+}
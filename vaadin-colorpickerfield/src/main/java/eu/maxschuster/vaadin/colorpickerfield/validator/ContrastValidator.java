@@ -0,0 +1,139 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.validator;
+
+import com.vaadin.data.Property;
+import com.vaadin.data.Validator;
+import com.vaadin.data.validator.AbstractValidator;
+import com.vaadin.shared.ui.colorpicker.Color;
+import eu.maxschuster.vaadin.colorpickerfield.color.ColorContrast;
+
+/**
+ * A cross-field {@link Validator} that requires a minimum WCAG contrast
+ * ratio between the validated color and the color of another
+ * {@link Property}, usually another color picker field.
+ * <p>
+ * Create it with {@link #forForeground(com.vaadin.data.Property, double, java.lang.String)}
+ * and add it to the foreground field or with
+ * {@link #forBackground(com.vaadin.data.Property, double, java.lang.String)}
+ * and add it to the background field. The contrast ratio is computed by
+ * {@link ColorContrast} from lookup tables, so checking many pairs is cheap.
+ * The value of the other property is read on every validation. If either
+ * color is {@code null} the value is valid.
+ *
+ * @author Max Schuster
+ */
+public class ContrastValidator extends AbstractValidator<Color> {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The property that holds the other color
+     */
+    private final Property<? extends Color> other;
+
+    /**
+     * {@code true} if the other property holds the background color
+     */
+    private final boolean otherIsBackground;
+
+    /**
+     * The minimum contrast ratio
+     */
+    private final double minimumRatio;
+
+    private ContrastValidator(Property<? extends Color> other,
+            boolean otherIsBackground, double minimumRatio, String errorMessage) {
+        super(errorMessage);
+        if (other == null) {
+            throw new NullPointerException("The other property mustn't be null!");
+        }
+        if (!(minimumRatio >= 1 && minimumRatio <= 21)) {
+            throw new IllegalArgumentException("The minimum ratio must be "
+                    + "between 1 and 21");
+        }
+        this.other = other;
+        this.otherIsBackground = otherIsBackground;
+        this.minimumRatio = minimumRatio;
+    }
+
+    /**
+     * Creates a validator for the foreground color field
+     *
+     * @param background The property that holds the background color
+     * @param minimumRatio The minimum contrast ratio, e.g.
+     * {@link ColorContrast#AA_NORMAL_TEXT}
+     * @param errorMessage The message of the {@link InvalidValueException}.
+     * {@code {0}} is replaced with the CSS notation of the invalid
+     * {@link Color}, e.g. {@code #777777}.
+     * @return The validator
+     */
+    public static ContrastValidator forForeground(Property<? extends Color> background,
+            double minimumRatio, String errorMessage) {
+        return new ContrastValidator(background, true, minimumRatio, errorMessage);
+    }
+
+    /**
+     * Creates a validator for the background color field
+     *
+     * @param foreground The property that holds the foreground color
+     * @param minimumRatio The minimum contrast ratio, e.g.
+     * {@link ColorContrast#AA_NORMAL_TEXT}
+     * @param errorMessage The message of the {@link InvalidValueException}.
+     * {@code {0}} is replaced with the CSS notation of the invalid
+     * {@link Color}, e.g. {@code #777777}.
+     * @return The validator
+     */
+    public static ContrastValidator forBackground(Property<? extends Color> foreground,
+            double minimumRatio, String errorMessage) {
+        return new ContrastValidator(foreground, false, minimumRatio, errorMessage);
+    }
+
+    /**
+     * @return The minimum contrast ratio
+     */
+    public double getMinimumRatio() {
+        return minimumRatio;
+    }
+
+    @Override
+    protected boolean isValidValue(Color value) {
+        Color otherValue = other.getValue();
+        if (value == null || otherValue == null) {
+            return true;
+        }
+        return otherIsBackground
+                ? ColorContrast.hasContrast(value.getRGB(), otherValue.getRGB(), minimumRatio)
+                : ColorContrast.hasContrast(otherValue.getRGB(), value.getRGB(), minimumRatio);
+    }
+
+    @Override
+    public void validate(Object value) throws InvalidValueException {
+        if (!isValid(value)) {
+            // Color has no readable toString()
+            String invalid = value instanceof Color
+                    ? ((Color) value).getCSS() : String.valueOf(value);
+            throw new InvalidValueException(
+                    getErrorMessage().replace("{0}", invalid));
+        }
+    }
+
+    @Override
+    public Class<Color> getType() {
+        return Color.class;
+    }
+
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield;
+
+import com.vaadin.shared.ui.colorpicker.Color;
+import eu.maxschuster.vaadin.colorpickerfield.converter.ColorToArgbColorConverter;
+import java.util.Locale;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Max Schuster
+ */
+public class ArgbColorTest {
+
+    @Test
+    public void channels() {
+        ArgbColor color = ArgbColor.valueOf(15, 224, 1, 128);
+        Assert.assertEquals(0x800FE001, color.getArgb());
+        Assert.assertEquals(15, color.getRed());
+        Assert.assertEquals(224, color.getGreen());
+        Assert.assertEquals(1, color.getBlue());
+        Assert.assertEquals(128, color.getAlpha());
+        Assert.assertEquals(new Color(15, 224, 1, 128), color.toColor());
+        Assert.assertEquals(color, ArgbColor.valueOf(new Color(15, 224, 1, 128)));
+        Assert.assertNull(ArgbColor.valueOf((Color) null));
+    }
+
+    @Test
+    public void internCommonColors() {
+        Assert.assertSame(ArgbColor.WHITE, ArgbColor.valueOf(255, 255, 255));
+        Assert.assertSame(ArgbColor.BLACK, ArgbColor.valueOf(0xFF000000));
+        Assert.assertSame(ArgbColor.TRANSPARENT, ArgbColor.valueOf(0));
+        Assert.assertSame(ArgbColor.valueOf(0x33, 0x99, 0xCC),
+                ArgbColor.valueOf(0xFF3399CC));
+        Assert.assertSame(ArgbColor.valueOf(0x123456), ArgbColor.valueOf(0x123456));
+    }
+
+    @Test
+    public void equalsAndHashCode() {
+        for (int argb = 0; argb < 100000; argb++) {
+            int value = argb * 40503;
+            ArgbColor color = ArgbColor.valueOf(value);
+            Assert.assertEquals(value, color.getArgb());
+            Assert.assertEquals(ArgbColor.valueOf(value), color);
+            Assert.assertEquals(value, color.hashCode());
+        }
+        Assert.assertFalse(ArgbColor.WHITE.equals(ArgbColor.BLACK));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidChannelShouldFail() {
+        ArgbColor.valueOf(256, 0, 0);
+    }
+
+    @Test
+    public void convert() {
+        ColorToArgbColorConverter converter = new ColorToArgbColorConverter();
+        Assert.assertEquals(ArgbColor.valueOf(15, 224, 0), converter.convertToModel(
+                new Color(15, 224, 0), ArgbColor.class, Locale.GERMANY));
+        Assert.assertEquals(new Color(15, 224, 0), converter.convertToPresentation(
+                ArgbColor.valueOf(15, 224, 0), Color.class, Locale.GERMANY));
+        Assert.assertNull(converter.convertToModel(null, ArgbColor.class, Locale.GERMANY));
+        Assert.assertNull(converter.convertToPresentation(null, Color.class, Locale.GERMANY));
+    }
+
+}
@@ -1,13 +1,604 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
 package eu.maxschuster.vaadin.colorpickerfield;
 
-import junit.framework.Assert;
+import com.vaadin.event.LayoutEvents;
+import com.vaadin.event.UIEvents;
+import com.vaadin.server.ClientConnector;
+import com.vaadin.server.VaadinRequest;
+import com.vaadin.server.VaadinSession;
+import com.vaadin.shared.MouseEventDetails;
+import com.vaadin.shared.ui.colorpicker.Color;
+import com.vaadin.ui.AbstractColorPicker;
+import com.vaadin.ui.ColorPicker;
+import com.vaadin.ui.Component;
+import com.vaadin.ui.CssLayout;
+import com.vaadin.ui.Label;
+import com.vaadin.ui.UI;
+import com.vaadin.ui.Window;
+import com.vaadin.ui.components.colorpicker.ColorChangeEvent;
+import eu.maxschuster.vaadin.colorpickerfield.color.ColorLut;
+import eu.maxschuster.vaadin.colorpickerfield.color.ColorTransform;
+import org.junit.Assert;
+import org.junit.Before;
 import org.junit.Test;
 
-// JUnit tests here
+/**
+ *
+ * @author Max Schuster
+ */
 public class ColorPickerFieldTest {
 
+    private static final Color RED = new Color(255, 0, 0);
+    private static final Color GREEN = new Color(0, 255, 0);
+    private static final Color BLUE = new Color(0, 0, 255);
+
+    private UI ui;
+
+    private CssLayout layout;
+
+    @Before
+    public void setUp() {
+        ui = new UI() {
+
+            @Override
+            protected void init(VaadinRequest request) {
+            }
+
+        };
+        ui.setSession(new AlwaysLockedSession());
+        layout = new CssLayout();
+        ui.setContent(layout);
+    }
+
     @Test
     public void thisAlwaysPasses() {
         Assert.assertEquals(true, true);
     }
+
+    @Test
+    public void eagerModeCommitsEveryColor() {
+        ColorPickerField field = attachedField();
+        pick(field, RED);
+        Assert.assertEquals(RED, field.getValue());
+        pick(field, GREEN);
+        Assert.assertEquals(GREEN, field.getValue());
+        Assert.assertEquals(2, field.getColorChangeCount());
+        Assert.assertEquals(0, field.getDroppedColorChangeCount());
+    }
+
+    @Test
+    public void lazyModeCommitsAfterTimeout() throws InterruptedException {
+        ColorPickerField field = attachedField();
+        field.setColorChangeMode(ColorChangeMode.LAZY);
+        field.setColorChangeTimeout(20);
+        pick(field, RED);
+        pick(field, GREEN);
+        Assert.assertEquals(Color.WHITE, field.getValue());
+        Assert.assertEquals(20, ui.getPollInterval());
+        poll();
+        Assert.assertEquals(Color.WHITE, field.getValue());
+        Thread.sleep(50);
+        poll();
+        Assert.assertEquals(GREEN, field.getValue());
+        Assert.assertEquals(2, field.getColorChangeCount());
+        Assert.assertEquals(1, field.getDroppedColorChangeCount());
+        // polling stops once nothing is pending
+        Assert.assertEquals(-1, ui.getPollInterval());
+        Assert.assertTrue(ui.getListeners(UIEvents.PollEvent.class).isEmpty());
+    }
+
+    @Test
+    public void lazyModeCommitsLateColorOnNextPick() throws InterruptedException {
+        ColorPickerField field = attachedField();
+        field.setColorChangeMode(ColorChangeMode.LAZY);
+        field.setColorChangeTimeout(20);
+        pick(field, RED);
+        Thread.sleep(50);
+        pick(field, GREEN);
+        Assert.assertEquals(RED, field.getValue());
+        Assert.assertEquals(0, field.getDroppedColorChangeCount());
+        field.flushColorChange();
+        Assert.assertEquals(GREEN, field.getValue());
+    }
+
+    @Test
+    public void lazyModeCommitsWhenPopupCloses() {
+        ColorPickerField field = attachedField();
+        field.setColorChangeMode(ColorChangeMode.LAZY);
+        field.showPopup();
+        pick(field, RED);
+        Assert.assertEquals(Color.WHITE, field.getValue());
+        popupOf(field).close();
+        Assert.assertEquals(RED, field.getValue());
+        Assert.assertEquals(-1, ui.getPollInterval());
+    }
+
+    @Test
+    public void lazyModeKeepsPollIntervalOfUI() {
+        ui.setPollInterval(10000);
+        ColorPickerField field = attachedField();
+        field.setColorChangeMode(ColorChangeMode.LAZY);
+        pick(field, RED);
+        Assert.assertEquals(AbstractColorPickerField.DEFAULT_COLOR_CHANGE_TIMEOUT,
+                ui.getPollInterval());
+        field.flushColorChange();
+        Assert.assertEquals(RED, field.getValue());
+        Assert.assertEquals(10000, ui.getPollInterval());
+    }
+
+    @Test
+    public void onPopupCloseModeCommitsLastColor() {
+        ColorPickerField field = attachedField();
+        field.setColorChangeMode(ColorChangeMode.ON_POPUP_CLOSE);
+        field.showPopup();
+        pick(field, RED);
+        pick(field, GREEN);
+        pick(field, BLUE);
+        Assert.assertEquals(Color.WHITE, field.getValue());
+        popupOf(field).close();
+        Assert.assertEquals(BLUE, field.getValue());
+        Assert.assertEquals(3, field.getColorChangeCount());
+        Assert.assertEquals(2, field.getDroppedColorChangeCount());
+    }
+
+    @Test
+    public void eagerModeFlushesPendingColor() {
+        ColorPickerField field = attachedField();
+        field.setColorChangeMode(ColorChangeMode.ON_POPUP_CLOSE);
+        field.showPopup();
+        pick(field, RED);
+        field.setColorChangeMode(ColorChangeMode.EAGER);
+        Assert.assertEquals(RED, field.getValue());
+    }
+
+    @Test
+    public void swatchOnlyShowsSwatchFirst() {
+        ColorPickerField field = swatchOnlyField();
+        Assert.assertNull(field.getColorPicker());
+        Assert.assertTrue(contentOf(field) instanceof Label);
+        Assert.assertTrue(ui.getWindows().isEmpty());
+    }
+
+    @Test
+    public void swatchOnlyOpensPickerOnClick() {
+        ColorPickerField field = swatchOnlyField();
+        click(field);
+        Assert.assertNotNull(field.getColorPicker());
+        Assert.assertSame(field.getColorPicker(), contentOf(field));
+        Assert.assertNotNull(popupOf(field));
+        Assert.assertEquals(1, ui.getWindows().size());
+    }
+
+    @Test
+    public void swatchOnlyRestoresSwatchWhenPopupCloses() {
+        ColorPickerField field = swatchOnlyField();
+        click(field);
+        pick(field, RED);
+        popupOf(field).close();
+        Assert.assertNull(field.getColorPicker());
+        Assert.assertTrue(contentOf(field) instanceof Label);
+        Assert.assertTrue(ui.getWindows().isEmpty());
+        Assert.assertEquals(RED, field.getValue());
+    }
+
+    @Test
+    public void swatchOnlyFieldsTrackTheirOwnPopup() {
+        ColorPickerField first = swatchOnlyField();
+        ColorPickerField second = swatchOnlyField();
+        click(first);
+        click(second);
+        Window firstPopup = popupOf(first);
+        Window secondPopup = popupOf(second);
+        Assert.assertNotNull(firstPopup);
+        Assert.assertNotNull(secondPopup);
+        Assert.assertNotSame(firstPopup, secondPopup);
+        secondPopup.close();
+        Assert.assertNull(second.getColorPicker());
+        Assert.assertNotNull(first.getColorPicker());
+        Assert.assertSame(firstPopup, popupOf(first));
+        firstPopup.close();
+        Assert.assertNull(first.getColorPicker());
+        Assert.assertTrue(ui.getWindows().isEmpty());
+    }
+
+    @Test
+    public void releaseOnDetachSurvivesReattach() {
+        ColorPickerField field = new ColorPickerField();
+        field.setReleaseOnDetach(true);
+        field.setColorChangeMode(ColorChangeMode.ON_POPUP_CLOSE);
+        layout.addComponent(field);
+        field.showPopup();
+        pick(field, RED);
+        Assert.assertEquals(Color.WHITE, field.getValue());
+
+        layout.removeComponent(field);
+        // the pending color is committed and the popup is not orphaned
+        Assert.assertEquals(RED, field.getValue());
+        Assert.assertNull(field.getColorPicker());
+        Assert.assertTrue(ui.getWindows().isEmpty());
+
+        layout.addComponent(field);
+        Assert.assertEquals(RED, field.getValue());
+        Assert.assertNotNull(field.getColorPicker());
+        Assert.assertEquals(RED, field.getColorPicker().getColor());
+        // the popup was open on detach
+        Assert.assertNotNull(popupOf(field));
+        Assert.assertEquals(1, ui.getWindows().size());
+    }
+
+    @Test
+    public void batchedUpdateAppliesOnce() {
+        ColorPickerField field = recordingField();
+        layout.addComponent(field);
+        RecordingColorPicker picker = (RecordingColorPicker) field.getColorPicker();
+        picker.calls = 0;
+        field.beginUpdate();
+        field.setHistoryVisibility(false);
+        field.setHistoryVisibility(true);
+        field.setHistoryVisibility(false);
+        field.setPosition(1, 2);
+        field.setPosition(3, 4);
+        field.setValue(RED);
+        field.setValue(GREEN);
+        Assert.assertEquals(0, picker.calls);
+        field.endUpdate();
+        Assert.assertEquals(3, picker.calls);
+        Assert.assertFalse(picker.historyVisibility);
+        Assert.assertEquals(3, picker.positionX);
+        Assert.assertEquals(4, picker.positionY);
+        Assert.assertEquals(GREEN, picker.getColor());
+    }
+
+    @Test
+    public void nestedUpdateAppliesOnOutermostEnd() {
+        ColorPickerField field = recordingField();
+        layout.addComponent(field);
+        RecordingColorPicker picker = (RecordingColorPicker) field.getColorPicker();
+        picker.calls = 0;
+        field.beginUpdate();
+        field.beginUpdate();
+        field.setTextfieldVisibility(false);
+        field.endUpdate();
+        Assert.assertEquals(0, picker.calls);
+        field.setTextfieldVisibility(true);
+        field.endUpdate();
+        Assert.assertEquals(1, picker.calls);
+        Assert.assertTrue(picker.textfieldVisibility);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void unbalancedEndUpdateFails() {
+        ColorPickerField field = new ColorPickerField();
+        field.beginUpdate();
+        field.endUpdate();
+        field.endUpdate();
+    }
+
+    @Test
+    public void configureRoundTrips() {
+        ColorPickerFieldConfiguration configuration
+                = ColorPickerFieldConfiguration.DEFAULT
+                .withPopupStyle(AbstractColorPicker.PopupStyle.POPUP_SIMPLE)
+                .withPosition(10, 20)
+                .withDefaultCaptionEnabled(true)
+                .withRGBVisibility(false)
+                .withHSVVisibility(false)
+                .withHistoryVisibility(false)
+                .withTextfieldVisibility(false);
+
+        // configured before the color picker exists
+        ColorPickerField early = recordingField();
+        early.configure(configuration);
+        layout.addComponent(early);
+        assertConfiguration(configuration,
+                (RecordingColorPicker) early.getColorPicker());
+
+        // configured afterwards and back to the defaults
+        ColorPickerField late = recordingField();
+        layout.addComponent(late);
+        RecordingColorPicker picker = (RecordingColorPicker) late.getColorPicker();
+        late.configure(configuration);
+        assertConfiguration(configuration, picker);
+        late.configure(ColorPickerFieldConfiguration.DEFAULT);
+        assertConfiguration(ColorPickerFieldConfiguration.DEFAULT, picker);
+    }
+
+    @Test
+    public void hidingAllTabsFailsBeforeContentExists() {
+        ColorPickerField field = recordingField();
+        field.setRGBVisibility(false);
+        field.setHSVVisibility(false);
+        Assert.assertFalse(field.isContentInitialized());
+        try {
+            field.setSwatchesVisibility(false);
+            Assert.fail("Hiding all tabs should fail");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        layout.addComponent(field);
+        Assert.assertTrue(((RecordingColorPicker) field.getColorPicker())
+                .swatchesVisibility);
+    }
+
+    @Test
+    public void hidingAllTabsFailsDuringUpdate() {
+        ColorPickerField field = recordingField();
+        field.beginUpdate();
+        try {
+            field.configure(ColorPickerFieldConfiguration.DEFAULT
+                    .withRGBVisibility(false)
+                    .withHSVVisibility(false)
+                    .withSwatchesVisibility(false));
+            Assert.fail("Hiding all tabs should fail");
+        } catch (IllegalArgumentException e) {
+            // expected
+        } finally {
+            field.endUpdate();
+        }
+    }
+
+    @Test
+    public void previewLutOnlyTransformsSwatch() {
+        ColorLut invert = new ColorLut(new ColorTransform() {
+
+            @Override
+            public int transform(int argb) {
+                return argb ^ 0x00FFFFFF;
+            }
+
+        });
+        ColorPickerField field = swatchOnlyField();
+        field.setPreviewLut(invert);
+        field.setValue(RED);
+        assertSwatch(invert.transform(RED.getRGB()), field);
+
+        click(field);
+        // the picker shows the value, not the preview
+        Assert.assertEquals(RED, field.getColorPicker().getColor());
+        pick(field, GREEN);
+        Assert.assertEquals(GREEN, field.getValue());
+        Assert.assertEquals(GREEN, field.getColorPicker().getColor());
+        pick(field, GREEN);
+        Assert.assertEquals(GREEN, field.getValue());
+
+        popupOf(field).close();
+        assertSwatch(invert.transform(GREEN.getRGB()), field);
+        field.setPreviewLut(null);
+        assertSwatch(GREEN.getRGB(), field);
+    }
+
+    private ColorPickerField attachedField() {
+        ColorPickerField field = new ColorPickerField();
+        layout.addComponent(field);
+        return field;
+    }
+
+    private static ColorPickerField recordingField() {
+        ColorPickerField field = new ColorPickerField();
+        field.setColorPickerFactory(new ColorPickerFactory<ColorPicker>() {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public ColorPicker createColorPicker(String popupCaption) {
+                return new RecordingColorPicker(popupCaption);
+            }
+
+        });
+        return field;
+    }
+
+    private static void assertConfiguration(
+            ColorPickerFieldConfiguration expected, RecordingColorPicker picker) {
+        Assert.assertEquals(expected.getPopupStyle(), picker.popupStyle);
+        Assert.assertEquals(expected.getPositionX(), picker.positionX);
+        Assert.assertEquals(expected.getPositionY(), picker.positionY);
+        Assert.assertEquals(expected.isDefaultCaptionEnabled(),
+                picker.defaultCaptionEnabled);
+        Assert.assertEquals(expected.isRGBVisibility(), picker.rgbVisibility);
+        Assert.assertEquals(expected.isHSVVisibility(), picker.hsvVisibility);
+        Assert.assertEquals(expected.isSwatchesVisibility(),
+                picker.swatchesVisibility);
+        Assert.assertEquals(expected.isHistoryVisibility(),
+                picker.historyVisibility);
+        Assert.assertEquals(expected.isTextfieldVisibility(),
+                picker.textfieldVisibility);
+    }
+
+    private ColorPickerField swatchOnlyField() {
+        ColorPickerField field = new ColorPickerField();
+        field.setSwatchOnly(true);
+        layout.addComponent(field);
+        return field;
+    }
+
+    /**
+     * Gets the component shown by the content layout of a field
+     */
+    private static Component contentOf(AbstractColorPickerField<?> field) {
+        CssLayout content = (CssLayout) field.iterator().next();
+        Assert.assertEquals(1, content.getComponentCount());
+        return content.getComponent(0);
+    }
+
+    /**
+     * Checks the color shown by the swatch of a field
+     */
+    private static void assertSwatch(int argb, AbstractColorPickerField<?> field) {
+        String css = new Color(argb >> 16 & 0xFF, argb >> 8 & 0xFF,
+                argb & 0xFF, argb >>> 24).getCSS();
+        String swatch = ((Label) contentOf(field)).getValue();
+        Assert.assertTrue(swatch, swatch.contains("background:" + css + "\""));
+    }
+
+    /**
+     * Clicks the content layout of a field
+     */
+    private static void click(AbstractColorPickerField<?> field) {
+        CssLayout content = (CssLayout) field.iterator().next();
+        Component child = content.getComponent(0);
+        LayoutEvents.LayoutClickEvent event = new LayoutEvents.LayoutClickEvent(
+                content, new MouseEventDetails(), child, child);
+        for (Object listener : content.getListeners(
+                LayoutEvents.LayoutClickEvent.class)) {
+            ((LayoutEvents.LayoutClickListener) listener).layoutClick(event);
+        }
+    }
+
+    /**
+     * Picks a color in the color picker of a field like the popup does
+     */
+    private static void pick(AbstractColorPickerField<?> field, Color color) {
+        AbstractColorPicker picker = field.getColorPicker();
+        picker.colorChanged(new ColorChangeEvent(picker, color));
+    }
+
+    /**
+     * Sends a poll request of the client
+     */
+    private void poll() {
+        for (Object listener : ui.getListeners(UIEvents.PollEvent.class)) {
+            ((UIEvents.PollListener) listener).poll(new UIEvents.PollEvent(ui));
+        }
+    }
+
+    /**
+     * Finds the open popup window of the color picker of a field
+     */
+    private Window popupOf(AbstractColorPickerField<?> field) {
+        for (Window window : ui.getWindows()) {
+            if (window.getListeners(Window.CloseEvent.class)
+                    .contains(field.getColorPicker())) {
+                return window;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * A color picker that records the properties passed to it
+     */
+    private static class RecordingColorPicker extends ColorPicker {
+
+        private static final long serialVersionUID = 1L;
+
+        int calls = 0;
+        AbstractColorPicker.PopupStyle popupStyle;
+        int positionX;
+        int positionY;
+        boolean defaultCaptionEnabled;
+        boolean rgbVisibility = true;
+        boolean hsvVisibility = true;
+        boolean swatchesVisibility = true;
+        boolean historyVisibility = true;
+        boolean textfieldVisibility = true;
+
+        RecordingColorPicker(String popupCaption) {
+            super(popupCaption);
+        }
+
+        @Override
+        public void setColor(Color color) {
+            calls++;
+            super.setColor(color);
+        }
+
+        @Override
+        public void setPopupStyle(AbstractColorPicker.PopupStyle style) {
+            calls++;
+            popupStyle = style;
+            super.setPopupStyle(style);
+        }
+
+        @Override
+        public void setPosition(int x, int y) {
+            calls++;
+            positionX = x;
+            positionY = y;
+            super.setPosition(x, y);
+        }
+
+        @Override
+        public void setDefaultCaptionEnabled(boolean enabled) {
+            calls++;
+            defaultCaptionEnabled = enabled;
+            super.setDefaultCaptionEnabled(enabled);
+        }
+
+        @Override
+        public void setRGBVisibility(boolean visible) {
+            super.setRGBVisibility(visible);
+            calls++;
+            rgbVisibility = visible;
+        }
+
+        @Override
+        public void setHSVVisibility(boolean visible) {
+            super.setHSVVisibility(visible);
+            calls++;
+            hsvVisibility = visible;
+        }
+
+        @Override
+        public void setSwatchesVisibility(boolean visible) {
+            super.setSwatchesVisibility(visible);
+            calls++;
+            swatchesVisibility = visible;
+        }
+
+        @Override
+        public void setHistoryVisibility(boolean visible) {
+            calls++;
+            historyVisibility = visible;
+            super.setHistoryVisibility(visible);
+        }
+
+        @Override
+        public void setTextfieldVisibility(boolean visible) {
+            calls++;
+            textfieldVisibility = visible;
+            super.setTextfieldVisibility(visible);
+        }
+
+    }
+
+    /**
+     * A session without service that is always locked by the test thread
+     */
+    private static class AlwaysLockedSession extends VaadinSession {
+
+        private static final long serialVersionUID = 1L;
+
+        private int connectorIds = 0;
+
+        AlwaysLockedSession() {
+            super(null);
+        }
+
+        @Override
+        public boolean hasLock() {
+            return true;
+        }
+
+        @Override
+        public String createConnectorId(ClientConnector connector) {
+            return String.valueOf(connectorIds++);
+        }
+
+    }
+
 }
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.color;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Max Schuster
+ */
+public class ColorContrastTest {
+
+    @Test
+    public void relativeLuminanceShouldMatchFormula() {
+        for (int rgb = 0; rgb < 0x1000000; rgb += 997) {
+            Assert.assertEquals(luminance(rgb),
+                    ColorContrast.relativeLuminance(rgb), 1e-12);
+        }
+        Assert.assertEquals(0, ColorContrast.relativeLuminance(0xFF000000), 0);
+        Assert.assertEquals(1, ColorContrast.relativeLuminance(0xFFFFFFFF), 1e-12);
+    }
+
+    @Test
+    public void contrastRatio() {
+        Assert.assertEquals(21, ColorContrast.contrastRatio(0xFF000000, 0xFFFFFFFF), 1e-9);
+        Assert.assertEquals(21, ColorContrast.contrastRatio(0xFFFFFFFF, 0xFF000000), 1e-9);
+        Assert.assertEquals(1, ColorContrast.contrastRatio(0xFF336699, 0xFF336699), 0);
+        // #767676 is the lightest gray with AA contrast on white
+        Assert.assertEquals(4.54, ColorContrast.contrastRatio(0xFF767676, 0xFFFFFFFF), 0.005);
+        Assert.assertTrue(ColorContrast.hasContrast(0xFF767676, 0xFFFFFFFF,
+                ColorContrast.AA_NORMAL_TEXT));
+        Assert.assertFalse(ColorContrast.hasContrast(0xFF777777, 0xFFFFFFFF,
+                ColorContrast.AA_NORMAL_TEXT));
+    }
+
+    @Test
+    public void translucentForegroundShouldBeBlended() {
+        Assert.assertEquals(1, ColorContrast.contrastRatio(0x00000000, 0xFFFFFFFF), 0);
+        Assert.assertEquals(ColorContrast.contrastRatio(0xFF7F7F7F, 0xFFFFFFFF),
+                ColorContrast.contrastRatio(0x80000000, 0xFFFFFFFF), 1e-9);
+    }
+
+    private static double luminance(int rgb) {
+        return 0.2126 * linear(rgb >> 16 & 0xFF) + 0.7152 * linear(rgb >> 8 & 0xFF)
+                + 0.0722 * linear(rgb & 0xFF);
+    }
+
+    private static double linear(int channel) {
+        double c = channel / 255d;
+        return c <= 0.03928 ? c / 12.92 : Math.pow((c + 0.055) / 1.055, 2.4);
+    }
+
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.color;
+
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Max Schuster
+ */
+public class ColorLutTest {
+
+    private static final ColorTransform IDENTITY = new ColorTransform() {
+
+        @Override
+        public int transform(int argb) {
+            return argb;
+        }
+
+    };
+
+    /**
+     * Linear in every channel, so interpolation is exact up to rounding
+     */
+    private static final ColorTransform INVERT = new ColorTransform() {
+
+        @Override
+        public int transform(int argb) {
+            return argb ^ 0x00FFFFFF;
+        }
+
+    };
+
+    private static final ColorTransform DESATURATE = new ColorTransform() {
+
+        @Override
+        public int transform(int argb) {
+            double[] hsl = new double[3];
+            ColorSpaces.argbToHsl(argb, hsl);
+            return ColorSpaces.hslToArgb(hsl[0], hsl[1] * 0.3, hsl[2], argb >>> 24);
+        }
+
+    };
+
+    @Test
+    public void alignedIdentityShouldBeExact() {
+        ColorLut lut = new ColorLut(IDENTITY, 18);
+        for (int rgb = 0; rgb < 1 << 24; rgb += 7) {
+            Assert.assertEquals(0xFF000000 | rgb, lut.transform(0xFF000000 | rgb));
+        }
+    }
+
+    @Test
+    public void defaultSizeShouldBeCloseForLinearTransforms() {
+        ColorLut identity = new ColorLut(IDENTITY);
+        ColorLut invert = new ColorLut(INVERT);
+        Assert.assertEquals(ColorLut.DEFAULT_SIZE, identity.getSize());
+        for (int rgb = 0; rgb < 1 << 24; rgb += 13) {
+            int argb = 0xFF000000 | rgb;
+            Assert.assertTrue(distance(argb, identity.transform(argb)) <= 1);
+            Assert.assertTrue(distance(INVERT.transform(argb), invert.transform(argb)) <= 1);
+        }
+    }
+
+    @Test
+    public void shouldApproximateTransform() {
+        ColorLut lut = new ColorLut(DESATURATE);
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            int argb = random.nextInt() | 0xFF000000;
+            Assert.assertTrue(distance(DESATURATE.transform(argb), lut.transform(argb)) <= 4);
+        }
+    }
+
+    @Test
+    public void shouldKeepAlpha() {
+        ColorLut lut = new ColorLut(INVERT, 2);
+        Assert.assertEquals(0x00FFFFFF, lut.transform(0x00000000));
+        Assert.assertEquals(0x80FF0000, lut.transform(0x8000FFFF));
+        Assert.assertEquals(0xFF808080, lut.transform(0xFF7F7F7F));
+    }
+
+    @Test
+    public void arraysShouldMatchSingleColors() {
+        ColorLut lut = new ColorLut(DESATURATE, 17);
+        Random random = new Random(42);
+        int[] source = new int[1000];
+        for (int i = 0; i < source.length; i++) {
+            source[i] = random.nextInt();
+        }
+        int[] target = new int[source.length];
+        lut.transform(source, target);
+        for (int i = 0; i < source.length; i++) {
+            Assert.assertEquals(lut.transform(source[i]), target[i]);
+        }
+        lut.transform(source);
+        Assert.assertArrayEquals(target, source);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectSmallSize() {
+        new ColorLut(IDENTITY, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectShortTarget() {
+        new ColorLut(IDENTITY, 2).transform(new int[2], new int[1]);
+    }
+
+    private static int distance(int a, int b) {
+        int dr = Math.abs((a >> 16 & 0xFF) - (b >> 16 & 0xFF));
+        int dg = Math.abs((a >> 8 & 0xFF) - (b >> 8 & 0xFF));
+        int db = Math.abs((a & 0xFF) - (b & 0xFF));
+        return Math.max(dr, Math.max(dg, db));
+    }
+
+}
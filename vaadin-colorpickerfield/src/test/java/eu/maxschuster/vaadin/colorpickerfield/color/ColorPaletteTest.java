@@ -0,0 +1,93 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.color;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Max Schuster
+ */
+public class ColorPaletteTest {
+
+    @Test
+    public void nearestShouldMatchLinearScan() {
+        Random random = new Random(42);
+        for (int size : new int[]{1, 2, 7, 100, 10000}) {
+            int[] colors = new int[size];
+            for (int i = 0; i < size; i++) {
+                colors[i] = random.nextInt() | 0xFF000000;
+            }
+            ColorPalette palette = new ColorPalette(colors);
+            for (int i = 0; i < 500; i++) {
+                int argb = random.nextInt() | 0xFF000000;
+                Assert.assertEquals(distance(argb, linearScan(colors, argb)),
+                        distance(argb, palette.nearest(argb)), 0);
+            }
+            for (int color : colors) {
+                Assert.assertEquals(color, palette.nearest(color));
+            }
+        }
+    }
+
+    @Test
+    public void duplicateColors() {
+        int[] colors = new int[1000];
+        Arrays.fill(colors, 0xFF336699);
+        colors[500] = 0xFFFFFFFF;
+        ColorPalette palette = ColorPalette.of(colors);
+        Assert.assertEquals(0xFF336699, palette.nearest(0xFF000000));
+        Assert.assertEquals(0xFFFFFFFF, palette.nearest(0xFFEEEEEE));
+        Assert.assertEquals(1000, palette.size());
+    }
+
+    @Test
+    public void nearestShouldKeepPaletteAlpha() {
+        ColorPalette palette = ColorPalette.of(0x80FF0000, 0xFF0000FF);
+        Assert.assertEquals(0x80FF0000, palette.nearest(0xFFEE1100));
+        Assert.assertEquals(0xFF0000FF, palette.nearest(0x000000EE));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void emptyPaletteShouldFail() {
+        ColorPalette.of();
+    }
+
+    private static int linearScan(int[] colors, int argb) {
+        int nearest = colors[0];
+        for (int color : colors) {
+            if (distance(argb, color) < distance(argb, nearest)) {
+                nearest = color;
+            }
+        }
+        return nearest;
+    }
+
+    private static double distance(int argb1, int argb2) {
+        double[] lab1 = new double[3];
+        double[] lab2 = new double[3];
+        ColorSpaces.argbToOklab(argb1, lab1);
+        ColorSpaces.argbToOklab(argb2, lab2);
+        double dl = lab1[0] - lab2[0];
+        double da = lab1[1] - lab2[1];
+        double db = lab1[2] - lab2[2];
+        return dl * dl + da * da + db * db;
+    }
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.color;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Max Schuster
+ */
+public class ColorSetTest {
+
+    @Test
+    public void addContainsAndRemove() {
+        ColorSet set = new ColorSet();
+        Assert.assertTrue(set.isEmpty());
+        Assert.assertTrue(set.add(0xFF336699));
+        Assert.assertFalse(set.add(0x80336699));
+        Assert.assertTrue(set.contains(0xFF336699));
+        Assert.assertTrue(set.contains(0x00336699));
+        Assert.assertFalse(set.contains(0xFF336698));
+        Assert.assertFalse(set.contains(0xFF346699));
+        Assert.assertEquals(1, set.size());
+        Assert.assertTrue(set.remove(0xFF336699));
+        Assert.assertFalse(set.remove(0xFF336699));
+        Assert.assertFalse(set.contains(0xFF336699));
+        Assert.assertEquals(0, set.size());
+    }
+
+    @Test
+    public void toArrayShouldReturnSortedColors() {
+        ColorSet set = new ColorSet(0xFFFFFFFF, 0xFF000000, 0xFF0FE000,
+                0xFF000040, 0xFF000000);
+        Assert.assertArrayEquals(new int[]{0xFF000000, 0xFF000040, 0xFF0FE000,
+            0xFFFFFFFF}, set.toArray());
+        set.clear();
+        Assert.assertEquals(0, set.toArray().length);
+    }
+
+    @Test
+    public void fullSet() {
+        ColorSet set = new ColorSet();
+        for (int rgb = 0; rgb < 0x1000000; rgb++) {
+            set.add(rgb);
+        }
+        Assert.assertEquals(0x1000000, set.size());
+        for (int rgb = 0; rgb < 0x1000000; rgb += 257) {
+            Assert.assertTrue(set.contains(rgb | 0xFF000000));
+        }
+    }
+
+    @Test
+    public void paletteColors() {
+        ColorSet set = new ColorSet(ColorPalette.of(0xFF0000FF, 0xFF00FF00));
+        Assert.assertEquals(2, set.size());
+        Assert.assertTrue(set.contains(0xFF0000FF));
+    }
+
+}
@@ -16,6 +16,7 @@
 package eu.maxschuster.vaadin.colorpickerfield.converter;
 
 import com.vaadin.shared.ui.colorpicker.Color;
+import java.nio.CharBuffer;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
@@ -119,6 +120,79 @@ public abstract class AbstractStringToColorConverterTest<STC extends AbstractCol
         
     }
 
+    @Test
+    public void tryParseArgb() {
+        STC stc = getStringToColorConverter();
+        CTS cts = getColorToStringConverter();
+        
+        for (int i = 0; i < strings.size(); i++) {
+            String string = strings.get(i);
+            long expected = colors.get(i).getRGB() & 0xFFFFFFFFL;
+            
+            Assert.assertEquals("Error parsing '" + string + "'",
+                    expected, stc.tryParseArgb(string));
+            Assert.assertEquals("Error parsing '" + string + "'",
+                    expected, cts.tryParseArgb(string));
+        }
+    }
+
+    @Test
+    public void parseAndSerializeArgb() {
+        STC stc = getStringToColorConverter();
+        CTS cts = getColorToStringConverter();
+        
+        for (int i = 0; i < strings.size(); i++) {
+            String string = strings.get(i);
+            int argb = colors.get(i).getRGB();
+            
+            Assert.assertEquals(argb, stc.parseArgb(string));
+            Assert.assertEquals(argb, cts.parseArgb(string));
+            Assert.assertEquals(string.toLowerCase(Locale.GERMANY),
+                    stc.serializeArgb(argb).toLowerCase(Locale.GERMANY));
+            Assert.assertEquals(string.toLowerCase(Locale.GERMANY),
+                    cts.serializeArgb(argb).toLowerCase(Locale.GERMANY));
+        }
+    }
+
+    @Test
+    public void serializeArgbIntoSinks() {
+        STC stc = getStringToColorConverter();
+        char[] buffer = new char[64];
+        CharBuffer charBuffer = CharBuffer.allocate(64);
+        StringBuilder sb = new StringBuilder("x");
+        
+        for (int i = 0; i < strings.size(); i++) {
+            String expected = stc.serializeArgb(colors.get(i).getRGB());
+            int argb = colors.get(i).getRGB();
+            
+            int length = stc.serializeArgb(argb, buffer, 3);
+            Assert.assertEquals(expected, new String(buffer, 3, length));
+            
+            charBuffer.clear();
+            stc.serializeArgb(argb, charBuffer);
+            charBuffer.flip();
+            Assert.assertEquals(expected, charBuffer.toString());
+            
+            sb.setLength(1);
+            stc.serializeArgb(argb, sb);
+            Assert.assertEquals("x" + expected, sb.toString());
+        }
+    }
+
+    @Test
+    public void tryParseInvalidArgbShouldNotThrow() {
+        STC stc = getStringToColorConverter();
+        
+        long result = stc.tryParseArgb("");
+        Assert.assertFalse(AbstractColorConverter.isValidArgb(result));
+        Assert.assertEquals(0, AbstractColorConverter.getErrorIndex(result));
+        
+        result = stc.tryParseArgb("?");
+        Assert.assertFalse(AbstractColorConverter.isValidArgb(result));
+        Assert.assertEquals(0, AbstractColorConverter.getErrorIndex(result));
+        Assert.assertFalse(stc.isValid("?"));
+    }
+
     @Test
     public void convertNullModelToPresentationShouldReturnNull() {
         STC stc = getStringToColorConverter();
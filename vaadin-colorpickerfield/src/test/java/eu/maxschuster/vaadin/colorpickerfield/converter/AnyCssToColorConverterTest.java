@@ -0,0 +1,145 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.converter;
+
+import com.vaadin.shared.ui.colorpicker.Color;
+import java.util.Arrays;
+import java.util.Locale;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Max Schuster
+ */
+public class AnyCssToColorConverterTest extends
+        AbstractStringToColorConverterTest<AnyCssToColorConverter, ColorToAnyCssConverter> {
+
+    public AnyCssToColorConverterTest() {
+        super(new AnyCssToColorConverter(), new ColorToAnyCssConverter(),
+                Arrays.asList(new Color[]{
+            new Color(255, 255, 255),
+            new Color(15, 224, 0),
+            new Color(15, 224, 0, 153),
+            new Color(0, 0, 0, 0)
+        }),
+                Arrays.asList(new String[]{
+            "#ffffff",
+            "#0FE000",
+            "rgba(15,224,0,0.6)",
+            "rgba(0,0,0,0)"
+        }));
+    }
+
+    @Test
+    public void convertMixedNotationsToModel() {
+        AnyCssToColorConverter stc = getStringToColorConverter();
+        String[] strings = new String[]{"#0fe000", "0FE000", "#0fe000ff", "rgb(15,224,0)", "RGB( 15 , 224 , 0 )",
+            "rgba(15,224,0,1)", "Rgba(15,224,0,1.0)"};
+        for (String string : strings) {
+            Assert.assertEquals(string, new Color(15, 224, 0),
+                    stc.convertToModel(string, Color.class, Locale.GERMANY));
+        }
+        Assert.assertEquals(new Color(0, 255, 238),
+                stc.convertToModel("0fe", Color.class, Locale.GERMANY));
+    }
+
+    @Test
+    public void convertCssColor4NotationsToModel() {
+        AnyCssToColorConverter stc = getStringToColorConverter();
+        String[] strings = new String[]{"hsl(115.98 100% 43.92%)",
+            "HSLA(115.98, 100%, 43.92%, 1)", "hwb(115.98 0% 12.16%)",
+            "lab(78.19 -71.34 73.52)", "oklch(0.78627 0.26638 142.31)"};
+        for (String string : strings) {
+            Assert.assertEquals(string, new Color(15, 224, 0),
+                    stc.convertToModel(string, Color.class, Locale.GERMANY));
+        }
+    }
+
+    @Test
+    public void convertNamedColorsToModel() {
+        AnyCssToColorConverter stc = getStringToColorConverter();
+        Assert.assertEquals(new Color(102, 51, 153),
+                stc.convertToModel("RebeccaPurple", Color.class, Locale.GERMANY));
+        Assert.assertEquals(new Color(255, 0, 0),
+                stc.convertToModel("red", Color.class, Locale.GERMANY));
+        Assert.assertEquals(new Color(0, 0, 0, 0),
+                stc.convertToModel("transparent", Color.class, Locale.GERMANY));
+        // names never shadow hex colors without '#'
+        Assert.assertEquals(new Color(0xbe, 0xef, 0x00),
+                stc.convertToModel("beef00", Color.class, Locale.GERMANY));
+    }
+
+    @Test
+    public void invalidInputShouldReportIndex() {
+        AnyCssToColorConverter stc = getStringToColorConverter();
+        String[] strings = new String[]{"", "x", "#0fx", "rgb(15,224)",
+            "rgba(15,224,0)", "r", "rgbx(0,0,0)", "h", "hsv(0 0% 0%)",
+            "oklab(0 0 0)"};
+        int[] indices = new int[]{0, 0, 3, 10, 13, 1, 3, 1, 2, 3};
+        for (int i = 0; i < strings.length; i++) {
+            long result = stc.tryParseArgb(strings[i]);
+            Assert.assertFalse(strings[i], AbstractColorConverter.isValidArgb(result));
+            Assert.assertEquals(strings[i], indices[i],
+                    AbstractColorConverter.getErrorIndex(result));
+        }
+    }
+
+    @Test
+    public void serializeWithOutputConverter() {
+        AnyCssToColorConverter stc = new AnyCssToColorConverter(new ColorToRgbConverter());
+        Assert.assertEquals("rgb(15,224,0)", stc.convertToPresentation(
+                stc.convertToModel("#0fe000", Color.class, Locale.GERMANY),
+                String.class, Locale.GERMANY));
+        stc.setOutputConverter(new RgbaToColorConverter());
+        Assert.assertEquals("rgba(15,224,0,1)", stc.serializeArgb(0xFF0FE000));
+        stc.setOutputConverter(null);
+        Assert.assertEquals("#0fe000", stc.serializeArgb(0xFF0FE000));
+    }
+
+    @Test
+    public void cacheShouldRespectOutputConverter() {
+        ColorConversionCache cache = new ColorConversionCache(64);
+        AnyCssToColorConverter hex = new AnyCssToColorConverter();
+        AnyCssToColorConverter rgb = new AnyCssToColorConverter(new ColorToRgbConverter());
+        hex.setConversionCache(cache);
+        rgb.setConversionCache(cache);
+        Assert.assertEquals("#0fe000", hex.serializeArgb(0xFF0FE000));
+        Assert.assertEquals("rgb(15,224,0)", rgb.serializeArgb(0xFF0FE000));
+        rgb.setOutputConverter(null);
+        Assert.assertEquals("#0fe000", rgb.serializeArgb(0xFF0FE000));
+        Assert.assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void cacheShouldFollowReconfiguredOutputConverter() {
+        ColorConversionCache cache = new ColorConversionCache(64);
+        ColorToHexConverter output = new ColorToHexConverter();
+        AnyCssToColorConverter any = new AnyCssToColorConverter(output);
+        any.setConversionCache(cache);
+        Assert.assertEquals("#0fe000", any.serializeArgb(0xFF0FE000));
+        output.setColorFormat(ColorFormat.compile("#{r:X}{g:X}{b:X}"));
+        Assert.assertEquals("#0FE000", any.serializeArgb(0xFF0FE000));
+        any.setOutputConverter(new ColorToHexConverter());
+        Assert.assertEquals("#0fe000", any.serializeArgb(0xFF0FE000));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void anyCssOutputConverterShouldFail() {
+        new AnyCssToColorConverter(new ColorToAnyCssConverter());
+    }
+
+}
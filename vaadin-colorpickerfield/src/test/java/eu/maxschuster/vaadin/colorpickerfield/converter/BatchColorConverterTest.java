@@ -0,0 +1,82 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.converter;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Max Schuster
+ */
+public class BatchColorConverterTest {
+
+    @Test
+    public void parseWithErrors() {
+        BatchColorConverter batch = new BatchColorConverter(new HexToColorConverter());
+        List<String> strings = new LinkedList<String>(Arrays.asList(
+                "#0fe000", "#ggg", null, "#fff", "#12345678"));
+        BatchColorConverter.ParseResult result = batch.parse(strings);
+        Assert.assertEquals(5, result.size());
+        Assert.assertEquals(2, result.getErrorCount());
+        Assert.assertTrue(result.hasErrors());
+        Assert.assertArrayEquals(new int[]{0xFF0FE000, 0, 0, 0xFFFFFFFF, 0x78123456},
+                result.getArgb());
+        Assert.assertFalse(result.isError(0));
+        Assert.assertTrue(result.isError(1));
+        Assert.assertTrue(result.isError(2));
+        Assert.assertEquals(1, result.nextErrorIndex(0));
+        Assert.assertEquals(2, result.nextErrorIndex(2));
+        Assert.assertEquals(-1, result.nextErrorIndex(3));
+        Assert.assertEquals(6L, result.getErrorBitmap()[0]);
+    }
+
+    @Test
+    public void parseAndSerializeInParallel() {
+        BatchColorConverter sequential = new BatchColorConverter(new RgbaToColorConverter());
+        sequential.setParallelThreshold(Integer.MAX_VALUE);
+        BatchColorConverter parallel = new BatchColorConverter(new RgbaToColorConverter());
+        parallel.setParallelThreshold(1);
+
+        int size = 100003;
+        int[] argb = new int[size];
+        for (int i = 0; i < size; i++) {
+            argb[i] = i * 0x9E3779B9;
+        }
+        String[] strings = parallel.serialize(argb);
+        Assert.assertArrayEquals(sequential.serialize(argb), strings);
+        for (int i = 0; i < size; i += 97) {
+            strings[i] = "rgba(" + i + ")";
+        }
+
+        BatchColorConverter.ParseResult expected = sequential.parse(strings);
+        BatchColorConverter.ParseResult actual = parallel.parse(strings);
+        Assert.assertEquals((size + 96) / 97, actual.getErrorCount());
+        Assert.assertEquals(expected.getErrorCount(), actual.getErrorCount());
+        Assert.assertArrayEquals(expected.getErrorBitmap(), actual.getErrorBitmap());
+        Assert.assertArrayEquals(expected.getArgb(), actual.getArgb());
+        int count = 0;
+        for (int i = actual.nextErrorIndex(0); i >= 0; i = actual.nextErrorIndex(i + 1)) {
+            Assert.assertEquals(0, i % 97);
+            count++;
+        }
+        Assert.assertEquals(actual.getErrorCount(), count);
+    }
+
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.converter;
+
+import com.vaadin.shared.ui.colorpicker.Color;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+/**
+ *
+ * @author Max Schuster
+ */
+public class ColorConversionCacheTest {
+
+    @Test
+    public void parseAndSerializeWithCache() {
+        ColorConversionCache cache = new ColorConversionCache(64);
+        HexToColorConverter stc = new HexToColorConverter();
+        ColorToHexConverter cts = new ColorToHexConverter();
+        stc.setConversionCache(cache);
+        cts.setConversionCache(cache);
+
+        Color color = stc.convertToModel("#0FE000", Color.class, Locale.GERMANY);
+        Assert.assertEquals(new Color(15, 224, 0), color);
+        Assert.assertEquals(0, cache.getHitCount());
+        Assert.assertEquals(1, cache.getMissCount());
+
+        // cached colors are never shared
+        Color other = stc.convertToModel("#0FE000", Color.class, Locale.GERMANY);
+        Assert.assertEquals(color, other);
+        Assert.assertNotSame(color, other);
+        Assert.assertEquals(1, cache.getHitCount());
+
+        Assert.assertEquals("#0fe000", cts.convertToModel(color, String.class, Locale.GERMANY));
+        Assert.assertEquals("#0fe000", cts.convertToModel(color, String.class, Locale.GERMANY));
+        Assert.assertEquals(2, cache.getHitCount());
+        Assert.assertEquals(2, cache.getMissCount());
+        Assert.assertEquals(2, cache.size());
+
+        cache.clear();
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals(0, cache.getHitCount());
+        Assert.assertEquals(0, cache.getMissCount());
+    }
+
+    @Test
+    public void notationsShouldNotShareEntries() {
+        ColorConversionCache cache = new ColorConversionCache(64);
+        ColorToHexConverter hex = new ColorToHexConverter();
+        ColorToRgbConverter rgb = new ColorToRgbConverter();
+        hex.setConversionCache(cache);
+        rgb.setConversionCache(cache);
+        Color color = new Color(15, 224, 0);
+        Assert.assertEquals("#0fe000", hex.convertToModel(color, String.class, Locale.GERMANY));
+        Assert.assertEquals("rgb(15,224,0)", rgb.convertToModel(color, String.class, Locale.GERMANY));
+        Assert.assertEquals(0, cache.getHitCount());
+    }
+
+    @Test
+    public void cacheInvalidResults() {
+        ColorConversionCache cache = new ColorConversionCache(64);
+        RgbToColorConverter stc = new RgbToColorConverter();
+        stc.setConversionCache(cache);
+        long result = stc.tryParseArgb("rgb(256,0,0)");
+        Assert.assertEquals(4, AbstractColorConverter.getErrorIndex(result));
+        Assert.assertEquals(result, stc.tryParseArgb("rgb(256,0,0)"));
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void sizeShouldBeBounded() {
+        ColorConversionCache cache = new ColorConversionCache(64);
+        ColorToRgbaConverter cts = new ColorToRgbaConverter();
+        cts.setConversionCache(cache);
+        for (int argb = 0; argb < 10000; argb++) {
+            Assert.assertEquals(cts.serializeArgbUncached(argb * 997),
+                    cts.serializeArgb(argb * 997));
+        }
+        Assert.assertTrue(cache.size() <= cache.getMaximumSize());
+    }
+
+    @Test
+    public void regionsShouldBeBounded() {
+        ColorConversionCache cache = new ColorConversionCache(64);
+        ColorToHexConverter cts = new ColorToHexConverter();
+        cts.setConversionCache(cache);
+        for (int i = 0; i < ColorConversionCache.MAXIMUM_REGIONS * 2; i++) {
+            cts.setColorFormat(ColorFormat.compile("#{r:x}{g:x}{b:x}/" + i));
+            Assert.assertEquals("#0fe000/" + i, cts.serializeArgb(0xFF0FE000));
+        }
+        Assert.assertTrue(cache.size() <= ColorConversionCache.MAXIMUM_REGIONS);
+    }
+
+    @Test
+    public void cacheHitsShouldNotAllocate() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        Assume.assumeTrue(threads.isThreadAllocatedMemorySupported()
+                && threads.isThreadAllocatedMemoryEnabled());
+        ColorConversionCache cache = new ColorConversionCache(64);
+        RgbToColorConverter stc = new RgbToColorConverter();
+        ColorToRgbConverter cts = new ColorToRgbConverter();
+        stc.setConversionCache(cache);
+        cts.setConversionCache(cache);
+        StringBuilder rgb = new StringBuilder("rgb(15,224,0)");
+        long id = Thread.currentThread().getId();
+        long sum = lookup(stc, cts, rgb, 100000);
+        long before = threads.getThreadAllocatedBytes(id);
+        sum += lookup(stc, cts, rgb, 100000);
+        long allocated = threads.getThreadAllocatedBytes(id) - before;
+        // a few bytes of slack for the measurement itself
+        Assert.assertTrue("cache hits allocated " + allocated + " bytes (" + sum + ")",
+                allocated < 1024);
+    }
+
+    private static long lookup(RgbToColorConverter stc, ColorToRgbConverter cts,
+            CharSequence string, int iterations) {
+        long sum = 0;
+        for (int i = 0; i < iterations; i++) {
+            sum += stc.tryParseArgb(string);
+            sum += cts.serializeArgb(0xFF0FE000 + (i & 7)).length();
+        }
+        return sum;
+    }
+
+    @Test
+    public void serializeSharedCache() throws IOException, ClassNotFoundException {
+        ColorToHexConverter cts = new ColorToHexConverter();
+        cts.setConversionCache(ColorConversionCache.getShared());
+        ColorToHexConverter copy = serializeAndDeserialize(cts);
+        Assert.assertSame(ColorConversionCache.getShared(), copy.getConversionCache());
+        Assert.assertEquals("#0fe000", copy.serializeArgb(0xFF0FE000));
+
+        ColorConversionCache cache = new ColorConversionCache(64);
+        cache.getRegion(ColorToHexConverter.class);
+        ColorConversionCache cacheCopy = serializeAndDeserialize(cache);
+        Assert.assertEquals(64, cacheCopy.getMaximumSize());
+        Assert.assertEquals(0, cacheCopy.size());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T serializeAndDeserialize(T object) throws IOException,
+            ClassNotFoundException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(object);
+        out.close();
+        ObjectInputStream in = new ObjectInputStream(
+                new ByteArrayInputStream(bytes.toByteArray()));
+        return (T) in.readObject();
+    }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.converter;
+
+import com.vaadin.shared.ui.colorpicker.Color;
+import java.util.Locale;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Max Schuster
+ */
+public class ColorFormatTest {
+
+    @Test
+    public void formatChannels() {
+        int argb = 0x990FE000;
+        Assert.assertEquals("rgb(15, 224, 0)",
+                ColorFormat.compile("rgb({r}, {g}, {b})").format(argb));
+        Assert.assertEquals("#0FE00099",
+                ColorFormat.compile("#{r:X}{g:X}{b:X}{a:X}").format(argb));
+        Assert.assertEquals("rgba(15,224,0,0.6) 153",
+                ColorFormat.compile("rgba({r},{g},{b},{a}) {a:d}").format(argb));
+        Assert.assertEquals("rgb(5.88% 87.84% 0%)",
+                ColorFormat.compile("rgb({r:%} {g:%} {b:%})").format(argb));
+        Assert.assertEquals("{15}", ColorFormat.compile("{{{r}}}").format(argb));
+    }
+
+    @Test
+    public void formatShortestHex() {
+        ColorFormat hex = ColorFormat.compile("#{hex}");
+        Assert.assertEquals("#fff", hex.format(0xFFFFFFFF));
+        Assert.assertEquals("#0fe000", hex.format(0xFF0FE000));
+        Assert.assertEquals("#0a0", hex.format(0x8000AA00));
+        Assert.assertEquals("#F0A8", ColorFormat.compile("#{HEXA}").format(0x88FF00AA));
+        Assert.assertEquals("#ff00aa80", ColorFormat.compile("#{hexa}").format(0x80FF00AA));
+    }
+
+    @Test
+    public void defaultFormatsShouldMatchConverters() {
+        ColorToHexConverter hex = new ColorToHexConverter();
+        ColorToRgbConverter rgb = new ColorToRgbConverter();
+        ColorToRgbaConverter rgba = new ColorToRgbaConverter();
+        for (int i = 0; i < 100000; i++) {
+            int argb = i * 0x9E3779B9;
+            Assert.assertEquals(hex.serializeArgb(argb), ColorFormat.HEX.format(argb));
+            Assert.assertEquals(rgb.serializeArgb(argb), ColorFormat.RGB.format(argb));
+            Assert.assertEquals(rgba.serializeArgb(argb), ColorFormat.RGBA.format(argb));
+        }
+    }
+
+    @Test
+    public void converterShouldUseFormat() {
+        HexToColorConverter stc = new HexToColorConverter();
+        stc.setColorFormat(ColorFormat.compile("#{HEX}"));
+        Assert.assertEquals("#0FE000", stc.convertToPresentation(
+                new Color(15, 224, 0), String.class, Locale.GERMANY));
+        Assert.assertEquals("#FFF", stc.serializeArgb(0xFFFFFFFF));
+        Assert.assertEquals(0xFFFFFFFF, stc.parseArgb(stc.serializeArgb(0xFFFFFFFF)));
+        stc.setColorFormat(null);
+        Assert.assertEquals("#ffffff", stc.serializeArgb(0xFFFFFFFF));
+    }
+
+    @Test
+    public void cacheShouldRespectFormat() {
+        ColorConversionCache cache = new ColorConversionCache(64);
+        ColorToHexConverter lower = new ColorToHexConverter();
+        ColorToHexConverter upper = new ColorToHexConverter();
+        upper.setColorFormat(ColorFormat.compile("#{r:X}{g:X}{b:X}"));
+        lower.setConversionCache(cache);
+        upper.setConversionCache(cache);
+        Assert.assertEquals("#0fe000", lower.serializeArgb(0xFF0FE000));
+        Assert.assertEquals("#0FE000", upper.serializeArgb(0xFF0FE000));
+        upper.setColorFormat(null);
+        Assert.assertEquals("#0fe000", upper.serializeArgb(0xFF0FE000));
+        Assert.assertEquals(1, cache.getHitCount());
+
+        AnyCssToColorConverter any = new AnyCssToColorConverter(upper);
+        upper.setColorFormat(ColorFormat.compile("#{HEX}"));
+        any.setOutputConverter(upper);
+        Assert.assertEquals("#FFF", any.serializeArgb(0xFFFFFFFF));
+    }
+
+    @Test
+    public void invalidPatternsShouldFail() {
+        String[] patterns = {"{", "}", "{x}", "{r:y}", "{rgb}", "{}"};
+        for (String pattern : patterns) {
+            try {
+                ColorFormat.compile(pattern);
+                Assert.fail(pattern);
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
+}
@@ -15,8 +15,14 @@
  */
 package eu.maxschuster.vaadin.colorpickerfield.converter;
 
+import com.vaadin.data.util.converter.Converter.ConversionException;
 import com.vaadin.shared.ui.colorpicker.Color;
+import java.lang.management.ManagementFactory;
 import java.util.Arrays;
+import java.util.Locale;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
 
 /**
  *
@@ -41,4 +47,59 @@ public class HexToColorConverterTest extends
         }));
     }
 
+    @Test
+    public void convertShorthandAndAlphaNotationsToModel() {
+        HexToColorConverter stc = getStringToColorConverter();
+        Assert.assertEquals(new Color(255, 0, 170),
+                stc.convertToModel("#f0a", Color.class, Locale.GERMANY));
+        Assert.assertEquals(new Color(255, 0, 170, 136),
+                stc.convertToModel("#F0A8", Color.class, Locale.GERMANY));
+        Assert.assertEquals(new Color(15, 224, 0, 128),
+                stc.convertToModel("0fe00080", Color.class, Locale.GERMANY));
+        Assert.assertEquals(new Color(15, 224, 0, 0),
+                stc.convertToModel("#0FE00000", Color.class, Locale.GERMANY));
+    }
+
+    @Test
+    public void convertInvalidPresentationToModelShouldFail() {
+        HexToColorConverter stc = getStringToColorConverter();
+        String[] invalid = new String[]{"", "#", "#ff", "#fffff", "#fffffff",
+            "#fffffffff", "##fff", "#ggg", " #fff", "#fff ", "#\u00e4bc"};
+        for (String string : invalid) {
+            try {
+                stc.convertToModel(string, Color.class, Locale.GERMANY);
+                Assert.fail("'" + string + "' should not be converted");
+            } catch (ConversionException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void parseHexShouldNotAllocate() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        Assume.assumeTrue(threads.isThreadAllocatedMemorySupported()
+                && threads.isThreadAllocatedMemoryEnabled());
+        String[] strings = new String[]{"#ffFFff", "#0FE000", "#f0a", "#F0A8",
+            "0fe00080", "#ggg"};
+        long id = Thread.currentThread().getId();
+        long sum = parseHex(strings, 100000);
+        long before = threads.getThreadAllocatedBytes(id);
+        sum += parseHex(strings, 100000);
+        long allocated = threads.getThreadAllocatedBytes(id) - before;
+        // a few bytes of slack for the measurement itself
+        Assert.assertTrue("parseHex allocated " + allocated + " bytes (" + sum + ")",
+                allocated < 1024);
+    }
+
+    private static long parseHex(String[] strings, int iterations) {
+        long sum = 0;
+        for (int i = 0; i < iterations; i++) {
+            sum += CssColorParser.parseHex(strings[i % strings.length]);
+        }
+        return sum;
+    }
+
 }
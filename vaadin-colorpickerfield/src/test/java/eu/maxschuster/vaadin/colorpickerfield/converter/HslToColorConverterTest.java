@@ -0,0 +1,88 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.converter;
+
+import com.vaadin.shared.ui.colorpicker.Color;
+import java.util.Arrays;
+import java.util.Locale;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Max Schuster
+ */
+public class HslToColorConverterTest extends
+        AbstractStringToColorConverterTest<HslToColorConverter, ColorToHslConverter> {
+
+    public HslToColorConverterTest() {
+        super(new HslToColorConverter(), new ColorToHslConverter(),
+                Arrays.asList(new Color[]{
+            new Color(255, 255, 255),
+            new Color(15, 224, 0),
+            new Color(15, 224, 0, 153),
+            new Color(0, 0, 0, 0)
+        }),
+                Arrays.asList(new String[]{
+            "hsl(0 0% 100%)",
+            "hsl(115.98 100% 43.92%)",
+            "hsl(115.98 100% 43.92% / 0.6)",
+            "hsl(0 0% 0% / 0)"
+        }));
+    }
+
+    @Test
+    public void convertAlternativeSyntaxesToModel() {
+        HslToColorConverter stc = getStringToColorConverter();
+        String[] strings = new String[]{"hsl(210 50% 40% / 50%)",
+            "hsl(210deg 50% 40% / 0.5)", "HSLA(210, 50%, 40%, .5)",
+            "hsl( 0.58333turn 50 40 / 0.5 )", "hsl(3.66519rad 50% 40% / 0.5)",
+            "hsl(233.333grad 50% 40% / 0.5)", "hsl(-150 50% 40% / 0.5)",
+            "hsl(570 +50% 40% / 0.5)"};
+        for (String string : strings) {
+            Assert.assertEquals(string, new Color(51, 102, 153, 128),
+                    stc.convertToModel(string, Color.class, Locale.GERMANY));
+        }
+        Assert.assertEquals(new Color(128, 128, 128),
+                stc.convertToModel("hsl(none none 50%)", Color.class, Locale.GERMANY));
+    }
+
+    @Test
+    public void invalidInputShouldReportIndex() {
+        HslToColorConverter stc = getStringToColorConverter();
+        String[] strings = new String[]{"hsl(10% 50% 40%)", "hsl(210 50deg 40%)",
+            "hsl(210 50% 40%", "hsl(210, 50% 40%)", "hsl(210 50% 40%, 1)",
+            "hsl(210 50% 40% / 1deg)", "hsl(210 50% 40%) ", "hsl(210 50% .)",
+            "hsl(210foo 50% 40%)"};
+        int[] indices = new int[]{4, 8, 15, 13, 15, 18, 16, 13, 7};
+        for (int i = 0; i < strings.length; i++) {
+            long result = stc.tryParseArgb(strings[i]);
+            Assert.assertFalse(strings[i], AbstractColorConverter.isValidArgb(result));
+            Assert.assertEquals(strings[i], indices[i],
+                    AbstractColorConverter.getErrorIndex(result));
+        }
+    }
+
+    @Test
+    public void serializeAndParseEveryColor() {
+        HslToColorConverter stc = getStringToColorConverter();
+        for (int rgb = 0; rgb < 0x1000000; rgb += 251) {
+            int argb = 0xFF000000 | rgb;
+            Assert.assertEquals(argb, stc.parseArgb(stc.serializeArgb(argb)));
+        }
+    }
+
+}
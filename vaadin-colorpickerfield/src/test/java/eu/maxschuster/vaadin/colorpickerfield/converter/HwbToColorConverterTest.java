@@ -0,0 +1,76 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.converter;
+
+import com.vaadin.shared.ui.colorpicker.Color;
+import java.util.Arrays;
+import java.util.Locale;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Max Schuster
+ */
+public class HwbToColorConverterTest extends
+        AbstractStringToColorConverterTest<HwbToColorConverter, ColorToHwbConverter> {
+
+    public HwbToColorConverterTest() {
+        super(new HwbToColorConverter(), new ColorToHwbConverter(),
+                Arrays.asList(new Color[]{
+            new Color(255, 255, 255),
+            new Color(15, 224, 0),
+            new Color(15, 224, 0, 153),
+            new Color(0, 0, 0, 0)
+        }),
+                Arrays.asList(new String[]{
+            "hwb(0 100% 0%)",
+            "hwb(115.98 0% 12.16%)",
+            "hwb(115.98 0% 12.16% / 0.6)",
+            "hwb(0 0% 100% / 0)"
+        }));
+    }
+
+    @Test
+    public void convertAlternativeSyntaxesToModel() {
+        HwbToColorConverter stc = getStringToColorConverter();
+        Assert.assertEquals(new Color(51, 102, 153), stc.convertToModel(
+                "hwb(210 20% 40%)", Color.class, Locale.GERMANY));
+        Assert.assertEquals(new Color(51, 102, 153, 51), stc.convertToModel(
+                "HWB(0.58333turn 20 40 / 20%)", Color.class, Locale.GERMANY));
+        // whiteness and blackness add up to more than 100%
+        Assert.assertEquals(new Color(85, 85, 85), stc.convertToModel(
+                "hwb(210 40% 80%)", Color.class, Locale.GERMANY));
+    }
+
+    @Test
+    public void convertLegacySyntaxShouldFail() {
+        HwbToColorConverter stc = getStringToColorConverter();
+        long result = stc.tryParseArgb("hwb(210, 20%, 40%)");
+        Assert.assertFalse(AbstractColorConverter.isValidArgb(result));
+        Assert.assertEquals(7, AbstractColorConverter.getErrorIndex(result));
+    }
+
+    @Test
+    public void serializeAndParseEveryColor() {
+        HwbToColorConverter stc = getStringToColorConverter();
+        for (int rgb = 0; rgb < 0x1000000; rgb += 251) {
+            int argb = 0xFF000000 | rgb;
+            Assert.assertEquals(argb, stc.parseArgb(stc.serializeArgb(argb)));
+        }
+    }
+
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.converter;
+
+import com.vaadin.data.util.converter.Converter.ConversionException;
+import com.vaadin.shared.ui.colorpicker.Color;
+import java.util.Arrays;
+import java.util.Locale;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Max Schuster
+ */
+public class LabToColorConverterTest extends
+        AbstractStringToColorConverterTest<LabToColorConverter, ColorToLabConverter> {
+
+    public LabToColorConverterTest() {
+        super(new LabToColorConverter(), new ColorToLabConverter(),
+                Arrays.asList(new Color[]{
+            new Color(255, 255, 255),
+            new Color(15, 224, 0),
+            new Color(15, 224, 0, 153),
+            new Color(0, 0, 0, 0)
+        }),
+                Arrays.asList(new String[]{
+            "lab(100 0 0)",
+            "lab(78.19 -71.34 73.52)",
+            "lab(78.19 -71.34 73.52 / 0.6)",
+            "lab(0 0 0 / 0)"
+        }));
+    }
+
+    @Test
+    public void convertAlternativeSyntaxesToModel() {
+        LabToColorConverter stc = getStringToColorConverter();
+        Assert.assertEquals(new Color(51, 102, 153), stc.convertToModel(
+                "lab(41.52 -4.57 -33.49)", Color.class, Locale.GERMANY));
+        Assert.assertEquals(new Color(51, 102, 153), stc.convertToModel(
+                "LAB(41.52% -3.656% -26.792%)", Color.class, Locale.GERMANY));
+        Assert.assertEquals(new Color(255, 255, 255), stc.convertToModel(
+                "lab(120 0 0)", Color.class, Locale.GERMANY));
+        // out of gamut colors are clipped
+        Assert.assertEquals(new Color(0, 255, 0), stc.convertToModel(
+                "lab(88 -120 90)", Color.class, Locale.GERMANY));
+    }
+
+    @Test
+    public void convertLargestComponentToModel() {
+        LabToColorConverter stc = getStringToColorConverter();
+        Assert.assertEquals(new Color(255, 255, 255), stc.convertToModel(
+                "lab(34359.738367 0 0)", Color.class, Locale.GERMANY));
+        Assert.assertEquals(new Color(0, 0, 0), stc.convertToModel(
+                "lab(-34359.738367 0 0)", Color.class, Locale.GERMANY));
+    }
+
+    @Test
+    public void convertTooLargeComponentToModelShouldFailAtIndex() {
+        LabToColorConverter stc = getStringToColorConverter();
+        String[] invalid = new String[]{"lab(34359.738368 0 0)",
+            "lab(34359.8 0 0)", "lab(-34359.8 0 0)", "lab(0 34359.8% 0)",
+            "lab(0 0 34360)"};
+        int[] indices = new int[]{4, 4, 4, 6, 8};
+        for (int i = 0; i < invalid.length; i++) {
+            try {
+                stc.convertToModel(invalid[i], Color.class, Locale.GERMANY);
+                Assert.fail("'" + invalid[i] + "' should not be converted");
+            } catch (ConversionException e) {
+                Assert.assertTrue(e.getMessage(),
+                        e.getMessage().endsWith(" at index " + indices[i]));
+            }
+        }
+    }
+
+    @Test
+    public void serializeAndParseEveryColor() {
+        LabToColorConverter stc = getStringToColorConverter();
+        for (int rgb = 0; rgb < 0x1000000; rgb += 251) {
+            int argb = 0xFF000000 | rgb;
+            Assert.assertEquals(argb, stc.parseArgb(stc.serializeArgb(argb)));
+        }
+    }
+
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.converter;
+
+import com.vaadin.data.util.converter.Converter.ConversionException;
+import com.vaadin.shared.ui.colorpicker.Color;
+import java.util.Arrays;
+import java.util.Locale;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Max Schuster
+ */
+public class NamedToColorConverterTest extends
+        AbstractStringToColorConverterTest<NamedToColorConverter, ColorToNamedConverter> {
+
+    public NamedToColorConverterTest() {
+        super(new NamedToColorConverter(), new ColorToNamedConverter(),
+                Arrays.asList(new Color[]{
+            new Color(255, 255, 255),
+            new Color(102, 51, 153),
+            new Color(0, 128, 128),
+            new Color(0, 0, 0, 0)
+        }),
+                Arrays.asList(new String[]{
+            "white",
+            "RebeccaPurple",
+            "teal",
+            "transparent"
+        }));
+    }
+
+    @Test
+    public void parseEveryName() {
+        NamedToColorConverter stc = getStringToColorConverter();
+        for (int i = 0; i < CssColorNames.size(); i++) {
+            String name = CssColorNames.nameAt(i);
+            long expected = CssColorNames.argbAt(i) & 0xFFFFFFFFL;
+            Assert.assertEquals(name, expected, stc.tryParseArgb(name));
+            Assert.assertEquals(name, expected,
+                    stc.tryParseArgb(name.toUpperCase(Locale.ENGLISH)));
+            Assert.assertEquals(name, expected, stc.tryParseArgb(
+                    new StringBuilder(name).replace(0, 1, name.substring(0, 1)
+                            .toUpperCase(Locale.ENGLISH))));
+            Assert.assertEquals(name, CssColorNames.argbAt(i),
+                    stc.parseArgb(stc.serializeArgb(CssColorNames.argbAt(i))));
+        }
+    }
+
+    @Test
+    public void serializeAliasesAlphabetically() {
+        NamedToColorConverter stc = getStringToColorConverter();
+        Assert.assertEquals("aqua", stc.serializeArgb(0xFF00FFFF));
+        Assert.assertEquals("darkgray", stc.serializeArgb(0xFFA9A9A9));
+        Assert.assertEquals("fuchsia", stc.serializeArgb(0xFFFF00FF));
+        Assert.assertEquals("gray", stc.serializeArgb(0xFF808080));
+    }
+
+    @Test
+    public void invalidInputShouldReportIndex() {
+        NamedToColorConverter stc = getStringToColorConverter();
+        String[] strings = new String[]{"rebeccapurpl", "tea l", "redd",
+            "lightgoldenrodyelloww", "#ffffff", "gräy"};
+        int[] indices = new int[]{0, 3, 0, 0, 0, 2};
+        for (int i = 0; i < strings.length; i++) {
+            long result = stc.tryParseArgb(strings[i]);
+            Assert.assertFalse(strings[i], AbstractColorConverter.isValidArgb(result));
+            Assert.assertEquals(strings[i], indices[i],
+                    AbstractColorConverter.getErrorIndex(result));
+        }
+    }
+
+    @Test
+    public void serializeNearestName() {
+        NamedToColorConverter stc = getStringToColorConverter();
+        Assert.assertEquals("red", stc.serializeArgb(0xFFFE0101));
+        Assert.assertEquals("rebeccapurple", stc.serializeArgb(0x80663399));
+        Assert.assertEquals("transparent", stc.serializeArgb(0x00FFFFFF));
+        for (int rgb = 0; rgb < 0x1000000; rgb += 4099) {
+            Assert.assertTrue(stc.isValid(stc.serializeArgb(0xFF000000 | rgb)));
+        }
+    }
+
+    @Test(expected = ConversionException.class)
+    public void serializeWithoutNearestMatchShouldFail() {
+        NamedToColorConverter stc = getStringToColorConverter();
+        stc.setNearestMatch(false);
+        Assert.assertEquals("teal", stc.serializeArgb(0xFF008080));
+        stc.serializeArgb(0xFF008081);
+    }
+
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.converter;
+
+import com.vaadin.shared.ui.colorpicker.Color;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Locale;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+/**
+ *
+ * @author Max Schuster
+ */
+public class OklchToColorConverterTest extends
+        AbstractStringToColorConverterTest<OklchToColorConverter, ColorToOklchConverter> {
+
+    public OklchToColorConverterTest() {
+        super(new OklchToColorConverter(), new ColorToOklchConverter(),
+                Arrays.asList(new Color[]{
+            new Color(255, 255, 255),
+            new Color(15, 224, 0),
+            new Color(15, 224, 0, 153),
+            new Color(0, 0, 0, 0)
+        }),
+                Arrays.asList(new String[]{
+            "oklch(1 0 0)",
+            "oklch(0.78627 0.26638 142.31)",
+            "oklch(0.78627 0.26638 142.31 / 0.6)",
+            "oklch(0 0 0 / 0)"
+        }));
+    }
+
+    @Test
+    public void convertAlternativeSyntaxesToModel() {
+        OklchToColorConverter stc = getStringToColorConverter();
+        Assert.assertEquals(new Color(50, 102, 154), stc.convertToModel(
+                "oklch(50% 0.1 250)", Color.class, Locale.GERMANY));
+        Assert.assertEquals(new Color(50, 102, 154, 128), stc.convertToModel(
+                "OKLCH(0.5 25% 250deg / .5)", Color.class, Locale.GERMANY));
+        Assert.assertEquals(new Color(50, 102, 154), stc.convertToModel(
+                "oklch(0.5 0.1 -110)", Color.class, Locale.GERMANY));
+    }
+
+    @Test
+    public void serializeAndParseEveryColor() {
+        OklchToColorConverter stc = getStringToColorConverter();
+        for (int rgb = 0; rgb < 0x1000000; rgb += 251) {
+            int argb = 0xFF000000 | rgb;
+            Assert.assertEquals(argb, stc.parseArgb(stc.serializeArgb(argb)));
+        }
+    }
+
+    @Test
+    public void writeArgbShouldNotAllocate() throws IOException {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        Assume.assumeTrue(threads.isThreadAllocatedMemorySupported()
+                && threads.isThreadAllocatedMemoryEnabled());
+        OklchToColorConverter stc = getStringToColorConverter();
+        StringBuilder out = new StringBuilder(64);
+        long id = Thread.currentThread().getId();
+        int length = writeArgb(stc, out, 100000);
+        long before = threads.getThreadAllocatedBytes(id);
+        length += writeArgb(stc, out, 100000);
+        long allocated = threads.getThreadAllocatedBytes(id) - before;
+        // a few bytes of slack for the measurement itself
+        Assert.assertTrue("writeArgb allocated " + allocated + " bytes (" + length + ")",
+                allocated < 1024);
+    }
+
+    private static int writeArgb(OklchToColorConverter stc, StringBuilder out,
+            int iterations) throws IOException {
+        int length = 0;
+        for (int i = 0; i < iterations; i++) {
+            out.setLength(0);
+            stc.writeArgb(0xFF000000 | i * 167, out);
+            length += out.length();
+        }
+        return length;
+    }
+
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.converter;
+
+import com.vaadin.data.util.converter.Converter.ConversionException;
+import com.vaadin.shared.ui.colorpicker.Color;
+import java.nio.ByteBuffer;
+import java.util.Locale;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Max Schuster
+ */
+public class PackedColorConverterTest {
+
+    private static final Color COLOR = new Color(15, 224, 0, 153);
+
+    @Test
+    public void convertToInteger() {
+        ColorToIntegerConverter converter = new ColorToIntegerConverter();
+        Integer value = converter.convertToModel(COLOR, Integer.class, Locale.GERMANY);
+        Assert.assertEquals(Integer.valueOf(0x990FE000), value);
+        Assert.assertEquals(COLOR, converter.convertToPresentation(value,
+                Color.class, Locale.GERMANY));
+        Assert.assertEquals(Integer.valueOf(-1), converter.convertToModel(
+                new Color(255, 255, 255), Integer.class, Locale.GERMANY));
+    }
+
+    @Test
+    public void convertToLong() {
+        ColorToLongConverter converter = new ColorToLongConverter();
+        Long value = converter.convertToModel(COLOR, Long.class, Locale.GERMANY);
+        Assert.assertEquals(Long.valueOf(0x990FE000L), value);
+        Assert.assertEquals(COLOR, converter.convertToPresentation(value,
+                Color.class, Locale.GERMANY));
+    }
+
+    @Test(expected = ConversionException.class)
+    public void convertLongOutOfRangeShouldFail() {
+        new ColorToLongConverter().convertToPresentation(0x100000000L,
+                Color.class, Locale.GERMANY);
+    }
+
+    @Test
+    public void convertToByteArray() {
+        ColorToByteArrayConverter converter = new ColorToByteArrayConverter();
+        byte[] value = converter.convertToModel(COLOR, byte[].class, Locale.GERMANY);
+        Assert.assertArrayEquals(new byte[]{15, (byte) 224, 0, (byte) 153}, value);
+        Assert.assertEquals(0x0FE00099, ByteBuffer.wrap(value).getInt());
+        Assert.assertEquals(COLOR, converter.convertToPresentation(value,
+                Color.class, Locale.GERMANY));
+    }
+
+    @Test(expected = ConversionException.class)
+    public void convertByteArrayOfWrongLengthShouldFail() {
+        new ColorToByteArrayConverter().convertToPresentation(new byte[3],
+                Color.class, Locale.GERMANY);
+    }
+
+    @Test
+    public void convertNullShouldReturnNull() {
+        AbstractPackedColorConverter<?>[] converters = {
+            new ColorToIntegerConverter(), new ColorToLongConverter(),
+            new ColorToByteArrayConverter()
+        };
+        for (AbstractPackedColorConverter<?> converter : converters) {
+            Assert.assertNull(converter.convertToModel(null, null, Locale.GERMANY));
+            Assert.assertNull(converter.convertToPresentation(null, null, Locale.GERMANY));
+        }
+    }
+
+}
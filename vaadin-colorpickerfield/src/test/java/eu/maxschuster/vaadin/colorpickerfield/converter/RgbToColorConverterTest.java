@@ -15,8 +15,12 @@
  */
 package eu.maxschuster.vaadin.colorpickerfield.converter;
 
+import com.vaadin.data.util.converter.Converter.ConversionException;
 import com.vaadin.shared.ui.colorpicker.Color;
 import java.util.Arrays;
+import java.util.Locale;
+import org.junit.Assert;
+import org.junit.Test;
 
 /**
  *
@@ -39,4 +43,31 @@ public class RgbToColorConverterTest extends
         }));
     }
 
+    @Test
+    public void convertPresentationWithWhitespaceToModel() {
+        RgbToColorConverter stc = getStringToColorConverter();
+        Assert.assertEquals(new Color(15, 224, 0),
+                stc.convertToModel("RGB( 15 ,\t224,0\n)", Color.class, Locale.GERMANY));
+        Assert.assertEquals(new Color(7, 0, 255),
+                stc.convertToModel("rgb(007,0,255)", Color.class, Locale.GERMANY));
+    }
+
+    @Test
+    public void convertInvalidPresentationToModelShouldFailAtIndex() {
+        RgbToColorConverter stc = getStringToColorConverter();
+        String[] invalid = new String[]{"", "rgb", "rgba(0,0,0)", "rgb(,0,0)",
+            "rgb(256,0,0)", "rgb(0,0,0", "rgb(0,0,0))", "rgb(0,0,0,0)",
+            "rgb(0,0,0001)", "rgb(0 0 0)", " rgb(0,0,0)"};
+        int[] indices = new int[]{0, 3, 3, 4, 4, 9, 10, 9, 11, 6, 0};
+        for (int i = 0; i < invalid.length; i++) {
+            try {
+                stc.convertToModel(invalid[i], Color.class, Locale.GERMANY);
+                Assert.fail("'" + invalid[i] + "' should not be converted");
+            } catch (ConversionException e) {
+                Assert.assertTrue(e.getMessage(),
+                        e.getMessage().endsWith(" at index " + indices[i]));
+            }
+        }
+    }
+
 }
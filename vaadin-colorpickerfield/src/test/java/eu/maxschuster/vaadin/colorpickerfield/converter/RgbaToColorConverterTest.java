@@ -15,8 +15,15 @@
  */
 package eu.maxschuster.vaadin.colorpickerfield.converter;
 
+import com.vaadin.data.util.converter.Converter.ConversionException;
 import com.vaadin.shared.ui.colorpicker.Color;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
 
 /**
  *
@@ -39,4 +46,67 @@ public class RgbaToColorConverterTest extends
         }));
     }
 
+    @Test
+    public void convertAlphaToModel() {
+        RgbaToColorConverter stc = getStringToColorConverter();
+        String[] alphas = new String[]{"0.5", "0.1", "0.3", "0.7", "0.9",
+            "1.000", "0.50196078431372548", "0.0019607843",
+            "0.0019607843138", "0.00196078431", "0.9999999999999",
+            "1.0000000000"};
+        int[] expected = new int[]{128, 26, 77, 179, 230, 255, 128, 0,
+            1, 0, 255, 255};
+        for (int i = 0; i < alphas.length; i++) {
+            Color color = stc.convertToModel("rgba(0, 0, 0, " + alphas[i]
+                    + ")", Color.class, Locale.GERMANY);
+            Assert.assertEquals(alphas[i], expected[i], color.getAlpha());
+        }
+    }
+
+    @Test
+    public void convertLongAlphaToModelLikeDouble() {
+        RgbaToColorConverter stc = getStringToColorConverter();
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            // around the rounding midpoints of every byte
+            double midpoint = (random.nextInt(255) + 0.5) / 255;
+            String alpha = new BigDecimal(midpoint + (random.nextGaussian() * 1e-9))
+                    .setScale(9 + random.nextInt(8), RoundingMode.HALF_UP)
+                    .toPlainString();
+            Assert.assertEquals(alpha,
+                    Math.round(Double.parseDouble(alpha) * 255),
+                    stc.parseArgb("rgba(0,0,0," + alpha + ")") >>> 24);
+        }
+    }
+
+    @Test
+    public void serializeAndParseEveryAlpha() {
+        RgbaToColorConverter stc = getStringToColorConverter();
+        for (int alpha = 0; alpha < 256; alpha++) {
+            double value = alpha / 255d;
+            String expected = "rgba(1,2,3," + (value == (long) value
+                    ? Long.toString((long) value) : Double.toString(value)) + ")";
+            String string = stc.serializeArgb(alpha << 24 | 0x010203);
+            Assert.assertEquals(expected, string);
+            Assert.assertEquals(string, alpha, stc.parseArgb(string) >>> 24);
+        }
+    }
+
+    @Test
+    public void convertInvalidPresentationToModelShouldFailAtIndex() {
+        RgbaToColorConverter stc = getStringToColorConverter();
+        String[] invalid = new String[]{"rgb(0,0,0)", "rgba(0,0,0)",
+            "rgba(0,0,0,1.5)", "rgba(0,0,0,2)", "rgba(0,0,0,.5)",
+            "rgba(0,0,0,0.)", "rgba(0,0,0,0.5x)", "rgba(0,0,0,1.0000000001)"};
+        int[] indices = new int[]{3, 10, 11, 11, 11, 13, 14, 11};
+        for (int i = 0; i < invalid.length; i++) {
+            try {
+                stc.convertToModel(invalid[i], Color.class, Locale.GERMANY);
+                Assert.fail("'" + invalid[i] + "' should not be converted");
+            } catch (ConversionException e) {
+                Assert.assertTrue(e.getMessage(),
+                        e.getMessage().endsWith(" at index " + indices[i]));
+            }
+        }
+    }
+
 }
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.validator;
+
+import com.vaadin.data.Validator.InvalidValueException;
+import com.vaadin.shared.ui.colorpicker.Color;
+import eu.maxschuster.vaadin.colorpickerfield.color.ColorSet;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Max Schuster
+ */
+public class ColorSetValidatorTest {
+
+    private final ColorSetValidator validator = new ColorSetValidator(
+            new ColorSet(0xFF336699, 0xFFFFFFFF), "Not allowed");
+
+    @Test
+    public void validColors() {
+        validator.validate(new Color(0x33, 0x66, 0x99));
+        validator.validate(new Color(255, 255, 255, 128));
+        validator.validate(null);
+    }
+
+    @Test(expected = InvalidValueException.class)
+    public void invalidColorShouldFail() {
+        validator.validate(new Color(0x33, 0x66, 0x98));
+    }
+
+    @Test
+    public void errorMessageShouldContainCssColor() {
+        ColorSetValidator formatting = new ColorSetValidator(
+                new ColorSet(0xFF336699), "{0} is not allowed");
+        try {
+            formatting.validate(new Color(0x33, 0x66, 0x98));
+            Assert.fail();
+        } catch (InvalidValueException ex) {
+            Assert.assertEquals("#336698 is not allowed", ex.getMessage());
+        }
+    }
+
+    @Test
+    public void isValid() {
+        Assert.assertTrue(validator.isValid(new Color(0x33, 0x66, 0x99)));
+        Assert.assertFalse(validator.isValid(new Color(0, 0, 0)));
+        Assert.assertFalse(validator.isValid("#336699"));
+    }
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2015 Max Schuster.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.maxschuster.vaadin.colorpickerfield.validator;
+
+import com.vaadin.data.Property;
+import com.vaadin.data.Validator.InvalidValueException;
+import com.vaadin.data.util.ObjectProperty;
+import com.vaadin.shared.ui.colorpicker.Color;
+import eu.maxschuster.vaadin.colorpickerfield.color.ColorContrast;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Max Schuster
+ */
+public class ContrastValidatorTest {
+
+    @Test
+    public void validateForeground() {
+        Property<Color> background = new ObjectProperty<Color>(Color.WHITE, Color.class);
+        ContrastValidator validator = ContrastValidator.forForeground(
+                background, ColorContrast.AA_NORMAL_TEXT, "Too low contrast");
+        Assert.assertTrue(validator.isValid(new Color(0x76, 0x76, 0x76)));
+        Assert.assertFalse(validator.isValid(new Color(0x77, 0x77, 0x77)));
+        Assert.assertTrue(validator.isValid(null));
+        background.setValue(Color.BLACK);
+        Assert.assertFalse(validator.isValid(new Color(0x33, 0x33, 0x33)));
+        background.setValue(null);
+        Assert.assertTrue(validator.isValid(new Color(0x76, 0x76, 0x76)));
+    }
+
+    @Test
+    public void validateBackground() {
+        Property<Color> foreground = new ObjectProperty<Color>(
+                new Color(0, 0, 0, 128), Color.class);
+        ContrastValidator validator = ContrastValidator.forBackground(
+                foreground, ColorContrast.AA_LARGE_TEXT, "Too low contrast");
+        Assert.assertTrue(validator.isValid(Color.WHITE));
+        Assert.assertFalse(validator.isValid(Color.BLACK));
+    }
+
+    @Test
+    public void errorMessageShouldContainCssColor() {
+        ContrastValidator validator = ContrastValidator.forForeground(
+                new ObjectProperty<Color>(Color.WHITE, Color.class),
+                ColorContrast.AA_NORMAL_TEXT, "{0} has too low contrast");
+        try {
+            validator.validate(new Color(0x77, 0x77, 0x77));
+            Assert.fail();
+        } catch (InvalidValueException ex) {
+            Assert.assertEquals("#777777 has too low contrast", ex.getMessage());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidRatioShouldFail() {
+        ContrastValidator.forForeground(new ObjectProperty<Color>(Color.WHITE,
+                Color.class), 0.5, "Too low contrast");
+    }
+
+}